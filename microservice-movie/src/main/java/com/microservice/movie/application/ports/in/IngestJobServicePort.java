@@ -0,0 +1,19 @@
+package com.microservice.movie.application.ports.in;
+
+import com.microservice.movie.domain.model.IngestJob;
+import com.microservice.movie.domain.model.IngestWorkspace;
+
+import java.io.IOException;
+
+public interface IngestJobServicePort {
+    IngestWorkspace createWorkspace(Long idMovie) throws IOException;
+    IngestJob enqueue(Long idMovie, IngestWorkspace workspace);
+    // Queues a job whose sources are in storage under the prefix; the worker fetches them into the workspace
+    IngestJob enqueueFromStorage(Long idMovie, IngestWorkspace workspace, String sourcePrefix);
+    void discardWorkspace(IngestWorkspace workspace);
+    void purgeExpiredWorkspaces();
+    IngestJob getLatestJob(Long idMovie);
+    IngestJob retry(Long idMovie);
+    void dispatchPendingJobs();
+    void renewLeases();
+}
@@ -0,0 +1,16 @@
+package com.microservice.movie.application.ports.in;
+
+import com.microservice.movie.domain.model.MediaObject;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+public interface MediaStreamingPort {
+    // Resolves a path inside the encoded ladder of an active title, e.g. hls/720p/segment_00001.ts.
+    // Its local copy, if any, is kept until release()
+    MediaObject open(Long idMovie, String path);
+    // Writes bytes [start, end] of the object, from the local copy if there is one, else from storage
+    void transfer(MediaObject object, long start, long end, WritableByteChannel target) throws IOException;
+    // Lets the local copy of an opened object be evicted again, once its response is written
+    void release(MediaObject object);
+}
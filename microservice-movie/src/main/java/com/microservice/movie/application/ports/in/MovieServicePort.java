@@ -1,19 +1,30 @@
 package com.microservice.movie.application.ports.in;
 
 import com.microservice.movie.domain.model.Movie;
+import com.microservice.movie.domain.model.MovieSearchPage;
 
 import java.util.List;
+import java.util.Map;
 
 public interface MovieServicePort {
 
     Movie findById(Long id);
+    // One query for all ids; unknown ids are skipped and the order of the request is kept
+    List<Movie> findAllById(List<Long> ids);
     Movie save(Movie movie);
     List<Movie> findAll();
+    List<Movie> getCatalogPage(Long idCategory, Long afterId, int limit);
     Movie findByCategory(Long idCategory);
     void deleteById(Long id);
+    // Deletes the stored assets no title has referenced for the grace period
+    void collectUnreferencedAssets();
     Movie updateById(Long id,Movie updateMovie);
     Movie findByTitle(String title);
-    List<Movie> searchByTitle(String title);
+    MovieSearchPage searchByTitle(String title, int page, int size);
     List<Movie> getEpisodesBySeriesTitle(String title);
+    List<Movie> getEpisodesBySeason(String title, Integer seasonNumber);
+    Map<Integer, List<Movie>> getEpisodesGroupedBySeason(String title);
     void setActiveStatus(Long id, boolean active);
+    // Replays a change made on another instance, so that this one's read models and caches follow it
+    void applyPeerChange(Long id);
 }
@@ -0,0 +1,8 @@
+package com.microservice.movie.application.ports.in;
+
+public interface PlaybackServicePort {
+    String getHlsMasterPlaylist(Long idMovie);
+    String getHlsMediaPlaylist(Long idMovie, String quality);
+    String getDashManifest(Long idMovie);
+    String getThumbnailTrack(Long idMovie);
+}
@@ -1,14 +1,25 @@
 package com.microservice.movie.application.ports.in;
 
+import com.microservice.movie.domain.model.IngestWorkspace;
 import com.microservice.movie.domain.model.Movie;
-import java.nio.file.Path;
+import com.microservice.movie.domain.model.TranscodeProgress;
+
+import java.io.IOException;
+import java.time.Duration;
 
 public interface UploadMoviePort {
-    void  processAndUploadMovieAsync(  Path videoPath,
-                                       Path audioEnPath,
-                                       Path audioEsPath,
-                                       Path subsEnPath,
-                                       Path subsEsPath,
-                                       Path imagePath,
-                                       Movie movie);
-}
\ No newline at end of file
+    // Encodes the workspace video into the HLS (and optional DASH) ladder while the side assets and every
+    // finished rendition are uploaded, then publishes the movie
+    void ingest(Movie movie, IngestWorkspace workspace, IngestListener listener) throws IOException, InterruptedException;
+    // Uploads a workspace whose ladder is already encoded, then publishes the movie
+    void publish(Movie movie, IngestWorkspace workspace, IngestListener listener) throws IOException, InterruptedException;
+
+    interface IngestListener {
+        // Live progress of the encode
+        void progress(TranscodeProgress progress);
+        // Every rendition is encoded: only uploads are left
+        void encoded();
+        // A pipeline stage completed after this wall time
+        void stageCompleted(String stage, Duration wallTime);
+    }
+}
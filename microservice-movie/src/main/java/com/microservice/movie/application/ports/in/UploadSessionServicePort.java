@@ -0,0 +1,19 @@
+package com.microservice.movie.application.ports.in;
+
+import com.microservice.movie.domain.model.AssetRole;
+import com.microservice.movie.domain.model.Movie;
+import com.microservice.movie.domain.model.UploadSession;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+public interface UploadSessionServicePort {
+    // Saves the movie and returns presigned URLs for each source file, given its size in bytes
+    UploadSession open(Movie movie, Map<AssetRole, Long> fileSizes);
+    // Checks that every file is stored and queues the ingest; partETags lists the part ETags of multipart files, in order
+    Movie complete(String idSession, Map<AssetRole, List<String>> partETags) throws IOException;
+    void abort(String idSession);
+    // Releases the storage of sessions that were neither completed nor aborted in time
+    void expireSessions();
+}
@@ -0,0 +1,8 @@
+package com.microservice.movie.application.ports.out;
+
+import java.util.function.Supplier;
+
+public interface CatalogCachePort {
+    // Result of a catalog read, loaded on a miss; keys are compared with equals and every catalog change drops them all
+    <T> T get(Object key, Supplier<T> loader);
+}
@@ -0,0 +1,10 @@
+package com.microservice.movie.application.ports.out;
+
+import com.microservice.movie.domain.model.Rendition;
+
+import java.util.List;
+
+public interface EncodingProfilePort {
+    // Renditions of the configured encoding profile, highest quality first
+    List<Rendition> getRenditions();
+}
@@ -1,12 +1,42 @@
 package com.microservice.movie.application.ports.out;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
 
 public interface FileStoragePort {
     boolean uploadFile(String bucket, String key, Path file);
+    // Uploads independent objects concurrently; fails if any of them fails
+    void uploadFiles(String bucket, Map<String, Path> files) throws IOException;
+    // Deletes every object whose key starts with the prefix (a full key deletes that object)
+    void deleteObjects(String bucket, String prefix);
     void downloadFile(String bucket, String key) throws IOException;
+    String readObjectAsString(String bucket, String key);
+    // Copy of the object in the local disk cache, downloaded first on a miss
+    Path getLocalCopy(String bucket, String key) throws IOException;
+    // Size in bytes, empty if the object does not exist
+    OptionalLong getObjectSize(String bucket, String key);
+    // Bytes [start, end] of the object as they arrive; the caller closes the stream
+    InputStream openRange(String bucket, String key, long start, long end);
+    // Streams the whole object into the file (replaced if it exists) through a fixed-size buffer
+    void downloadTo(String bucket, String key, Path target) throws IOException;
+    // Writes bytes [start, end] of the object to the channel as they arrive; returns the bytes written
+    long downloadRange(String bucket, String key, long start, long end, WritableByteChannel target) throws IOException;
     String generatePresignedUploadUrl(String bucket, String key, Duration duration);
+    // Starts a multipart upload whose parts the client sends itself; returns its upload id
+    String createMultipartUpload(String bucket, String key);
+    String generatePresignedUploadPartUrl(String bucket, String key, String uploadId, int partNumber, Duration duration);
+    // eTags holds the ETag storage returned for each part, in part order
+    void completeMultipartUpload(String bucket, String key, String uploadId, List<String> eTags);
+    // Drops the parts of an unfinished upload; an upload that no longer exists is ignored
+    void abortMultipartUpload(String bucket, String key, String uploadId);
     String generatePresignedDownloadUrl(String bucket, String key, Duration duration);
+    // Signs each distinct non-null key once; the result maps key -> URL
+    Map<String, String> generatePresignedDownloadUrls(String bucket, Collection<String> keys, Duration duration);
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.microservice.movie.application.ports.out;
+
+import com.microservice.movie.domain.model.IngestJob;
+import com.microservice.movie.domain.model.IngestStage;
+import com.microservice.movie.domain.model.IngestState;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface IngestJobPersistencePort {
+    IngestJob save(IngestJob job);
+    Optional<IngestJob> findById(Long idJob);
+    Optional<IngestJob> findLatestByMovie(Long idMovie);
+    // Jobs the node may run: those of any node, and those whose files are on its own volume
+    List<Long> findClaimable(String node, LocalDateTime now, int limit);
+    boolean claim(Long idJob, String node, String owner, LocalDateTime now, LocalDateTime leaseUntil);
+    void updateProgress(Long idJob, String owner, Double percent, Double fps, Double speed);
+    // Moves a job owned by this worker to the state and completed stage, leaving the other columns alone
+    void checkpoint(Long idJob, String owner, IngestState state, IngestStage completedStage, LocalDateTime now);
+    void renewLeases(Collection<Long> idJobs, String owner, LocalDateTime leaseUntil);
+    List<IngestJob> findFailedUpdatedBefore(LocalDateTime before);
+    boolean existsByWorkDir(String workDir);
+}
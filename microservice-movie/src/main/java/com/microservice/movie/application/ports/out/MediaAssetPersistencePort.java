@@ -0,0 +1,22 @@
+package com.microservice.movie.application.ports.out;
+
+import com.microservice.movie.domain.model.AssetRole;
+import com.microservice.movie.domain.model.MediaAsset;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface MediaAssetPersistencePort {
+    // References the stored asset with this hash, once per movie and role; empty if nothing is stored yet
+    Optional<MediaAsset> acquire(Long idMovie, AssetRole role, String contentHash);
+    // Records a newly stored asset (or one stored concurrently by another job) and references it;
+    // fails while the sweep is deleting the same content, whose objects may be gone with it
+    MediaAsset register(Long idMovie, AssetRole role, MediaAsset asset);
+    // Drops every reference of the movie; assets left without any are deleted later by the sweep
+    void releaseAll(Long idMovie);
+    // Marks up to limit assets unreferenced since before the given time as deleting and returns them
+    List<MediaAsset> claimUnreferenced(LocalDateTime releasedBefore, int limit);
+    // Drops the row of a claimed asset once its objects are deleted
+    void remove(String contentHash);
+}
@@ -2,17 +2,19 @@ package com.microservice.movie.application.ports.out;
 
 import com.microservice.movie.domain.model.Movie;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface MoviePersistencePort {
     Optional<Movie> findById(Long id);
     List<Movie> findAll();
+    List<Movie> findAllById(Collection<Long> ids);
     Movie save(Movie movie);
     void deleteById(Long id);
     Optional<Movie> findByCategory(Long idCategory);
     Optional<Movie> findByTitle(String title);
-    List<Movie> searchByTitle(String title);
-    List<Movie> findAllByTitle(String title);
+    // Active titles of a category ordered by id, after the given id; series collapse to their first episode
+    List<Movie> findCatalogPage(Long idCategory, Long afterId, int limit);
 
 }
@@ -0,0 +1,8 @@
+package com.microservice.movie.application.ports.out;
+
+import com.microservice.movie.domain.model.MovieSearchPage;
+
+public interface MovieSearchPort {
+    // Active movies and episodes matching every word of the query, best matches first
+    MovieSearchPage search(String query, int page, int size);
+}
@@ -0,0 +1,10 @@
+package com.microservice.movie.application.ports.out;
+
+import com.microservice.movie.domain.model.Series;
+
+import java.util.Optional;
+
+public interface SeriesReadModelPort {
+    // Same matching as the title column: case and accents are ignored
+    Optional<Series> findByTitle(String title);
+}
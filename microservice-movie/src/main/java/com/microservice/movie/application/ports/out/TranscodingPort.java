@@ -0,0 +1,28 @@
+package com.microservice.movie.application.ports.out;
+
+import com.microservice.movie.domain.model.Rendition;
+import com.microservice.movie.domain.model.SourceMedia;
+import com.microservice.movie.domain.model.TranscodeProgress;
+import com.microservice.movie.domain.model.TranscodeResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface TranscodingPort {
+    // Reads resolution, bitrate and duration of the source video
+    SourceMedia probe(Path source) throws IOException, InterruptedException;
+    // Encodes each rendition as an HLS media playlist under outputDir/<quality>/, reporting progress as it goes
+    // and each rendition as soon as its files are complete
+    List<TranscodeResult> transcode(Path source, Path outputDir, List<Rendition> renditions,
+                                    Consumer<TranscodeProgress> progress, Consumer<TranscodeResult> completed)
+            throws IOException, InterruptedException;
+    // Writes outputDir/master.m3u8 referencing the rendition playlists
+    Path writeMasterPlaylist(Path outputDir, List<TranscodeResult> renditions) throws IOException;
+    // Extracts a preview frame at fixed intervals into JPEG sprite sheets under outputDir and writes
+    // outputDir/thumbnails.vtt, which maps each interval to its tile of a sheet
+    Path generateThumbnails(Path source, Path outputDir, SourceMedia media) throws IOException, InterruptedException;
+    // Remuxes the encoded renditions (no re-encode) into a DASH manifest under dashDir
+    Path packageDash(Path dashDir, List<TranscodeResult> renditions) throws IOException, InterruptedException;
+}
@@ -0,0 +1,16 @@
+package com.microservice.movie.application.ports.out;
+
+import com.microservice.movie.domain.model.UploadSession;
+import com.microservice.movie.domain.model.UploadSessionState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface UploadSessionPersistencePort {
+    UploadSession save(UploadSession session);
+    Optional<UploadSession> findById(String idSession);
+    List<UploadSession> findOpenExpiredBefore(LocalDateTime now);
+    // Moves the session from one state to another; false if it was no longer in the first one
+    boolean transition(String idSession, UploadSessionState from, UploadSessionState to);
+}
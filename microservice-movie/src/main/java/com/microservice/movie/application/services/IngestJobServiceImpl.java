@@ -0,0 +1,515 @@
+package com.microservice.movie.application.services;
+
+import com.microservice.movie.application.ports.in.IngestJobServicePort;
+import com.microservice.movie.application.ports.in.MovieServicePort;
+import com.microservice.movie.application.ports.in.UploadMoviePort;
+import com.microservice.movie.application.ports.out.FileStoragePort;
+import com.microservice.movie.application.ports.out.IngestJobPersistencePort;
+import com.microservice.movie.domain.exceptions.IngestJobNotFoundException;
+import com.microservice.movie.domain.model.AssetRole;
+import com.microservice.movie.domain.model.IngestJob;
+import com.microservice.movie.domain.model.IngestStage;
+import com.microservice.movie.domain.model.IngestState;
+import com.microservice.movie.domain.model.IngestWorkspace;
+import com.microservice.movie.domain.model.Movie;
+import com.microservice.movie.domain.model.TranscodeProgress;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Durable ingest queue. Jobs are rows in {@code ingest_job}; each instance claims at most
+ * {@code ingest.max-concurrent-jobs} of them through a renewable lease, so a job held by a
+ * crashed instance becomes claimable again once its lease expires. A retried job resumes
+ * after its last completed stage. Jobs of direct uploads start by fetching their sources from
+ * storage, so any instance can run them.
+ * <p>
+ * The files of an upload through this service are only on the {@code ingest.work-dir} volume of
+ * the node that received it, so its job is only claimed by that node ({@code ingest.node-id},
+ * which must survive restarts). With {@code ingest.shared-work-dir} every node mounts the same
+ * volume and claims any job. A job whose workspace lacks its encoded ladder is encoded again, and
+ * one whose uploaded files are gone fails at once instead of using up its attempts.
+ * <p>
+ * While a job encodes, the FFmpeg progress is written to its row every
+ * {@code ingest.progress-interval-ms}. The job is TRANSCODING until its last rendition is encoded
+ * and UPLOADING for the uploads still running then. Queue wait, job stage durations and the wall
+ * time of every pipeline stage are published as timers.
+ */
+@Service
+public class IngestJobServiceImpl implements IngestJobServicePort {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final IngestJobPersistencePort ingestJobPersistencePort;
+    private final MovieServicePort movieServicePort;
+    private final UploadMoviePort uploadMoviePort;
+    private final FileStoragePort fileStoragePort;
+
+    private final String bucket;
+    private final Path workRoot;
+    private final int maxConcurrentJobs;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration retryBackoff;
+    private final Duration workspaceRetention;
+    private final Duration progressInterval;
+
+    private final String node;
+    private final boolean sharedWorkDir;
+    private final String owner;
+    private final Set<Long> runningJobs = ConcurrentHashMap.newKeySet();
+    private final ExecutorService workers;
+
+    private final Timer queueWait;
+    private final Timer fetchStage;
+    private final Timer transcodeStage;
+    private final Timer uploadStage;
+    private final MeterRegistry meterRegistry;
+
+    public IngestJobServiceImpl(IngestJobPersistencePort ingestJobPersistencePort,
+                                MovieServicePort movieServicePort,
+                                UploadMoviePort uploadMoviePort,
+                                FileStoragePort fileStoragePort,
+                                MeterRegistry meterRegistry,
+                                @Value("${aws.bucket}") String bucket,
+                                @Value("${ingest.work-dir:${java.io.tmpdir}/movie-ingest}") String workDir,
+                                @Value("${ingest.max-concurrent-jobs:2}") int maxConcurrentJobs,
+                                @Value("${ingest.max-attempts:3}") int maxAttempts,
+                                @Value("${ingest.lease-seconds:120}") long leaseSeconds,
+                                @Value("${ingest.retry-backoff-seconds:60}") long retryBackoffSeconds,
+                                @Value("${ingest.workspace-retention-hours:72}") long workspaceRetentionHours,
+                                @Value("${ingest.progress-interval-ms:5000}") long progressIntervalMs,
+                                @Value("${ingest.node-id:}") String nodeId,
+                                @Value("${ingest.shared-work-dir:false}") boolean sharedWorkDir) {
+        this.ingestJobPersistencePort = ingestJobPersistencePort;
+        this.movieServicePort = movieServicePort;
+        this.uploadMoviePort = uploadMoviePort;
+        this.fileStoragePort = fileStoragePort;
+        this.bucket = bucket;
+        this.workRoot = Path.of(workDir);
+        this.maxConcurrentJobs = Math.max(1, maxConcurrentJobs);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.retryBackoff = Duration.ofSeconds(retryBackoffSeconds);
+        this.workspaceRetention = Duration.ofHours(workspaceRetentionHours);
+        this.progressInterval = Duration.ofMillis(progressIntervalMs);
+        this.node = nodeId.isBlank() ? hostName() : nodeId;
+        this.sharedWorkDir = sharedWorkDir;
+        this.owner = node + ":" + UUID.randomUUID();
+        this.workers = Executors.newFixedThreadPool(this.maxConcurrentJobs);
+
+        this.queueWait = Timer.builder("movie.ingest.queue.wait")
+                .description("Time from a job becoming runnable until a worker starts it")
+                .register(meterRegistry);
+        this.fetchStage = stageTimer(meterRegistry, "fetch");
+        this.transcodeStage = stageTimer(meterRegistry, "transcode");
+        this.uploadStage = stageTimer(meterRegistry, "upload");
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("movie.ingest.running", runningJobs, Set::size)
+                .description("Ingest jobs running on this instance")
+                .register(meterRegistry);
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("movie.ingest.stage.duration")
+                .description("Wall time of a successful ingest stage")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public IngestWorkspace createWorkspace(Long idMovie) throws IOException {
+        Files.createDirectories(workRoot);
+        return new IngestWorkspace(Files.createTempDirectory(workRoot, "movie_" + idMovie + "_"));
+    }
+
+    @Override
+    public IngestJob enqueue(Long idMovie, IngestWorkspace workspace) {
+        return enqueueFromStorage(idMovie, workspace, null);
+    }
+
+    @Override
+    public IngestJob enqueueFromStorage(Long idMovie, IngestWorkspace workspace, String sourcePrefix) {
+        LocalDateTime now = LocalDateTime.now();
+        IngestJob job = IngestJob.builder()
+                .idMovie(idMovie)
+                .state(IngestState.QUEUED)
+                .workDir(workspace.getRoot().toString())
+                .sourcePrefix(sourcePrefix)
+                // Fetched sources can be fetched again anywhere; an upload received here is only here
+                .workNode(sourcePrefix == null && !sharedWorkDir ? node : null)
+                .maxAttempts(maxAttempts)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        return ingestJobPersistencePort.save(job);
+    }
+
+    @Override
+    public void discardWorkspace(IngestWorkspace workspace) {
+        deleteDirectory(workspace.getRoot().toFile());
+    }
+
+    @Override
+    public void purgeExpiredWorkspaces() {
+        LocalDateTime threshold = LocalDateTime.now().minus(workspaceRetention);
+
+        // Failed jobs keep their files for a manual retry, but not forever
+        for (IngestJob job : ingestJobPersistencePort.findFailedUpdatedBefore(threshold)) {
+            Path workDir = Path.of(job.getWorkDir());
+            if (Files.exists(workDir)) {
+                logger.info("Purging workspace of failed ingest job {}", job.getIdJob());
+                deleteDirectory(workDir.toFile());
+            }
+            deleteStagedSources(job);
+        }
+
+        // Workspaces of uploads that never reached the queue (aborted requests, crashes)
+        if (!Files.isDirectory(workRoot)) {
+            return;
+        }
+        long thresholdMillis = System.currentTimeMillis() - workspaceRetention.toMillis();
+        try (Stream<Path> dirs = Files.list(workRoot)) {
+            for (Path dir : dirs.filter(Files::isDirectory).toList()) {
+                if (dir.getFileName().toString().startsWith(".")
+                        || Files.getLastModifiedTime(dir).toMillis() > thresholdMillis
+                        || ingestJobPersistencePort.existsByWorkDir(dir.toString())) {
+                    continue;
+                }
+                logger.info("Purging orphaned ingest workspace {}", dir);
+                deleteDirectory(dir.toFile());
+            }
+        } catch (IOException e) {
+            logger.error("Error purging ingest workspaces", e);
+        }
+    }
+
+    @Override
+    public IngestJob getLatestJob(Long idMovie) {
+        return ingestJobPersistencePort.findLatestByMovie(idMovie)
+                .orElseThrow(IngestJobNotFoundException::new);
+    }
+
+    @Override
+    public IngestJob retry(Long idMovie) {
+        IngestJob job = getLatestJob(idMovie);
+        if (job.getState() != IngestState.FAILED) {
+            throw new IllegalArgumentException("Only failed ingest jobs can be retried.");
+        }
+        boolean sourcesKept;
+        if (job.getSourcePrefix() != null) {
+            sourcesKept = IngestWorkspace.SOURCES.stream()
+                    .allMatch(role -> fileStoragePort.getObjectSize(bucket, stagedKey(job, role)).isPresent());
+        } else if (job.getWorkNode() != null && !job.getWorkNode().equals(node)) {
+            // Another node's volume cannot be checked from here; that node fails the job if the files are gone
+            sourcesKept = true;
+        } else {
+            sourcesKept = Files.isDirectory(Path.of(job.getWorkDir()));
+        }
+        if (!sourcesKept) {
+            throw new IllegalArgumentException("The uploaded files of this job were purged; upload the movie again.");
+        }
+        IngestWorkspace workspace = new IngestWorkspace(Path.of(job.getWorkDir()));
+        if (job.getSourcePrefix() != null && job.getCompletedStage() == IngestStage.TRANSCODED
+                && !(hasSources(workspace) && hasEncodedLadder(workspace))) {
+            // The ladder went with the purged workspace: fetch the staged sources and encode them again
+            job.setCompletedStage(null);
+        }
+        job.setState(IngestState.QUEUED);
+        job.setAttempts(0);
+        job.setNextAttemptAt(null);
+        job.setLeaseUntil(null);
+        job.setUpdatedAt(LocalDateTime.now());
+        return ingestJobPersistencePort.save(job);
+    }
+
+    @Override
+    public void dispatchPendingJobs() {
+        int free = maxConcurrentJobs - runningJobs.size();
+        if (free <= 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> candidates = ingestJobPersistencePort.findClaimable(node, now, free);
+        for (Long idJob : candidates) {
+            if (!ingestJobPersistencePort.claim(idJob, node, owner, now, now.plus(lease))) {
+                continue; // another instance won the lease
+            }
+            runningJobs.add(idJob);
+            workers.execute(() -> run(idJob));
+        }
+    }
+
+    @Override
+    public void renewLeases() {
+        ingestJobPersistencePort.renewLeases(Set.copyOf(runningJobs), owner, LocalDateTime.now().plus(lease));
+    }
+
+    private void run(Long idJob) {
+        IngestJob job = null;
+        try {
+            job = ingestJobPersistencePort.findById(idJob).orElseThrow(IngestJobNotFoundException::new);
+            Movie movie = movieServicePort.findById(job.getIdMovie());
+            IngestWorkspace workspace = new IngestWorkspace(Path.of(job.getWorkDir()));
+            LocalDateTime runnableSince = job.getNextAttemptAt() != null ? job.getNextAttemptAt() : job.getCreatedAt();
+            queueWait.record(Duration.between(runnableSince, LocalDateTime.now()).abs());
+
+            if (job.getCompletedStage() == IngestStage.TRANSCODED
+                    && !(hasSources(workspace) && hasEncodedLadder(workspace))) {
+                logger.warn("Ingest job {} has no encoded ladder in {}; encoding it again", idJob, job.getWorkDir());
+                job.setCompletedStage(null);
+            }
+            if (job.getSourcePrefix() == null && !hasSources(workspace)) {
+                // Nothing to fetch them from: no attempt can succeed
+                fail(job, "The uploaded files of this job are not in " + job.getWorkDir()
+                        + " on " + node + "; upload the movie again.");
+                return;
+            }
+
+            if (job.getCompletedStage() == null && job.getSourcePrefix() != null) {
+                job = transition(job, IngestState.FETCHING);
+                long start = System.nanoTime();
+                fetchSources(job, workspace);
+                fetchStage.record(Duration.ofNanos(System.nanoTime() - start));
+            }
+            if (job.getCompletedStage() == null) {
+                job = transition(job, IngestState.TRANSCODING);
+                job.setProgressPercent(null);
+                job.setEncodeFps(null);
+                job.setEncodeSpeed(null);
+                JobListener listener = new JobListener(job);
+                try {
+                    uploadMoviePort.ingest(movie, workspace, listener);
+                } finally {
+                    // A retry scheduled from this copy of the job must keep the checkpoint
+                    listener.applyCheckpoint();
+                }
+                uploadStage.record(Duration.ofNanos(System.nanoTime() - listener.encodedAt));
+                listener.logStages();
+                job.setCompletedStage(IngestStage.UPLOADED);
+            }
+            if (job.getCompletedStage() == IngestStage.TRANSCODED) {
+                // Encoded by an earlier attempt: only the uploads are left
+                job = transition(job, IngestState.UPLOADING);
+                JobListener listener = new JobListener(job);
+                uploadMoviePort.publish(movie, workspace, listener);
+                uploadStage.record(Duration.ofNanos(System.nanoTime() - listener.startedAt));
+                listener.logStages();
+                job.setCompletedStage(IngestStage.UPLOADED);
+            }
+
+            job.setLastError(null);
+            job = transition(job, IngestState.DONE);
+            deleteDirectory(workspace.getRoot().toFile());
+            deleteStagedSources(job);
+            logger.info("Ingest job {} for movie {} finished", idJob, job.getIdMovie());
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            logger.error("Ingest job {} failed", idJob, e);
+            if (job != null) {
+                scheduleRetryOrFail(job, e);
+            }
+        } finally {
+            runningJobs.remove(idJob);
+        }
+    }
+
+    // Files fetched completely by an earlier attempt on this instance are kept
+    private void fetchSources(IngestJob job, IngestWorkspace workspace) throws IOException {
+        Files.createDirectories(workspace.getRoot());
+        for (AssetRole role : IngestWorkspace.SOURCES) {
+            Path target = workspace.source(role);
+            if (Files.exists(target)) {
+                continue;
+            }
+            Path partial = target.resolveSibling(target.getFileName() + ".part");
+            fileStoragePort.downloadTo(bucket, stagedKey(job, role), partial);
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static boolean hasSources(IngestWorkspace workspace) {
+        return IngestWorkspace.SOURCES.stream().allMatch(role -> Files.exists(workspace.source(role)));
+    }
+
+    // What publish reads besides the sources: the renditions and master playlist of the encode
+    private static boolean hasEncodedLadder(IngestWorkspace workspace) {
+        return Files.isRegularFile(workspace.hls().resolve("master.m3u8"));
+    }
+
+    private void deleteStagedSources(IngestJob job) {
+        if (job.getSourcePrefix() == null) {
+            return;
+        }
+        try {
+            fileStoragePort.deleteObjects(bucket, job.getSourcePrefix());
+        } catch (RuntimeException e) {
+            logger.warn("Could not delete the staged sources of ingest job {}", job.getIdJob(), e);
+        }
+    }
+
+    private static String stagedKey(IngestJob job, AssetRole role) {
+        return job.getSourcePrefix() + IngestWorkspace.sourceFileName(role);
+    }
+
+    /**
+     * Follows the pipeline of one job. Called from the pipeline stages, while the job's own thread
+     * waits for the pipeline to finish.
+     */
+    private class JobListener implements UploadMoviePort.IngestListener {
+        private final IngestJob job;
+        private final long startedAt = System.nanoTime();
+        private volatile long encodedAt = startedAt;
+        // Set once the ladder is encoded and checkpointed
+        private volatile LocalDateTime uploadingSince;
+        private volatile long lastProgressWrite = startedAt - progressInterval.toNanos();
+        private final Map<String, Duration> stages = new ConcurrentHashMap<>();
+
+        JobListener(IngestJob job) {
+            this.job = job;
+        }
+
+        // Keeps the in-memory job current for the next full save, and writes the row at most once per interval
+        @Override
+        public void progress(TranscodeProgress progress) {
+            job.setProgressPercent(progress.getPercent());
+            job.setEncodeFps(progress.getFps());
+            job.setEncodeSpeed(progress.getSpeed());
+            long now = System.nanoTime();
+            if (now - lastProgressWrite >= progressInterval.toNanos()) {
+                lastProgressWrite = now;
+                ingestJobPersistencePort.updateProgress(job.getIdJob(), owner,
+                        progress.getPercent(), progress.getFps(), progress.getSpeed());
+            }
+        }
+
+        // Checkpoint: a retried job resumes with the uploads and does not encode again. Runs on a stage
+        // thread, so it only writes the checkpoint columns and leaves the job itself to the worker
+        @Override
+        public void encoded() {
+            encodedAt = System.nanoTime();
+            transcodeStage.record(Duration.ofNanos(encodedAt - startedAt));
+            LocalDateTime now = LocalDateTime.now();
+            ingestJobPersistencePort.checkpoint(job.getIdJob(), owner, IngestState.UPLOADING, IngestStage.TRANSCODED, now);
+            uploadingSince = now;
+        }
+
+        // Called by the worker once the pipeline has settled
+        void applyCheckpoint() {
+            if (uploadingSince != null) {
+                job.setCompletedStage(IngestStage.TRANSCODED);
+                job.setState(IngestState.UPLOADING);
+                job.setStageStartedAt(uploadingSince);
+                job.setUpdatedAt(uploadingSince);
+            }
+        }
+
+        @Override
+        public void stageCompleted(String stage, Duration wallTime) {
+            stages.put(stage, wallTime);
+            Timer.builder("movie.ingest.pipeline.stage.duration")
+                    .description("Wall time of a successful stage of the ingest pipeline")
+                    .tag("stage", stage)
+                    .register(meterRegistry)
+                    .record(wallTime);
+        }
+
+        void logStages() {
+            Map<String, Long> millis = new TreeMap<>();
+            stages.forEach((stage, wallTime) -> millis.put(stage, wallTime.toMillis()));
+            logger.info("Ingest job {} finished its pipeline in {} ms; stage wall times (ms): {}", job.getIdJob(),
+                    Duration.ofNanos(System.nanoTime() - startedAt).toMillis(), millis);
+        }
+    }
+
+    private void scheduleRetryOrFail(IngestJob job, Exception error) {
+        LocalDateTime now = LocalDateTime.now();
+        job.setLastError(truncate(String.valueOf(error.getMessage())));
+        job.setLeaseUntil(null);
+        if (job.getAttempts() < job.getMaxAttempts()) {
+            // Exponential backoff: 1x, 2x, 4x ... the configured delay
+            long factor = 1L << Math.min(job.getAttempts() - 1, 10);
+            job.setNextAttemptAt(now.plus(retryBackoff.multipliedBy(Math.max(1, factor))));
+            job.setState(IngestState.QUEUED);
+        } else {
+            job.setState(IngestState.FAILED);
+        }
+        job.setUpdatedAt(now);
+        ingestJobPersistencePort.save(job);
+    }
+
+    private void fail(IngestJob job, String error) {
+        logger.error("Ingest job {} failed: {}", job.getIdJob(), error);
+        job.setLastError(truncate(error));
+        job.setLeaseUntil(null);
+        job.setState(IngestState.FAILED);
+        job.setUpdatedAt(LocalDateTime.now());
+        ingestJobPersistencePort.save(job);
+    }
+
+    private IngestJob transition(IngestJob job, IngestState state) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean running = state == IngestState.FETCHING
+                || state == IngestState.TRANSCODING || state == IngestState.UPLOADING;
+        // Saving the whole row must not roll back a lease renewed in the meantime
+        job.setLeaseUntil(running ? now.plus(lease) : null);
+        if (running) {
+            job.setStageStartedAt(now);
+        }
+        job.setState(state);
+        job.setUpdatedAt(now);
+        return ingestJobPersistencePort.save(job);
+    }
+
+    private String truncate(String message) {
+        return message.length() > 2000 ? message.substring(0, 2000) : message;
+    }
+
+    private void deleteDirectory(File dir) {
+        if (dir.isDirectory()) {
+            for (File file : Objects.requireNonNull(dir.listFiles())) {
+                deleteDirectory(file);
+            }
+        }
+        dir.delete();
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "unknown-host";
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,240 @@
+package com.microservice.movie.application.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservice.movie.application.ports.in.MediaStreamingPort;
+import com.microservice.movie.application.ports.in.MovieServicePort;
+import com.microservice.movie.application.ports.out.FileStoragePort;
+import com.microservice.movie.application.ports.out.MediaCachePort;
+import com.microservice.movie.domain.exceptions.MovieNotFoundException;
+import com.microservice.movie.domain.exceptions.StreamingUnavailableException;
+import com.microservice.movie.domain.model.MediaObject;
+import com.microservice.movie.domain.model.Movie;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves byte ranges of the encoded ladder of a title through this service instead of
+ * presigned URLs.
+ * <p>
+ * Objects small enough for the local disk cache (playlists, segments) are copied there on their
+ * first request. A range held in the local media cache is sent with {@link FileChannel#transferTo}, so the
+ * bytes never reach the heap; readers share nothing but the file, so any number of them can
+ * read it at once. An opened local copy stays pinned in the cache until {@link #release}, so an
+ * eviction cannot delete it while its response is being written. Anything else is a ranged GET
+ * to storage, copied through one pooled direct buffer per request. Writes to the client block while its socket is full, so a slow player slows its
+ * own storage read instead of buffering it. Storage reads are capped at
+ * {@code streaming.max-origin-streams}; a request that cannot get a slot within
+ * {@code streaming.origin-wait-ms} is rejected rather than queued behind the others.
+ */
+@Service
+public class MediaStreamingServiceImpl implements MediaStreamingPort {
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "m3u8", "application/vnd.apple.mpegurl",
+            "ts", "video/mp2t",
+            "m4s", "video/iso.segment",
+            "mp4", "video/mp4",
+            "m4a", "audio/mp4",
+            "mpd", "application/dash+xml",
+            "vtt", "text/vtt");
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final MovieServicePort movieServicePort;
+    private final FileStoragePort fileStoragePort;
+    private final MediaCachePort mediaCachePort;
+
+    private final String bucket;
+    private final Duration originWait;
+    private final Semaphore originStreams;
+    // Object sizes, so that only the first request of a segment needs a HEAD
+    private final Cache<String, Long> objectSizes;
+
+    private final Counter cacheBytes;
+    private final Counter originBytes;
+    private final Counter rejected;
+
+    public MediaStreamingServiceImpl(MovieServicePort movieServicePort,
+                                     FileStoragePort fileStoragePort,
+                                     MediaCachePort mediaCachePort,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${aws.bucket}") String bucket,
+                                     @Value("${streaming.max-origin-streams:24}") int maxOriginStreams,
+                                     @Value("${streaming.origin-wait-ms:2000}") long originWaitMs,
+                                     @Value("${streaming.metadata-cache-seconds:600}") long metadataCacheSeconds) {
+        this.movieServicePort = movieServicePort;
+        this.fileStoragePort = fileStoragePort;
+        this.mediaCachePort = mediaCachePort;
+        this.bucket = bucket;
+        this.originWait = Duration.ofMillis(originWaitMs);
+        this.originStreams = new Semaphore(Math.max(1, maxOriginStreams), true);
+        this.objectSizes = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofSeconds(metadataCacheSeconds))
+                .build();
+
+        this.cacheBytes = bytesCounter(meterRegistry, "cache");
+        this.originBytes = bytesCounter(meterRegistry, "origin");
+        this.rejected = Counter.builder("movie.stream.rejected")
+                .description("Ranges refused because every storage stream was busy")
+                .register(meterRegistry);
+        Gauge.builder("movie.stream.origin.active", originStreams,
+                        s -> Math.max(1, maxOriginStreams) - s.availablePermits())
+                .description("Ranges being read from storage")
+                .register(meterRegistry);
+    }
+
+    private static Counter bytesCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("movie.stream.bytes")
+                .description("Media bytes sent to players")
+                .baseUnit("bytes")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public MediaObject open(Long idMovie, String path) {
+        Movie movie = movieServicePort.findById(idMovie);
+        if (!Boolean.TRUE.equals(movie.getEstate()) || movie.getHlsMasterUrl() == null) {
+            throw new MovieNotFoundException();
+        }
+        String key = ladderPrefix(movie) + relativePath(path);
+        String contentType = contentType(key);
+
+        Optional<Path> cached = mediaCachePort.find(bucket, key);
+        if (cached.isPresent()) {
+            MediaObject local = pin(key, contentType, cached.get());
+            if (local != null) {
+                return local;
+            }
+        }
+
+        Long size = objectSizes.get(key, k -> {
+            OptionalLong stored = fileStoragePort.getObjectSize(bucket, k);
+            return stored.isPresent() ? stored.getAsLong() : null;
+        });
+        if (size == null) {
+            throw new MovieNotFoundException();
+        }
+        if (mediaCachePort.accepts(size)) {
+            try {
+                MediaObject local = pin(key, contentType, fileStoragePort.getLocalCopy(bucket, key));
+                if (local != null) {
+                    return local;
+                }
+            } catch (IOException e) {
+                logger.warn("Could not cache {}; serving it from storage", key, e);
+            }
+        }
+        return new MediaObject(key, size, contentType, null);
+    }
+
+    @Override
+    public void transfer(MediaObject object, long start, long end, WritableByteChannel target) throws IOException {
+        if (object.isCached()) {
+            transferFromFile(object.getLocalFile(), start, end, target);
+        } else {
+            transferFromStorage(object.getKey(), start, end, target);
+        }
+    }
+
+    @Override
+    public void release(MediaObject object) {
+        if (object.isCached()) {
+            mediaCachePort.unpin(object.getLocalFile());
+        }
+    }
+
+    private MediaObject pin(String key, String contentType, Path file) {
+        if (!mediaCachePort.pin(file)) {
+            // Evicted in the meantime: served from storage
+            return null;
+        }
+        try {
+            return new MediaObject(key, Files.size(file), contentType, file);
+        } catch (IOException e) {
+            mediaCachePort.unpin(file);
+            return null;
+        }
+    }
+
+    private void transferFromFile(Path file, long start, long end, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = start;
+            while (position <= end) {
+                long sent = channel.transferTo(position, end - position + 1, target);
+                if (sent <= 0) {
+                    throw new EOFException("Cached copy of " + file + " ended at " + position);
+                }
+                position += sent;
+                cacheBytes.increment(sent);
+            }
+        }
+    }
+
+    private void transferFromStorage(String key, long start, long end, WritableByteChannel target) throws IOException {
+        try {
+            if (!originStreams.tryAcquire(originWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new StreamingUnavailableException();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StreamingUnavailableException();
+        }
+        try {
+            originBytes.increment(fileStoragePort.downloadRange(bucket, key, start, end, target));
+        } finally {
+            originStreams.release();
+        }
+    }
+
+    // The ladder of a title lives next to its master playlist: <prefix>hls/..., <prefix>dash/...
+    private static String ladderPrefix(Movie movie) {
+        String master = movie.getHlsMasterUrl();
+        int hls = master.lastIndexOf("hls/");
+        if (hls < 0) {
+            throw new MovieNotFoundException();
+        }
+        return master.substring(0, hls);
+    }
+
+    private static String relativePath(String path) {
+        String relative = path == null ? "" : path.replaceFirst("^/+", "");
+        if (!relative.startsWith("hls/") && !relative.startsWith("dash/")) {
+            throw new IllegalArgumentException("Only the HLS and DASH renditions of a title can be streamed.");
+        }
+        for (String segment : relative.split("/", -1)) {
+            if (segment.isEmpty() || segment.equals(".") || segment.equals("..") || segment.contains("\\")) {
+                throw new IllegalArgumentException("Invalid media path.");
+            }
+        }
+        return relative;
+    }
+
+    private static String contentType(String key) {
+        int dot = key.lastIndexOf('.');
+        return dot < 0 ? DEFAULT_CONTENT_TYPE : CONTENT_TYPES.getOrDefault(key.substring(dot + 1), DEFAULT_CONTENT_TYPE);
+    }
+}
@@ -2,14 +2,31 @@ package com.microservice.movie.application.services;
 
 import com.microservice.movie.application.mapper.MovieMapper;
 import com.microservice.movie.application.ports.in.MovieServicePort;
+import com.microservice.movie.application.ports.out.CatalogCachePort;
+import com.microservice.movie.application.ports.out.FileStoragePort;
+import com.microservice.movie.application.ports.out.MediaAssetPersistencePort;
 import com.microservice.movie.application.ports.out.MoviePersistencePort;
+import com.microservice.movie.application.ports.out.MovieSearchPort;
+import com.microservice.movie.application.ports.out.SeriesReadModelPort;
 import com.microservice.movie.domain.exceptions.MovieNotFoundException;
+import com.microservice.movie.domain.model.MediaAsset;
 import com.microservice.movie.domain.model.Movie;
+import com.microservice.movie.domain.model.MovieChangedEvent;
+import com.microservice.movie.domain.model.MovieSearchPage;
+import com.microservice.movie.domain.model.Series;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 public class MovieServiceImpl implements MovieServicePort  {
@@ -18,15 +35,48 @@ public class MovieServiceImpl implements MovieServicePort  {
     private  MoviePersistencePort moviePersistencePort;
     @Autowired
     private  MovieMapper movieMapper;
+    @Autowired
+    private MovieSearchPort movieSearchPort;
+    @Autowired
+    private SeriesReadModelPort seriesReadModelPort;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private MediaAssetPersistencePort mediaAssetPersistencePort;
+    @Autowired
+    private FileStoragePort fileStoragePort;
+    @Autowired
+    private CatalogCachePort catalogCachePort;
+    @Value("${aws.bucket}")
+    private String bucket;
+    @Value("${storage.gc.grace-minutes:60}")
+    private long assetGraceMinutes;
+    @Value("${storage.gc.batch-size:100}")
+    private int assetCollectBatch;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
     @Override
     public Movie findById(Long id) {
         return moviePersistencePort.findById(id)
                 .orElseThrow(MovieNotFoundException ::new);
     }
 
+    @Override
+    public List<Movie> findAllById(List<Long> ids) {
+        Map<Long, Movie> found = new HashMap<>();
+        moviePersistencePort.findAllById(new LinkedHashSet<>(ids))
+                .forEach(movie -> found.put(movie.getIdMovie(), movie));
+        return ids.stream()
+                .distinct()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     @Override
     public Movie save(Movie movie) {
-        return moviePersistencePort.save(movie);
+        return published(moviePersistencePort.save(movie));
     }
 
     @Override
@@ -34,6 +84,12 @@ public class MovieServiceImpl implements MovieServicePort  {
         return moviePersistencePort.findAll();
     }
 
+    @Override
+    public List<Movie> getCatalogPage(Long idCategory, Long afterId, int limit) {
+        return catalogCachePort.get(new CatalogPageKey(idCategory, afterId, limit),
+                () -> List.copyOf(moviePersistencePort.findCatalogPage(idCategory, afterId, limit)));
+    }
+
     @Override
     public Movie findByCategory(Long idCategory) {
         return moviePersistencePort.findByCategory(idCategory)
@@ -45,7 +101,26 @@ public class MovieServiceImpl implements MovieServicePort  {
         if(moviePersistencePort.findById(id).isEmpty()){
             throw new MovieNotFoundException();
         }
+        // Assets this title was the last user of are deleted by the sweep, not here
+        mediaAssetPersistencePort.releaseAll(id);
         moviePersistencePort.deleteById(id);
+        eventPublisher.publishEvent(new MovieChangedEvent(id, null));
+    }
+
+    // Assets no title has referenced for the grace period; an ingest of the same content meanwhile reuses them
+    @Override
+    public void collectUnreferencedAssets() {
+        LocalDateTime releasedBefore = LocalDateTime.now().minusMinutes(assetGraceMinutes);
+        for (MediaAsset asset : mediaAssetPersistencePort.claimUnreferenced(releasedBefore, assetCollectBatch)) {
+            try {
+                fileStoragePort.deleteObjects(bucket, asset.getObjectKey());
+                mediaAssetPersistencePort.remove(asset.getContentHash());
+                logger.info("Deleted unreferenced asset {}", asset.getObjectKey());
+            } catch (RuntimeException e) {
+                // The tombstone stays, so the next sweep deletes it again
+                logger.warn("Could not delete unreferenced asset {} from storage", asset.getObjectKey(), e);
+            }
+        }
     }
 
     @Override
@@ -53,7 +128,7 @@ public class MovieServiceImpl implements MovieServicePort  {
         return moviePersistencePort.findById(id)
                 .map(savedMovie ->{
                     movieMapper.updateMovie(savedMovie,updateMovie);
-                    return moviePersistencePort.save(savedMovie);
+                    return published(moviePersistencePort.save(savedMovie));
                 })
                 .orElseThrow(MovieNotFoundException::new);
     }
@@ -67,26 +142,55 @@ public class MovieServiceImpl implements MovieServicePort  {
     }
 
     @Override
-    public List<Movie> searchByTitle(String title) {
-        return moviePersistencePort.searchByTitle(title);
+    public MovieSearchPage searchByTitle(String title, int page, int size) {
+        return catalogCachePort.get(new SearchKey(title, page, size),
+                () -> movieSearchPort.search(title, page, size));
     }
 
     @Override
     public List<Movie> getEpisodesBySeriesTitle(String title) {
-        return moviePersistencePort.findAllByTitle(title).stream()
-                .filter(movie -> movie.getIdCategory() == 2) // Solo series
-                .filter(movie -> Boolean.TRUE.equals(movie.getEstate()))
-                .sorted(Comparator
-                        .comparing(Movie::getSeasonNumber)
-                        .thenComparing(Movie::getEpisodeNumber))
-                .toList();
+        return seriesReadModelPort.findByTitle(title)
+                .map(Series::getEpisodes)
+                .orElse(List.of());
+    }
+
+    @Override
+    public List<Movie> getEpisodesBySeason(String title, Integer seasonNumber) {
+        return seriesReadModelPort.findByTitle(title)
+                .map(series -> series.season(seasonNumber))
+                .orElse(List.of());
+    }
+
+    @Override
+    public Map<Integer, List<Movie>> getEpisodesGroupedBySeason(String title) {
+        return seriesReadModelPort.findByTitle(title)
+                .<Map<Integer, List<Movie>>>map(Series::getSeasons)
+                .orElse(Map.of());
     }
 
     @Override
     public void setActiveStatus(Long id, boolean active) {
         Movie movie = findById(id);
         movie.setEstate(active);
-        moviePersistencePort.save(movie);
+        published(moviePersistencePort.save(movie));
+    }
+
+    @Override
+    public void applyPeerChange(Long id) {
+        Movie current = moviePersistencePort.findById(id).orElse(null);
+        eventPublisher.publishEvent(new MovieChangedEvent(id, current, true));
+    }
+
+    // Read models (search index, listings, catalog cache) follow every write made through this service
+    private Movie published(Movie saved) {
+        eventPublisher.publishEvent(new MovieChangedEvent(saved.getIdMovie(), saved));
+        return saved;
+    }
+
+    private record CatalogPageKey(Long idCategory, Long afterId, int limit) {
+    }
+
+    private record SearchKey(String title, int page, int size) {
     }
 
 }
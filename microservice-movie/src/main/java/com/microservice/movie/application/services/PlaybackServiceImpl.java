@@ -0,0 +1,144 @@
+package com.microservice.movie.application.services;
+
+import com.microservice.movie.application.ports.in.MovieServicePort;
+import com.microservice.movie.application.ports.in.PlaybackServicePort;
+import com.microservice.movie.application.ports.out.FileStoragePort;
+import com.microservice.movie.domain.exceptions.MovieNotFoundException;
+import com.microservice.movie.domain.model.Movie;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves the streaming manifests and the thumbnail track of a title with every segment or
+ * sprite reference replaced by a presigned storage URL. Variant references in the master playlist stay relative,
+ * so players resolve them back to this service.
+ */
+@Service
+@RequiredArgsConstructor
+public class PlaybackServiceImpl implements PlaybackServicePort {
+
+    private static final Pattern HLS_URI_ATTRIBUTE = Pattern.compile("URI=\"([^\"]+)\"");
+    private static final Pattern DASH_URL_ATTRIBUTE = Pattern.compile("(media|sourceURL)=\"([^\"]+)\"");
+
+    private final MovieServicePort movieServicePort;
+    private final FileStoragePort fileStoragePort;
+
+    @Value("${aws.bucket}")
+    private String bucket;
+
+    @Override
+    public String getHlsMasterPlaylist(Long idMovie) {
+        Movie movie = movieServicePort.findById(idMovie);
+        if (movie.getHlsMasterUrl() == null) {
+            throw new MovieNotFoundException();
+        }
+        return fileStoragePort.readObjectAsString(bucket, movie.getHlsMasterUrl());
+    }
+
+    @Override
+    public String getHlsMediaPlaylist(Long idMovie, String quality) {
+        Movie movie = movieServicePort.findById(idMovie);
+        String playlistKey = switch (quality) {
+            case "480p"  -> movie.getVideoUrl480p();
+            case "720p"  -> movie.getVideoUrl720p();
+            case "1080p" -> movie.getVideoUrl1080p();
+            default      -> throw new IllegalArgumentException("Invalid quality. Allowed options are 480p, 720p o 1080p.");
+        };
+        if (playlistKey == null || !playlistKey.endsWith(".m3u8")) {
+            throw new MovieNotFoundException();
+        }
+
+        String folder = folderOf(playlistKey);
+        Duration duration = urlLifetime(movie);
+        StringBuilder signed = new StringBuilder();
+        for (String line : fileStoragePort.readObjectAsString(bucket, playlistKey).split("\\R")) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (line.startsWith("#")) {
+                // Tags such as #EXT-X-MAP carry their own URI attribute
+                Matcher matcher = HLS_URI_ATTRIBUTE.matcher(line);
+                signed.append(matcher.replaceAll(m -> Matcher.quoteReplacement(
+                        "URI=\"" + sign(folder + m.group(1), duration) + "\"")));
+            } else {
+                signed.append(sign(folder + line.trim(), duration));
+            }
+            signed.append('\n');
+        }
+        return signed.toString();
+    }
+
+    @Override
+    public String getDashManifest(Long idMovie) {
+        Movie movie = movieServicePort.findById(idMovie);
+        if (movie.getDashManifestUrl() == null) {
+            throw new MovieNotFoundException();
+        }
+
+        String folder = folderOf(movie.getDashManifestUrl());
+        Duration duration = urlLifetime(movie);
+        String manifest = fileStoragePort.readObjectAsString(bucket, movie.getDashManifestUrl());
+        return DASH_URL_ATTRIBUTE.matcher(manifest).replaceAll(m -> Matcher.quoteReplacement(
+                m.group(1) + "=\"" + sign(folder + m.group(2), duration).replace("&", "&amp;") + "\""));
+    }
+
+    @Override
+    public String getThumbnailTrack(Long idMovie) {
+        Movie movie = movieServicePort.findById(idMovie);
+        if (movie.getThumbnailTrackUrl() == null) {
+            throw new MovieNotFoundException();
+        }
+
+        // Every cue points into one of a few sheets: each sheet is signed once
+        String folder = folderOf(movie.getThumbnailTrackUrl());
+        String[] lines = fileStoragePort.readObjectAsString(bucket, movie.getThumbnailTrackUrl()).split("\\R");
+        Set<String> sheets = new LinkedHashSet<>();
+        for (String line : lines) {
+            if (isSpriteReference(line)) {
+                sheets.add(folder + spriteOf(line));
+            }
+        }
+        Map<String, String> signed = fileStoragePort.generatePresignedDownloadUrls(bucket, sheets, urlLifetime(movie));
+
+        StringBuilder track = new StringBuilder();
+        for (String line : lines) {
+            if (isSpriteReference(line)) {
+                track.append(signed.get(folder + spriteOf(line))).append(line.substring(line.indexOf('#')));
+            } else {
+                track.append(line);
+            }
+            track.append('\n');
+        }
+        return track.toString();
+    }
+
+    // Cue payloads look like sprite_00001.jpg#xywh=0,0,160,90
+    private static boolean isSpriteReference(String line) {
+        return line.contains("#xywh=");
+    }
+
+    private static String spriteOf(String line) {
+        return line.substring(0, line.indexOf('#')).trim();
+    }
+
+    // Segment URLs must outlive the whole viewing session, not just the first minutes
+    private Duration urlLifetime(Movie movie) {
+        return Duration.ofMinutes(60L + Math.max(0, movie.getDurationInMinutes()));
+    }
+
+    private String sign(String key, Duration duration) {
+        return fileStoragePort.generatePresignedDownloadUrl(bucket, key, duration);
+    }
+
+    private String folderOf(String key) {
+        return key.substring(0, key.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,156 @@
+package com.microservice.movie.application.services;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * Pipeline stages with explicit dependencies. A stage starts on the executor as soon as every
+ * stage it depends on has completed, so independent stages overlap. Dependencies must be added
+ * first, which keeps the graph acyclic; running stages may add further stages.
+ * <p>
+ * The first failure interrupts the running stages and skips those not started yet.
+ * {@link #run()} returns once every stage has settled, so nothing keeps writing to the workspace
+ * after a failed run.
+ */
+final class StageGraph {
+
+    @FunctionalInterface
+    interface Stage {
+        void run() throws Exception;
+    }
+
+    private final Executor executor;
+    // Receives the wall time of every stage that completes
+    private final BiConsumer<String, Duration> timings;
+
+    // Guarded by this
+    private final Map<String, CompletableFuture<Void>> stages = new LinkedHashMap<>();
+    // Guarded by itself
+    private final Set<Thread> running = new HashSet<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    StageGraph(Executor executor, BiConsumer<String, Duration> timings) {
+        this.executor = executor;
+        this.timings = timings;
+    }
+
+    synchronized CompletableFuture<Void> add(String name, Stage stage, String... dependsOn) {
+        if (stages.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate stage " + name);
+        }
+        CompletableFuture<?>[] dependencies = new CompletableFuture<?>[dependsOn.length];
+        for (int i = 0; i < dependsOn.length; i++) {
+            dependencies[i] = stages.get(dependsOn[i]);
+            if (dependencies[i] == null) {
+                throw new IllegalArgumentException("Stage " + name + " depends on unknown stage " + dependsOn[i]);
+            }
+        }
+        CompletableFuture<Void> future = CompletableFuture.allOf(dependencies)
+                .thenRunAsync(() -> execute(name, stage), executor);
+        future.whenComplete((result, error) -> {
+            if (error != null) {
+                fail(error);
+            }
+        });
+        stages.put(name, future);
+        return future;
+    }
+
+    void run() throws IOException, InterruptedException {
+        while (true) {
+            CompletableFuture<?>[] pending;
+            synchronized (this) {
+                pending = stages.values().stream().filter(f -> !f.isDone()).toArray(CompletableFuture<?>[]::new);
+            }
+            if (pending.length == 0) {
+                break;
+            }
+            try {
+                CompletableFuture.allOf(pending).get();
+            } catch (ExecutionException e) {
+                // Recorded as the failure of its stage; the others are still awaited
+            } catch (InterruptedException e) {
+                fail(e);
+                throw e;
+            }
+        }
+        Throwable error = failure.get();
+        if (error instanceof IOException io) {
+            throw io;
+        }
+        if (error instanceof InterruptedException interrupted) {
+            throw interrupted;
+        }
+        if (error instanceof RuntimeException re) {
+            throw re;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        if (error != null) {
+            throw new IOException("Pipeline stage failed", error);
+        }
+    }
+
+    // Waits for a stage added by another one, surfacing its failure as this stage's own
+    static void await(CompletableFuture<Void> stage) throws Exception {
+        try {
+            stage.get();
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            throw cause instanceof Exception exception ? exception : new IOException(cause);
+        }
+    }
+
+    private void execute(String name, Stage stage) {
+        if (failure.get() != null) {
+            throw new CancellationException("Skipped: an earlier stage failed");
+        }
+        Thread thread = Thread.currentThread();
+        synchronized (running) {
+            running.add(thread);
+        }
+        long start = System.nanoTime();
+        try {
+            stage.run();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        } finally {
+            synchronized (running) {
+                running.remove(thread);
+                // An interrupt meant for this stage must not reach the next task of the pooled thread
+                Thread.interrupted();
+            }
+        }
+        timings.accept(name, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void fail(Throwable error) {
+        if (failure.compareAndSet(null, unwrap(error))) {
+            synchronized (running) {
+                running.forEach(Thread::interrupt);
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
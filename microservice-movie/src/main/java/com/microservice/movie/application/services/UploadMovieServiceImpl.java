@@ -2,31 +2,75 @@ package com.microservice.movie.application.services;
 
 import com.microservice.movie.application.ports.in.MovieServicePort;
 import com.microservice.movie.application.ports.in.UploadMoviePort;
+import com.microservice.movie.application.ports.out.EncodingProfilePort;
 import com.microservice.movie.application.ports.out.FileStoragePort;
+import com.microservice.movie.application.ports.out.MediaAssetPersistencePort;
+import com.microservice.movie.application.ports.out.TranscodingPort;
+import com.microservice.movie.domain.model.AssetRole;
+import com.microservice.movie.domain.model.IngestWorkspace;
+import com.microservice.movie.domain.model.MediaAsset;
 import com.microservice.movie.domain.model.Movie;
+import com.microservice.movie.domain.model.Rendition;
+import com.microservice.movie.domain.model.SourceMedia;
+import com.microservice.movie.domain.model.TranscodeResult;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
-import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
-import java.util.HashMap;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
+/**
+ * Encodes and stores the files of an ingest workspace.
+ * <p>
+ * Storage is content addressed: every file is stored under the SHA-256 of its content, and the
+ * ladder encoded from a source video under the hash of that source. Content already stored for
+ * another title is referenced instead of being encoded or uploaded again.
+ * <p>
+ * The work runs as a {@link StageGraph}: the side assets are uploaded while the video encodes,
+ * each rendition is uploaded as soon as it is encoded, and seek-preview sprite sheets are extracted
+ * and uploaded next to the encode. The movie is published once every stage is done, so an ingest
+ * takes about as long as its longest chain of stages rather than the sum of them.
+ * Thumbnails are optional: a title whose thumbnails fail is still published, without them.
+ */
 @Service
 @RequiredArgsConstructor
 public class UploadMovieServiceImpl implements UploadMoviePort {
+    private static final String MASTER_PLAYLIST = "master.m3u8";
+    private static final String THUMBNAIL_TRACK = "thumbnails.vtt";
+    private static final String HASH_SUFFIX = ".sha256";
+    private static final int HASH_BUFFER_SIZE = 1024 * 1024;
+    // A rendition up to 5% taller than the source still counts as matching it (e.g. 1076p sources)
+    private static final double SOURCE_HEIGHT_TOLERANCE = 1.05;
+    private static final List<AssetRole> SIDE_ASSETS = List.of(
+            AssetRole.AUDIO_EN, AssetRole.AUDIO_ES, AssetRole.SUBS_EN, AssetRole.SUBS_ES, AssetRole.BANNER);
+
     private final FileStoragePort fileStoragePort;
+    private final TranscodingPort transcodingPort;
+    private final EncodingProfilePort encodingProfilePort;
+    private final MediaAssetPersistencePort mediaAssetPersistencePort;
     private final MovieServicePort movieServicePort;
     @Value("${aws.region}")
     private String region;
@@ -34,145 +78,349 @@ public class UploadMovieServiceImpl implements UploadMoviePort {
     @Value("${aws.bucket}")
     private String bucket;
 
+    @Value("${transcoding.dash.enabled:false}")
+    private boolean dashEnabled;
+
+    @Value("${transcoding.thumbnails.enabled:true}")
+    private boolean thumbnailsEnabled;
+
+    // Stages mostly wait on FFmpeg or storage, so each running job gets the threads its graph needs
+    private final ExecutorService stageExecutor = Executors.newCachedThreadPool();
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
-    @Async
+
     @Override
-    public void processAndUploadMovieAsync(
-            Path videoPath,
-            Path audioEnPath,
-            Path audioEsPath,
-            Path subsEnPath,
-            Path subsEsPath,
-            Path imagePath,
-            Movie movie) {
+    public void ingest(Movie movie, IngestWorkspace workspace, IngestListener listener)
+            throws IOException, InterruptedException {
+        new Pipeline(movie, workspace, listener).run(true);
+    }
 
-        try {
-            String baseName = movie.getTitle().replaceAll("[^a-zA-Z0-9]", "_").toLowerCase();
-            Path tempDir = Files.createTempDirectory("processing_" + baseName);
+    @Override
+    public void publish(Movie movie, IngestWorkspace workspace, IngestListener listener)
+            throws IOException, InterruptedException {
+        new Pipeline(movie, workspace, listener).run(false);
+    }
 
-            // Copy main file to tempDir
-            Path originalFile = tempDir.resolve(baseName + ".mp4");
-            Files.copy(videoPath, originalFile, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * State of one run, handed from stage to stage. A stage only reads what the stages it depends
+     * on wrote, and the graph orders those writes before the read.
+     */
+    private class Pipeline {
+        private final Movie movie;
+        private final IngestWorkspace workspace;
+        private final IngestListener listener;
+        private final StageGraph graph;
 
-            // Generate qualities (uses FFmpeg)
-            generateQualities(originalFile.toString(), tempDir.toString(), baseName);
+        private final Map<AssetRole, MediaAsset> stored = new EnumMap<>(AssetRole.class);
+        private final List<CompletableFuture<Void>> renditionUploads = new CopyOnWriteArrayList<>();
+        private final AtomicInteger uploadedObjects = new AtomicInteger();
+        private int reusedAssets;
+        private String sourceHash;
+        // Set when the source was already encoded for another title: its ladder is reused as is
+        private MediaAsset reusedLadder;
+        private SourceMedia source;
+        private List<Rendition> ladder;
+        private List<TranscodeResult> renditions;
 
-            String BaseFolder;
-            if (Objects.equals(movie.getIdCategory(), 2L)) {
-                BaseFolder = "series/" + baseName
-                        + "/season" + movie.getSeasonNumber()
-                        + "/episode" + movie.getEpisodeNumber();
+        Pipeline(Movie movie, IngestWorkspace workspace, IngestListener listener) {
+            this.movie = movie;
+            this.workspace = workspace;
+            this.listener = listener;
+            this.graph = new StageGraph(stageExecutor, listener::stageCompleted);
+        }
+
+        // Without encoding, the ladder already in the workspace is uploaded by ladder-upload
+        void run(boolean encode) throws IOException, InterruptedException {
+            graph.add("assets", this::storeSideAssets);
+            graph.add("source", this::identifySource);
+            if (encode) {
+                graph.add("probe", this::probe, "source");
+                graph.add("encode", this::encode, "probe");
+                graph.add("playlists", this::writePlaylists, "encode");
+                graph.add("thumbnails", this::extractThumbnails, "probe");
+                graph.add("thumbnails-upload", this::uploadThumbnails, "thumbnails");
+                graph.add("ladder-upload", () -> uploadLadder(false), "playlists");
             } else {
-                BaseFolder = baseName;
+                graph.add("thumbnails-upload", this::uploadThumbnails, "source");
+                graph.add("ladder-upload", () -> uploadLadder(true), "source");
+            }
+            graph.add("publish", this::publish, "assets", "ladder-upload", "thumbnails-upload");
+            graph.run();
+        }
+
+        // Audios, subtitles and image do not depend on the video, so they are stored while it encodes
+        private void storeSideAssets() throws IOException {
+            Map<String, Path> objects = new LinkedHashMap<>();
+            Map<AssetRole, MediaAsset> toRegister = new EnumMap<>(AssetRole.class);
+            for (AssetRole role : SIDE_ASSETS) {
+                Path file = workspace.source(role);
+                String hash = contentHash(file);
+                Optional<MediaAsset> existing = mediaAssetPersistencePort.acquire(movie.getIdMovie(), role, hash);
+                if (existing.isPresent()) {
+                    stored.put(role, existing.get());
+                    reusedAssets++;
+                    continue;
+                }
+                String key = "assets/" + hash + "." + extension(file);
+                objects.put(key, file);
+                toRegister.put(role, MediaAsset.builder()
+                        .contentHash(hash)
+                        .objectKey(key)
+                        .sizeBytes(Files.size(file))
+                        .build());
+            }
+            upload(objects);
+            // Only referenced once stored, so a failed upload never leaves a reference to a missing object
+            for (Map.Entry<AssetRole, MediaAsset> asset : toRegister.entrySet()) {
+                stored.put(asset.getKey(), mediaAssetPersistencePort.register(movie.getIdMovie(), asset.getKey(), asset.getValue()));
+            }
+        }
+
+        private void identifySource() throws IOException {
+            sourceHash = contentHash(workspace.video());
+            reusedLadder = mediaAssetPersistencePort.acquire(movie.getIdMovie(), AssetRole.VIDEO, sourceHash).orElse(null);
+            if (reusedLadder != null) {
+                logger.info("Source of '{}' is already encoded under {}; skipping the encode",
+                        movie.getTitle(), reusedLadder.getObjectKey());
             }
+        }
+
+        // Fit the configured profile to this title
+        private void probe() throws IOException, InterruptedException {
+            if (reusedLadder != null) {
+                return;
+            }
+            source = transcodingPort.probe(workspace.video());
+            ladder = ladderFor(source);
+            logger.info("Source of '{}' is {}x{} at {} kb/s; encoding {}", movie.getTitle(), source.getWidth(),
+                    source.getHeight(), source.getBitrateKbps(), ladder.stream().map(Rendition::getQuality).toList());
+        }
 
-            Map<String, String> urls = new HashMap<>();
-            for (String quality : List.of("1080p", "720p", "480p")) {
-                Path path = tempDir.resolve(baseName + "_" + quality + ".mp4");
-                String s3Key = BaseFolder + "/" + quality + "/video.mp4";
-                fileStoragePort.uploadFile(bucket, s3Key, path);
-                urls.put(quality, s3Key);
+        // Generate the HLS ladder (uses FFmpeg); every rendition starts uploading as soon as it is encoded
+        private void encode() throws IOException, InterruptedException {
+            if (reusedLadder == null) {
+                renditions = transcodingPort.transcode(workspace.video(), workspace.hls(), ladder, listener::progress,
+                        rendition -> renditionUploads.add(graph.add("upload-" + rendition.getQuality(),
+                                () -> uploadRendition(rendition.getQuality()))));
+                renditions.forEach(r -> logger.info("Encoded {} of '{}' in {} ms",
+                        r.getQuality(), movie.getTitle(), r.getWallTime().toMillis()));
+            }
+            listener.encoded();
+        }
+
+        private void writePlaylists() throws IOException, InterruptedException {
+            if (reusedLadder != null) {
+                return;
+            }
+            transcodingPort.writeMasterPlaylist(workspace.hls(), renditions);
+            if (dashEnabled) {
+                transcodingPort.packageDash(workspace.dash(), renditions);
             }
+        }
 
-            // Audios
-            String audioEnKey = BaseFolder + "/audio/audio_en.m4a";
-            fileStoragePort.uploadFile(bucket, audioEnKey, audioEnPath);
+        // Failures only cost the previews: the directory is removed so that no partial track is stored
+        private void extractThumbnails() {
+            if (reusedLadder != null || !thumbnailsEnabled) {
+                return;
+            }
+            try {
+                transcodingPort.generateThumbnails(workspace.video(), workspace.thumbnails(), source);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Could not extract thumbnails of '{}'; it is published without them", movie.getTitle(), e);
+                deleteDirectory(workspace.thumbnails());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                deleteDirectory(workspace.thumbnails());
+            }
+        }
 
-            String audioEsKey = BaseFolder + "/audio/audio_es.m4a";
-            fileStoragePort.uploadFile(bucket, audioEsKey, audioEsPath);
+        private void uploadThumbnails() throws IOException {
+            if (reusedLadder == null && hasThumbnails()) {
+                Map<String, Path> objects = new LinkedHashMap<>();
+                addDirectory(objects, workspace.thumbnails(), ladderPrefix() + "thumbs");
+                upload(objects);
+            }
+        }
 
-            // Subtitles
-            String subsEnKey = BaseFolder + "/subs/subs_en.vtt";
-            fileStoragePort.uploadFile(bucket, subsEnKey, subsEnPath);
+        private void uploadRendition(String quality) throws IOException {
+            Map<String, Path> objects = new LinkedHashMap<>();
+            addDirectory(objects, workspace.hls().resolve(quality), ladderPrefix() + "hls/" + quality);
+            upload(objects);
+        }
 
-            String subsEsKey = BaseFolder + "/subs/subs_es.vtt";
-            fileStoragePort.uploadFile(bucket, subsEsKey, subsEsPath);
+        // Playlists last, once the segments they list are stored
+        private void uploadLadder(boolean withRenditions) throws Exception {
+            if (reusedLadder != null) {
+                return;
+            }
+            Map<String, Path> objects = new LinkedHashMap<>();
+            if (withRenditions) {
+                for (String quality : encodedQualities()) {
+                    addDirectory(objects, workspace.hls().resolve(quality), ladderPrefix() + "hls/" + quality);
+                }
+            }
+            for (CompletableFuture<Void> renditionUpload : renditionUploads) {
+                StageGraph.await(renditionUpload);
+            }
+            if (Files.isDirectory(workspace.dash())) {
+                addDirectory(objects, workspace.dash(), ladderPrefix() + "dash");
+            }
+            objects.put(ladderPrefix() + "hls/" + MASTER_PLAYLIST, workspace.hls().resolve(MASTER_PLAYLIST));
+            upload(objects);
+        }
 
-            // Image
-            String imageKey = BaseFolder + "/banner/banner.jpg";
-            fileStoragePort.uploadFile(bucket, imageKey, imagePath);
+        private void publish() throws IOException {
+            if (reusedLadder != null) {
+                stored.put(AssetRole.VIDEO, reusedLadder);
+                reusedAssets++;
+            } else {
+                MediaAsset video = MediaAsset.builder()
+                        .contentHash(sourceHash)
+                        .objectKey(ladderPrefix())
+                        .sizeBytes(Files.size(workspace.video()))
+                        .renditions(encodedQualities())
+                        .dashPackaged(Files.isDirectory(workspace.dash()))
+                        .thumbnailsGenerated(hasThumbnails())
+                        .build();
+                stored.put(AssetRole.VIDEO, mediaAssetPersistencePort.register(movie.getIdMovie(), AssetRole.VIDEO, video));
+            }
+            logger.info("Stored '{}': {} new objects, {} of {} assets reused", movie.getTitle(),
+                    uploadedObjects.get(), reusedAssets, stored.size());
 
             // Update Movie fields
-            movie.setAudioUrlEn(audioEnKey);
-            movie.setAudioUrlEs(audioEsKey);
-            movie.setSubTitlesEnglish(subsEnKey);
-            movie.setSubTitlesSpanish(subsEsKey);
-            movie.setImageBanner(imageKey);
-
-            movie.setVideoUrl1080p(urls.get("1080p"));
-            movie.setVideoUrl720p(urls.get("720p"));
-            movie.setVideoUrl480p(urls.get("480p"));
+            movie.setAudioUrlEn(stored.get(AssetRole.AUDIO_EN).getObjectKey());
+            movie.setAudioUrlEs(stored.get(AssetRole.AUDIO_ES).getObjectKey());
+            movie.setSubTitlesEnglish(stored.get(AssetRole.SUBS_EN).getObjectKey());
+            movie.setSubTitlesSpanish(stored.get(AssetRole.SUBS_ES).getObjectKey());
+            movie.setImageBanner(stored.get(AssetRole.BANNER).getObjectKey());
+
+            MediaAsset video = stored.get(AssetRole.VIDEO);
+            movie.setVideoUrl1080p(renditionPlaylist(video, "1080p"));
+            movie.setVideoUrl720p(renditionPlaylist(video, "720p"));
+            movie.setVideoUrl480p(renditionPlaylist(video, "480p"));
+            movie.setHlsMasterUrl(video.getObjectKey() + "hls/" + MASTER_PLAYLIST);
+            movie.setDashManifestUrl(video.isDashPackaged() ? video.getObjectKey() + "dash/manifest.mpd" : null);
+            movie.setThumbnailTrackUrl(video.isThumbnailsGenerated() ? video.getObjectKey() + "thumbs/" + THUMBNAIL_TRACK : null);
             movie.setEstate(true);
 
             // Save back to the database with updated URLs
             movieServicePort.save(movie);
+        }
+
+        private void upload(Map<String, Path> objects) throws IOException {
+            if (!objects.isEmpty()) {
+                fileStoragePort.uploadFiles(bucket, objects);
+                uploadedObjects.addAndGet(objects.size());
+            }
+        }
 
-            // Cleaning
-            deleteDirectory(tempDir.toFile());
+        private String ladderPrefix() {
+            return "media/" + sourceHash + "/";
+        }
 
-        } catch (Exception e) {
-            // Error log
-            logger.error("Error processing and uploading async movie", e);
+        private boolean hasThumbnails() {
+            return Files.exists(workspace.thumbnails().resolve(THUMBNAIL_TRACK));
+        }
+
+        private List<String> encodedQualities() throws IOException {
+            try (Stream<Path> dirs = Files.list(workspace.hls())) {
+                return dirs.filter(Files::isDirectory).map(dir -> dir.getFileName().toString()).toList();
+            }
         }
     }
 
-    private void generateQualities(String inputPath, String outputDir, String baseName) throws IOException, InterruptedException {
-        Map<String, String> resolutions = Map.of(
-                "1080p", "1920:1080",
-                "720p", "1280:720",
-                "480p", "854:480"
-        );
-
-        Map<String, String> crfByQuality = Map.of(
-                "1080p", "28",
-                "720p", "30",
-                "480p", "32"
-        );
-
-        Map<String, String> presetByQuality= Map.of(
-                "1080p", "fast",
-                "720p", "fast",
-                "480p", "fast"
-        );
-
-        for (String calidad : resolutions.keySet()) {
-            String escala = resolutions.get(calidad);
-            String crf = crfByQuality.get(calidad);
-            String preset = presetByQuality.get(calidad);
-            String outputPath = outputDir + "/" + baseName + "_" + calidad + ".mp4";
-            ProcessBuilder builder = new ProcessBuilder(
-                    "ffmpeg", "-i", inputPath,
-                    "-vf", "scale=" + escala,
-                    "-an",
-                    "-c:v", "libx264",
-                    "-crf", crf,
-                    "-preset", preset,
-                    outputPath
-            );
-
-            builder.redirectErrorStream(true);
-            Process process = builder.start();
-
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                while ((reader.readLine()) != null) {
+    private static String extension(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
 
-                }
+    private static String renditionPlaylist(MediaAsset video, String quality) {
+        List<String> renditions = video.getRenditions();
+        return renditions != null && renditions.contains(quality)
+                ? video.getObjectKey() + "hls/" + quality + "/index.m3u8"
+                : null;
+    }
+
+    // SHA-256 of a workspace file, kept next to it so that a retried stage does not read it again
+    private static String contentHash(Path file) throws IOException {
+        Path hashFile = file.resolveSibling(file.getFileName() + HASH_SUFFIX);
+        if (Files.exists(hashFile)) {
+            return Files.readString(hashFile).trim();
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
             }
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+        Files.writeString(hashFile, hash);
+        return hash;
+    }
 
-            int exitCode = process.waitFor();
-            if (exitCode != 0) {
-                throw new RuntimeException("Error encoding " + calidad);
+    // Per-title ladder: no rendition above the source, source aspect ratio, no bitrate above the source's
+    private List<Rendition> ladderFor(SourceMedia source) {
+        List<Rendition> profile = encodingProfilePort.getRenditions();
+        List<Rendition> ladder = new ArrayList<>();
+        for (Rendition rendition : profile) {
+            if (rendition.getHeight() <= source.getHeight() * SOURCE_HEIGHT_TOLERANCE) {
+                ladder.add(fit(rendition, source));
             }
+        }
+        if (ladder.isEmpty()) {
+            // Smaller than every rendition: a single one at the source resolution
+            ladder.add(fit(profile.get(profile.size() - 1), source));
+        }
+        return ladder;
+    }
 
+    private Rendition fit(Rendition rendition, SourceMedia source) {
+        int height = Math.min(rendition.getHeight(), even(source.getHeight()));
+        int width = even((int) Math.round((double) height * source.getWidth() / source.getHeight()));
+        int maxBitrate = rendition.getMaxBitrateKbps();
+        if (source.getBitrateKbps() > 0 && (maxBitrate == 0 || source.getBitrateKbps() < maxBitrate)) {
+            maxBitrate = (int) source.getBitrateKbps();
         }
+        return new Rendition(rendition.getQuality(), width, height, rendition.getCrf(), rendition.getPreset(), maxBitrate);
     }
 
-    private void deleteDirectory(File dir) {
-        if (dir.isDirectory()) {
-            for (File file : Objects.requireNonNull(dir.listFiles())) {
-                deleteDirectory(file);
+    // libx264 with 4:2:0 chroma needs even dimensions
+    private static int even(int value) {
+        return Math.max(2, value - value % 2);
+    }
+
+    private void addDirectory(Map<String, Path> objects, Path dir, String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                objects.put(prefix + "/" + file.getFileName(), file);
             }
         }
-        dir.delete();
+    }
+
+    private void deleteDirectory(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(dir);
+        } catch (IOException e) {
+            logger.warn("Could not delete {}", dir, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stageExecutor.shutdownNow();
     }
 }
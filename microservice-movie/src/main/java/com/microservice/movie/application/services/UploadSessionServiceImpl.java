@@ -0,0 +1,251 @@
+package com.microservice.movie.application.services;
+
+import com.microservice.movie.application.ports.in.IngestJobServicePort;
+import com.microservice.movie.application.ports.in.MovieServicePort;
+import com.microservice.movie.application.ports.in.UploadSessionServicePort;
+import com.microservice.movie.application.ports.out.FileStoragePort;
+import com.microservice.movie.application.ports.out.UploadSessionPersistencePort;
+import com.microservice.movie.domain.exceptions.UploadSessionNotFoundException;
+import com.microservice.movie.domain.model.AssetRole;
+import com.microservice.movie.domain.model.IngestWorkspace;
+import com.microservice.movie.domain.model.Movie;
+import com.microservice.movie.domain.model.UploadSession;
+import com.microservice.movie.domain.model.UploadSessionFile;
+import com.microservice.movie.domain.model.UploadSessionState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Two-phase upload of a title straight to storage. Opening a session saves the movie and signs
+ * one PUT URL per source, or one URL per part for files of {@code upload-session.multipart-threshold-mb}
+ * or more. The client uploads, then completes the session: the stored files are checked against
+ * the sizes declared up front and an ingest job is queued that reads them from storage. No source
+ * byte passes through this service on the way in.
+ * <p>
+ * Sessions left open expire after {@code upload-session.expiry-minutes}, the lifetime of their
+ * URLs; their partial uploads and staged files are then deleted.
+ */
+@Service
+public class UploadSessionServiceImpl implements UploadSessionServicePort {
+
+    private static final String STAGING_ROOT = "uploads/";
+    // S3 limits: parts of 5 MiB or more (except the last), at most 10,000 of them, single PUTs up to 5 GiB
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    private static final int MAX_PARTS = 10_000;
+    private static final long MAX_SINGLE_PUT = 5L * 1024 * 1024 * 1024;
+    // SigV4 presigned URLs cannot outlive seven days
+    private static final Duration MAX_EXPIRY = Duration.ofDays(7);
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final MovieServicePort movieServicePort;
+    private final IngestJobServicePort ingestJobServicePort;
+    private final UploadSessionPersistencePort uploadSessionPersistencePort;
+    private final FileStoragePort fileStoragePort;
+
+    private final String bucket;
+    private final Duration expiry;
+    private final long multipartThreshold;
+    private final long partSize;
+    private final long maxFileSize;
+
+    public UploadSessionServiceImpl(MovieServicePort movieServicePort,
+                                    IngestJobServicePort ingestJobServicePort,
+                                    UploadSessionPersistencePort uploadSessionPersistencePort,
+                                    FileStoragePort fileStoragePort,
+                                    @Value("${aws.bucket}") String bucket,
+                                    @Value("${upload-session.expiry-minutes:240}") long expiryMinutes,
+                                    @Value("${upload-session.multipart-threshold-mb:64}") long multipartThresholdMb,
+                                    @Value("${upload-session.part-size-mb:64}") long partSizeMb,
+                                    @Value("${upload-session.max-file-mb:20480}") long maxFileMb) {
+        this.movieServicePort = movieServicePort;
+        this.ingestJobServicePort = ingestJobServicePort;
+        this.uploadSessionPersistencePort = uploadSessionPersistencePort;
+        this.fileStoragePort = fileStoragePort;
+        this.bucket = bucket;
+        Duration requested = Duration.ofMinutes(Math.max(1, expiryMinutes));
+        this.expiry = requested.compareTo(MAX_EXPIRY) > 0 ? MAX_EXPIRY : requested;
+        this.multipartThreshold = Math.min(multipartThresholdMb * 1024 * 1024, MAX_SINGLE_PUT);
+        this.partSize = Math.max(MIN_PART_SIZE, partSizeMb * 1024 * 1024);
+        this.maxFileSize = maxFileMb * 1024 * 1024;
+    }
+
+    @Override
+    public UploadSession open(Movie movie, Map<AssetRole, Long> fileSizes) {
+        for (AssetRole role : IngestWorkspace.SOURCES) {
+            Long size = fileSizes == null ? null : fileSizes.get(role);
+            if (size == null || size <= 0) {
+                throw new IllegalArgumentException("All media files are required: missing the size of " + role);
+            }
+            if (size > maxFileSize) {
+                throw new IllegalArgumentException(role + " exceeds the maximum upload size of " + maxFileSize / (1024 * 1024) + " MB");
+            }
+        }
+
+        Movie saved = movieServicePort.save(movie);
+        String idSession = UUID.randomUUID().toString();
+        String stagingPrefix = STAGING_ROOT + idSession + "/";
+        LocalDateTime now = LocalDateTime.now();
+
+        List<UploadSessionFile> files = new ArrayList<>();
+        try {
+            for (AssetRole role : IngestWorkspace.SOURCES) {
+                files.add(prepare(role, stagingPrefix + IngestWorkspace.sourceFileName(role), fileSizes.get(role)));
+            }
+        } catch (RuntimeException e) {
+            abortUploads(files);
+            throw e;
+        }
+
+        UploadSession session = uploadSessionPersistencePort.save(UploadSession.builder()
+                .idSession(idSession)
+                .idMovie(saved.getIdMovie())
+                .state(UploadSessionState.OPEN)
+                .stagingPrefix(stagingPrefix)
+                .expiresAt(now.plus(expiry))
+                .createdAt(now)
+                .updatedAt(now)
+                .files(files)
+                .build());
+        // The URLs are handed to the client only; they are not stored with the session
+        Map<AssetRole, List<String>> urls = new EnumMap<>(AssetRole.class);
+        files.forEach(file -> urls.put(file.getRole(), file.getUploadUrls()));
+        session.getFiles().forEach(file -> file.setUploadUrls(urls.get(file.getRole())));
+        return session;
+    }
+
+    private UploadSessionFile prepare(AssetRole role, String key, long size) {
+        UploadSessionFile.UploadSessionFileBuilder file = UploadSessionFile.builder()
+                .role(role)
+                .objectKey(key)
+                .sizeBytes(size);
+        if (size < multipartThreshold) {
+            return file.uploadUrls(List.of(fileStoragePort.generatePresignedUploadUrl(bucket, key, expiry))).build();
+        }
+
+        long fileParts = Math.max(partSize, (size + MAX_PARTS - 1) / MAX_PARTS);
+        int partCount = (int) ((size + fileParts - 1) / fileParts);
+        String uploadId = fileStoragePort.createMultipartUpload(bucket, key);
+        file.uploadId(uploadId).partSize(fileParts).partCount(partCount);
+        try {
+            List<String> urls = new ArrayList<>(partCount);
+            for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+                urls.add(fileStoragePort.generatePresignedUploadPartUrl(bucket, key, uploadId, partNumber, expiry));
+            }
+            return file.uploadUrls(urls).build();
+        } catch (RuntimeException e) {
+            fileStoragePort.abortMultipartUpload(bucket, key, uploadId);
+            throw e;
+        }
+    }
+
+    @Override
+    public Movie complete(String idSession, Map<AssetRole, List<String>> partETags) throws IOException {
+        UploadSession session = openSession(idSession);
+        if (session.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("The upload session expired; open a new one.");
+        }
+
+        // Every ETag list is checked before any upload is completed, so a request the client can fix
+        // leaves the session as it was
+        Map<UploadSessionFile, List<String>> pending = new LinkedHashMap<>();
+        for (UploadSessionFile file : session.getFiles()) {
+            if (file.isMultipart()) {
+                List<String> eTags = partETags == null ? null : partETags.get(file.getRole());
+                if (eTags == null || eTags.size() != file.getPartCount()) {
+                    throw new IllegalArgumentException(file.getRole() + " needs the ETags of its " + file.getPartCount() + " parts, in order");
+                }
+                pending.put(file, eTags);
+            }
+        }
+        for (Map.Entry<UploadSessionFile, List<String>> file : pending.entrySet()) {
+            // Already completed by an earlier attempt that failed afterwards: its upload id is gone
+            OptionalLong stored = fileStoragePort.getObjectSize(bucket, file.getKey().getObjectKey());
+            if (stored.isPresent() && stored.getAsLong() == file.getKey().getSizeBytes()) {
+                continue;
+            }
+            fileStoragePort.completeMultipartUpload(bucket, file.getKey().getObjectKey(), file.getKey().getUploadId(), file.getValue());
+        }
+        for (UploadSessionFile file : session.getFiles()) {
+            OptionalLong stored = fileStoragePort.getObjectSize(bucket, file.getObjectKey());
+            if (stored.isEmpty()) {
+                throw new IllegalArgumentException(file.getRole() + " was not uploaded");
+            }
+            if (stored.getAsLong() != file.getSizeBytes()) {
+                throw new IllegalArgumentException(file.getRole() + " has " + stored.getAsLong()
+                        + " bytes, but " + file.getSizeBytes() + " were declared");
+            }
+        }
+
+        if (!uploadSessionPersistencePort.transition(idSession, UploadSessionState.OPEN, UploadSessionState.COMPLETED)) {
+            throw new IllegalArgumentException("The upload session is no longer open.");
+        }
+        // The worker that claims the job fetches the sources into its own workspace
+        IngestWorkspace workspace = ingestJobServicePort.createWorkspace(session.getIdMovie());
+        ingestJobServicePort.enqueueFromStorage(session.getIdMovie(), workspace, session.getStagingPrefix());
+        return movieServicePort.findById(session.getIdMovie());
+    }
+
+    @Override
+    public void abort(String idSession) {
+        UploadSession session = openSession(idSession);
+        if (!uploadSessionPersistencePort.transition(idSession, UploadSessionState.OPEN, UploadSessionState.ABORTED)) {
+            throw new IllegalArgumentException("The upload session is no longer open.");
+        }
+        release(session);
+    }
+
+    @Override
+    public void expireSessions() {
+        for (UploadSession session : uploadSessionPersistencePort.findOpenExpiredBefore(LocalDateTime.now())) {
+            if (uploadSessionPersistencePort.transition(session.getIdSession(), UploadSessionState.OPEN, UploadSessionState.EXPIRED)) {
+                logger.info("Upload session {} of movie {} expired", session.getIdSession(), session.getIdMovie());
+                release(session);
+            }
+        }
+    }
+
+    private UploadSession openSession(String idSession) {
+        UploadSession session = uploadSessionPersistencePort.findById(idSession)
+                .orElseThrow(UploadSessionNotFoundException::new);
+        if (session.getState() != UploadSessionState.OPEN) {
+            throw new IllegalArgumentException("The upload session is " + session.getState().name().toLowerCase() + ".");
+        }
+        return session;
+    }
+
+    private void release(UploadSession session) {
+        abortUploads(session.getFiles());
+        try {
+            fileStoragePort.deleteObjects(bucket, session.getStagingPrefix());
+        } catch (RuntimeException e) {
+            logger.warn("Could not delete the staged files of upload session {}", session.getIdSession(), e);
+        }
+    }
+
+    private void abortUploads(List<UploadSessionFile> files) {
+        for (UploadSessionFile file : files) {
+            if (!file.isMultipart()) {
+                continue;
+            }
+            try {
+                fileStoragePort.abortMultipartUpload(bucket, file.getObjectKey(), file.getUploadId());
+            } catch (RuntimeException e) {
+                logger.warn("Could not abort the multipart upload of {}", file.getObjectKey(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.microservice.movie.domain.exceptions;
+
+public class UploadSessionNotFoundException extends RuntimeException {
+}
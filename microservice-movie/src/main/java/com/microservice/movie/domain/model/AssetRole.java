@@ -0,0 +1,11 @@
+package com.microservice.movie.domain.model;
+
+// What a content-addressed asset is used for by a title
+public enum AssetRole {
+    VIDEO,
+    AUDIO_EN,
+    AUDIO_ES,
+    SUBS_EN,
+    SUBS_ES,
+    BANNER
+}
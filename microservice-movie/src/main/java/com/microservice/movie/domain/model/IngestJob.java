@@ -0,0 +1,35 @@
+package com.microservice.movie.domain.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestJob {
+
+    private Long idJob;
+    private Long idMovie;
+    private IngestState state;
+    private IngestStage completedStage;
+    private String workDir;
+    // Storage prefix holding the sources of a direct upload; null when they were uploaded into workDir
+    private String sourcePrefix;
+    // Ingest node that can see workDir, set when the job needs files only that volume holds
+    private String workNode;
+    private int attempts;
+    private int maxAttempts;
+    private String lastError;
+    private String owner;
+    private LocalDateTime leaseUntil;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime stageStartedAt;
+    private Double progressPercent;
+    private Double encodeFps;
+    private Double encodeSpeed;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
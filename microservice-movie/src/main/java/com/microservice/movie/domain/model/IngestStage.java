@@ -0,0 +1,7 @@
+package com.microservice.movie.domain.model;
+
+// Last pipeline stage whose output is complete in the job's work directory
+public enum IngestStage {
+    TRANSCODED,
+    UPLOADED
+}
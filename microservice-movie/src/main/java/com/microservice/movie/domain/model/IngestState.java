@@ -0,0 +1,10 @@
+package com.microservice.movie.domain.model;
+
+public enum IngestState {
+    QUEUED,
+    FETCHING,
+    TRANSCODING,
+    UPLOADING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,75 @@
+package com.microservice.movie.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Local working directory of one ingest job. Uploaded sources and every
+ * intermediate artifact live here, so a job can resume after a restart.
+ */
+@Getter
+@AllArgsConstructor
+public class IngestWorkspace {
+
+    // Files an admin uploads for a title
+    public static final List<AssetRole> SOURCES = List.of(
+            AssetRole.VIDEO, AssetRole.AUDIO_EN, AssetRole.AUDIO_ES,
+            AssetRole.SUBS_EN, AssetRole.SUBS_ES, AssetRole.BANNER);
+
+    private Path root;
+
+    // Name of a source inside the workspace, also used for its staging key in storage
+    public static String sourceFileName(AssetRole role) {
+        return switch (role) {
+            case VIDEO -> "video.mp4";
+            case AUDIO_EN -> "audio_en.m4a";
+            case AUDIO_ES -> "audio_es.m4a";
+            case SUBS_EN -> "subs_en.vtt";
+            case SUBS_ES -> "subs_es.vtt";
+            case BANNER -> "banner.jpg";
+        };
+    }
+
+    public Path source(AssetRole role) {
+        return root.resolve(sourceFileName(role));
+    }
+
+    public Path video() {
+        return source(AssetRole.VIDEO);
+    }
+
+    public Path audioEn() {
+        return source(AssetRole.AUDIO_EN);
+    }
+
+    public Path audioEs() {
+        return source(AssetRole.AUDIO_ES);
+    }
+
+    public Path subsEn() {
+        return source(AssetRole.SUBS_EN);
+    }
+
+    public Path subsEs() {
+        return source(AssetRole.SUBS_ES);
+    }
+
+    public Path banner() {
+        return source(AssetRole.BANNER);
+    }
+
+    public Path hls() {
+        return root.resolve("hls");
+    }
+
+    public Path dash() {
+        return root.resolve("dash");
+    }
+
+    public Path thumbnails() {
+        return root.resolve("thumbs");
+    }
+}
@@ -0,0 +1,28 @@
+package com.microservice.movie.domain.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Stored content identified by its SHA-256. For a {@link AssetRole#VIDEO} source the object key
+ * is the prefix of its encoded ladder ({@code hls/...} and, if generated, {@code dash/...} and {@code thumbs/...});
+ * for any other asset it is the key of the object itself.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaAsset {
+
+    private String contentHash;
+    private String objectKey;
+    private long sizeBytes;
+    private List<String> renditions;
+    private boolean dashPackaged;
+    private boolean thumbnailsGenerated;
+    private int refCount;
+    private LocalDateTime createdAt;
+}
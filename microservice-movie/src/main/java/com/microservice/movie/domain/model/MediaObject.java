@@ -0,0 +1,24 @@
+package com.microservice.movie.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * A stored object resolved for streaming: its size and, when this instance holds a local copy,
+ * the file to serve it from instead of the object store.
+ */
+@Getter
+@AllArgsConstructor
+public class MediaObject {
+
+    private String key;
+    private long size;
+    private String contentType;
+    private Path localFile;
+
+    public boolean isCached() {
+        return localFile != null;
+    }
+}
@@ -34,6 +34,10 @@ public class Movie {
 
     private String imageBanner;
 
+    private String hlsMasterUrl;
+    private String dashManifestUrl;
+    private String thumbnailTrackUrl;
+
     private Boolean estate;
 
 }
@@ -0,0 +1,28 @@
+package com.microservice.movie.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after a movie or episode is created, updated, enabled, disabled or deleted,
+ * so that read models built from the catalog can update themselves.
+ * {@code movie} holds the saved state and is {@code null} when the movie was deleted.
+ * {@code fromPeer} marks a change made on another instance and replayed here, which is not
+ * forwarded again.
+ */
+@Getter
+@AllArgsConstructor
+public class MovieChangedEvent {
+
+    private Long idMovie;
+    private Movie movie;
+    private boolean fromPeer;
+
+    public MovieChangedEvent(Long idMovie, Movie movie) {
+        this(idMovie, movie, false);
+    }
+
+    public boolean isDeleted() {
+        return movie == null;
+    }
+}
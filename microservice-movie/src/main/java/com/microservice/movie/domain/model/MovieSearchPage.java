@@ -0,0 +1,17 @@
+package com.microservice.movie.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of ranked search results and the number of matches across all pages.
+ */
+@Getter
+@AllArgsConstructor
+public class MovieSearchPage {
+
+    private List<Movie> movies;
+    private long total;
+}
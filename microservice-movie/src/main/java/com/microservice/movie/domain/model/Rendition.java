@@ -0,0 +1,28 @@
+package com.microservice.movie.domain.model;
+
+import lombok.*;
+
+import java.util.List;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Rendition {
+
+    // Qualities a title keeps a playback key for; a rendition named otherwise would never be published
+    public static final List<String> QUALITIES = List.of("1080p", "720p", "480p");
+
+    private String quality;
+    private int width;
+    private int height;
+    private int crf;
+    private String preset;
+    // Peak bitrate handed to the encoder's rate control; 0 leaves it uncapped
+    private int maxBitrateKbps;
+
+    public String scale() {
+        return width + ":" + height;
+    }
+}
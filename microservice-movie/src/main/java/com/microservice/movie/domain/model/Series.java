@@ -0,0 +1,32 @@
+package com.microservice.movie.domain.model;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable snapshot of the active episodes of one series, grouped by season and ordered by
+ * episode number.
+ */
+@Getter
+public class Series {
+
+    private final String title;
+    private final SortedMap<Integer, List<Movie>> seasons;
+    private final List<Movie> episodes;
+
+    public Series(String title, SortedMap<Integer, List<Movie>> seasons) {
+        this.title = title;
+        TreeMap<Integer, List<Movie>> copy = new TreeMap<>();
+        seasons.forEach((season, episodes) -> copy.put(season, List.copyOf(episodes)));
+        this.seasons = Collections.unmodifiableSortedMap(copy);
+        this.episodes = copy.values().stream().flatMap(List::stream).toList();
+    }
+
+    public List<Movie> season(Integer seasonNumber) {
+        return seasons.getOrDefault(seasonNumber, List.of());
+    }
+}
@@ -0,0 +1,21 @@
+package com.microservice.movie.domain.model;
+
+import lombok.*;
+
+import java.time.Duration;
+
+/**
+ * Properties of an uploaded video, as probed before encoding.
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SourceMedia {
+
+    private int width;
+    private int height;
+    // Video bitrate, or the overall bitrate when the container does not report it; 0 if unknown
+    private long bitrateKbps;
+    private Duration duration;
+}
@@ -0,0 +1,22 @@
+package com.microservice.movie.domain.model;
+
+import lombok.*;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of a running encode, as reported by FFmpeg.
+ */
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TranscodeProgress {
+
+    // 0-100, or null while the duration of the source is unknown
+    private Double percent;
+    // Frames encoded per second and encoded media time per wall-clock time (1.0 = real time)
+    private double fps;
+    private double speed;
+    private Duration encoded;
+}
@@ -0,0 +1,25 @@
+package com.microservice.movie.domain.model;
+
+import lombok.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TranscodeResult {
+
+    private String quality;
+    // Directory holding the rendition's media playlist and its segments
+    private Path output;
+    private Path playlist;
+    private int width;
+    private int height;
+    // Peak and average bits per second, measured from the produced segments
+    private long bandwidth;
+    private long averageBandwidth;
+    private Duration wallTime;
+}
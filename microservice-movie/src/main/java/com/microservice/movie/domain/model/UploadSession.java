@@ -0,0 +1,27 @@
+package com.microservice.movie.domain.model;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Sources of a title being uploaded by the client straight to storage, under
+ * {@code stagingPrefix}. Completing the session queues the ingest from there.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSession {
+
+    private String idSession;
+    private Long idMovie;
+    private UploadSessionState state;
+    private String stagingPrefix;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private List<UploadSessionFile> files;
+}
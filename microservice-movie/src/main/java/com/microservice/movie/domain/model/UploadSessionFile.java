@@ -0,0 +1,27 @@
+package com.microservice.movie.domain.model;
+
+import lombok.*;
+
+import java.util.List;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionFile {
+
+    private AssetRole role;
+    private String objectKey;
+    private Long sizeBytes;
+    // Set for multipart uploads, which take partCount parts of partSize bytes (the last one shorter)
+    private String uploadId;
+    private Long partSize;
+    private Integer partCount;
+    // Presigned PUT URLs, one per part; only returned when the session is opened, never stored
+    private List<String> uploadUrls;
+
+    public boolean isMultipart() {
+        return uploadId != null;
+    }
+}
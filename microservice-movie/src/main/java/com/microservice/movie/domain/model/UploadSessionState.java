@@ -0,0 +1,8 @@
+package com.microservice.movie.domain.model;
+
+public enum UploadSessionState {
+    OPEN,
+    COMPLETED,
+    ABORTED,
+    EXPIRED
+}
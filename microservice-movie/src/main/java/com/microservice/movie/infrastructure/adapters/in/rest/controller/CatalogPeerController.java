@@ -0,0 +1,45 @@
+package com.microservice.movie.infrastructure.adapters.in.rest.controller;
+
+import com.microservice.movie.application.ports.in.MovieServicePort;
+import com.microservice.movie.infrastructure.adapters.in.rest.exception.ResourceNotFoundException;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+// Catalog changes forwarded by the other instances of this service; not part of the public API
+@Hidden
+@RestController
+public class CatalogPeerController {
+
+    private static final String TOKEN_HEADER = "X-Catalog-Peer-Token";
+
+    @Autowired
+    private MovieServicePort movieServicePort;
+    @Value("${catalog.peers.enabled:false}")
+    private boolean peersEnabled;
+    @Value("${catalog.peers.token:}")
+    private String token;
+
+    @PostMapping("/internal/catalog/changed/{id}")
+    public ResponseEntity<Void> movieChanged(@PathVariable("id") Long id,
+                                             @RequestHeader(value = TOKEN_HEADER, required = false) String presented) {
+        if (!peersEnabled || token.isBlank()) {
+            throw new ResourceNotFoundException("Catalog peers are not enabled");
+        }
+        if (presented == null || !MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8), presented.getBytes(StandardCharsets.UTF_8))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        movieServicePort.applyPeerChange(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,50 +2,93 @@ package com.microservice.movie.infrastructure.adapters.in.rest.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.microservice.movie.application.ports.in.IngestJobServicePort;
+import com.microservice.movie.application.ports.in.MediaStreamingPort;
 import com.microservice.movie.application.ports.in.MovieServicePort;
-import com.microservice.movie.application.ports.in.UploadMoviePort;
+import com.microservice.movie.application.ports.in.PlaybackServicePort;
+import com.microservice.movie.application.ports.in.UploadSessionServicePort;
 import com.microservice.movie.application.ports.out.FileStoragePort;
+import com.microservice.movie.domain.model.IngestWorkspace;
+import com.microservice.movie.domain.model.MediaObject;
 import com.microservice.movie.domain.model.Movie;
+import com.microservice.movie.domain.model.MovieSearchPage;
+import com.microservice.movie.domain.model.UploadSession;
+import com.microservice.movie.infrastructure.adapters.in.rest.dto.AssetManifestRequestDto;
+import com.microservice.movie.infrastructure.adapters.in.rest.dto.IngestJobDto;
 import com.microservice.movie.infrastructure.adapters.in.rest.dto.MovieAssetsDto;
 import com.microservice.movie.infrastructure.adapters.in.rest.dto.MovieDto;
+import com.microservice.movie.infrastructure.adapters.in.rest.dto.MovieManifestDto;
+import com.microservice.movie.infrastructure.adapters.in.rest.dto.UploadSessionCompleteDto;
+import com.microservice.movie.infrastructure.adapters.in.rest.dto.UploadSessionDto;
+import com.microservice.movie.infrastructure.adapters.in.rest.dto.UploadSessionRequestDto;
 import com.microservice.movie.infrastructure.adapters.in.rest.exception.NoResultsFoundException;
 import com.microservice.movie.infrastructure.adapters.in.rest.exception.ResourceNotFoundException;
+import com.microservice.movie.infrastructure.adapters.in.rest.mapper.IngestJobRestMapper;
 import com.microservice.movie.infrastructure.adapters.in.rest.mapper.MovieRestMapper;
+import com.microservice.movie.infrastructure.adapters.in.rest.mapper.UploadSessionRestMapper;
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.IOException;
+import java.nio.channels.Channels;
 import java.time.Duration;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 public class MovieController {
 
+    private static final String HLS_MEDIA_TYPE = "application/vnd.apple.mpegurl";
+    private static final String DASH_MEDIA_TYPE = "application/dash+xml";
+    private static final String VTT_MEDIA_TYPE = "text/vtt";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private  MovieServicePort movieServicePort;
     @Autowired
     private  MovieRestMapper movieRestMapper;
     @Autowired
-    private UploadMoviePort uploadMoviePort;
+    private IngestJobServicePort ingestJobServicePort;
+    @Autowired
+    private IngestJobRestMapper ingestJobRestMapper;
     @Autowired
     private FileStoragePort fileStoragePort;
+    @Autowired
+    private PlaybackServicePort playbackServicePort;
+    @Autowired
+    private MediaStreamingPort mediaStreamingPort;
+    @Autowired
+    private UploadSessionServicePort uploadSessionServicePort;
+    @Autowired
+    private UploadSessionRestMapper uploadSessionRestMapper;
+    @Value("${streaming.enabled:false}")
+    private boolean streamingEnabled;
     @Value("${aws.bucket}")
     private String bucket;
     /*
@@ -100,7 +143,8 @@ public class MovieController {
     //Search for movies or series activated for users by search bar
     @Operation(
             summary = "Search for movies or series",
-            description = "Allows you to search for user-activated movies or series by title. Searches are performed using the search bar.",
+            description = "Allows you to search for user-activated movies or series by title and description. Searches are performed using the search bar. " +
+                    "Matching ignores case and accents, and the last words may be incomplete. Results are ranked, best matches first, and paginated.",
             tags = {"User"},
             parameters = {
                     @Parameter(
@@ -108,12 +152,23 @@ public class MovieController {
                             description = "Text or keyword of the movie/series title to search for",
                             required = true,
                             example = "Inception"
+                    ),
+                    @Parameter(
+                            name = "page",
+                            description = "Zero-based page number",
+                            example = "0"
+                    ),
+                    @Parameter(
+                            name = "size",
+                            description = "Page size, between 1 and " + MAX_PAGE_SIZE,
+                            example = "20"
                     )
             },
             responses = {
                     @ApiResponse(
                             responseCode = "200",
                             description = "Movies or series found",
+                            headers = @Header(name = TOTAL_COUNT_HEADER, description = "Number of matches across all pages"),
                             content = @Content(
                                     mediaType = "application/json",
                                     array = @ArraySchema(schema = @Schema(implementation = MovieDto.class))
@@ -146,22 +201,29 @@ public class MovieController {
             }
     )
     @GetMapping("/search-all")
-    public ResponseEntity<?> searchByTitle(@RequestParam("title") String title) {
+    public ResponseEntity<?> searchByTitle(@RequestParam("title") String title,
+                                           @RequestParam(value = "page", defaultValue = "0") int page,
+                                           @RequestParam(value = "size", defaultValue = "" + DEFAULT_SEARCH_PAGE_SIZE) int size) {
         if (title == null || title.isBlank()) {
             throw new IllegalArgumentException("The 'title' parameter cannot be empty");
         }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("The page parameter must be 0 or greater and size between 1 and " + MAX_PAGE_SIZE + ".");
+        }
 
-        List<Movie> results = movieServicePort.searchByTitle(title);
+        MovieSearchPage results = movieServicePort.searchByTitle(title, page, size);
 
-        if (results.isEmpty()) {
+        if (results.getTotal() == 0) {
             throw new NoResultsFoundException("No movies or series were found with the title: " + title);
         }
 
-        List<MovieDto> dtos = results.stream()
+        List<MovieDto> dtos = results.getMovies().stream()
                 .map(this::mapToDtoWithSignedBanner)
                 .toList();
 
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(results.getTotal()))
+                .body(dtos);
     }
     //Generate playback URL for movie or episode
     @Operation(
@@ -202,10 +264,11 @@ public class MovieController {
                     ),
                     @ApiResponse(
                             responseCode = "404",
-                            description = "Movie or episode not found",
+                            description = "Movie or episode not found, or not encoded in the requested quality "
+                                    + "(sources are never upscaled, so a 720p title has no 1080p rendition)",
                             content = @Content(
                                     mediaType = "application/json",
-                                    schema = @Schema(example = "{ \"error\": \"Movie or episode not found with ID 123\" }")
+                                    schema = @Schema(example = "{ \"error\": \"Movie or episode 123 is not available in 1080p\" }")
                             )
                     ),
                     @ApiResponse(
@@ -231,15 +294,267 @@ public class MovieController {
             case "1080p" -> movie.getVideoUrl1080p();
             default      -> throw new IllegalArgumentException("Invalid quality. Allowed options are 480p, 720p o 1080p.");
         };
+        if (key == null) {
+            throw new ResourceNotFoundException("Movie or episode " + id + " is not available in " + quality);
+        }
+
+        if (key.endsWith(".m3u8")) {
+            // HLS titles are played through the signed playlist endpoint, not a single object URL
+            return ResponseEntity.ok(link("/play/{id}/hls/{quality}/index.m3u8", id, quality));
+        }
 
         String url = fileStoragePort.generatePresignedDownloadUrl(bucket, key, Duration.ofMinutes(60));
         return ResponseEntity.ok(url);
     }
+    //HLS master playlist for adaptive playback
+    @Operation(
+            summary = "Get HLS master playlist",
+            description = "Returns the HLS master playlist of a movie or episode. Variant playlists are referenced relatively, "
+                    + "so the player requests them from this service with signed segment URLs.",
+            tags = {"User"},
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Master playlist",
+                            content = @Content(mediaType = HLS_MEDIA_TYPE)
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Movie or episode not found, or it has no HLS ladder",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(example = "{ \"error\": \"Movie not found\" }")
+                            )
+                    )
+            }
+    )
+    @GetMapping(value = "/play/{id}/hls/master.m3u8", produces = HLS_MEDIA_TYPE)
+    public ResponseEntity<String> getHlsMasterPlaylist(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(playbackServicePort.getHlsMasterPlaylist(id));
+    }
+    //HLS media playlist of one rendition with signed segments
+    @Operation(
+            summary = "Get HLS rendition playlist",
+            description = "Returns the HLS media playlist of one quality with every segment replaced by a pre-signed URL "
+                    + "valid for the duration of the title plus 60 minutes.",
+            tags = {"User"},
+            parameters = {
+                    @Parameter(
+                            name = "quality",
+                            description = "Rendition quality",
+                            required = true,
+                            example = "720p",
+                            schema = @Schema(allowableValues = {"480p", "720p", "1080p"})
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Media playlist with signed segment URLs",
+                            content = @Content(mediaType = HLS_MEDIA_TYPE)
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid quality",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(example = "{ \"error\": \"Invalid quality. Allowed options are 480p, 720p o 1080p.\" }")
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Movie or episode not found, or the quality was not encoded as HLS",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(example = "{ \"error\": \"Movie not found\" }")
+                            )
+                    )
+            }
+    )
+    @GetMapping(value = "/play/{id}/hls/{quality}/index.m3u8", produces = HLS_MEDIA_TYPE)
+    public ResponseEntity<String> getHlsMediaPlaylist(@PathVariable("id") Long id, @PathVariable("quality") String quality) {
+        return ResponseEntity.ok(playbackServicePort.getHlsMediaPlaylist(id, quality));
+    }
+    //DASH manifest with signed segments
+    @Operation(
+            summary = "Get DASH manifest",
+            description = "Returns the DASH manifest of a movie or episode with pre-signed segment URLs. "
+                    + "Only available for titles ingested with DASH packaging enabled.",
+            tags = {"User"},
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "DASH manifest",
+                            content = @Content(mediaType = DASH_MEDIA_TYPE)
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Movie or episode not found, or it has no DASH manifest",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(example = "{ \"error\": \"Movie not found\" }")
+                            )
+                    )
+            }
+    )
+    @GetMapping(value = "/play/{id}/dash/manifest.mpd", produces = DASH_MEDIA_TYPE)
+    public ResponseEntity<String> getDashManifest(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(playbackServicePort.getDashManifest(id));
+    }
+    //WebVTT thumbnail track with signed sprite sheets
+    @Operation(
+            summary = "Get seek-preview thumbnails",
+            description = "Returns the WebVTT thumbnail track of a movie or episode. Each cue covers a fixed interval and points at "
+                    + "its tile of a pre-signed JPEG sprite sheet (sheet-url#xywh=x,y,width,height), so players can show previews "
+                    + "while seeking without fetching any video. Only available for titles whose thumbnails were generated at ingest.",
+            tags = {"User"},
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Thumbnail track",
+                            content = @Content(mediaType = VTT_MEDIA_TYPE)
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Movie or episode not found, or it has no thumbnails",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(example = "{ \"error\": \"Movie not found\" }")
+                            )
+                    )
+            }
+    )
+    @GetMapping(value = "/play/{id}/thumbnails.vtt", produces = VTT_MEDIA_TYPE)
+    public ResponseEntity<String> getThumbnailTrack(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(playbackServicePort.getThumbnailTrack(id));
+    }
+    //Byte-range streaming of the ladder through this service
+    @Operation(
+            summary = "Stream a playlist or segment",
+            description = "Serves any file of the HLS or DASH ladder of an active movie or episode through this service, honouring "
+                    + "single HTTP Range requests. Playlists are returned as stored, so a player that starts at "
+                    + "/play/{id}/stream/hls/master.m3u8 requests every rendition and segment from here as well. Files held in the local "
+                    + "media cache are sent from disk; the rest are read from storage by range. Only available when streaming.enabled is set.",
+            tags = {"User"},
+            parameters = {
+                    @Parameter(
+                            name = "path",
+                            description = "Path of the file inside the ladder",
+                            required = true,
+                            example = "hls/720p/segment_00001.ts"
+                    ),
+                    @Parameter(
+                            name = "Range",
+                            in = ParameterIn.HEADER,
+                            description = "Byte range to return",
+                            example = "bytes=0-1048575"
+                    )
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Whole file"),
+                    @ApiResponse(
+                            responseCode = "206",
+                            description = "Requested byte range",
+                            headers = @Header(name = "Content-Range", description = "Range returned and size of the file", schema = @Schema(example = "bytes 0-1048575/7340032"))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "The path is outside the HLS and DASH ladder",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(example = "{ \"error\": \"Only the HLS and DASH renditions of a title can be streamed.\" }")
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Movie or episode not found or inactive, file not found, or streaming disabled",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(example = "{ \"error\": \"Movie not found\" }")
+                            )
+                    ),
+                    @ApiResponse(responseCode = "416", description = "The range starts beyond the end of the file"),
+                    @ApiResponse(
+                            responseCode = "503",
+                            description = "Every storage stream is busy; retry after the Retry-After delay",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(example = "{ \"error\": \"Too many streams are being read from storage; retry shortly\" }")
+                            )
+                    )
+            }
+    )
+    @GetMapping("/play/{id}/stream/{*path}")
+    public void streamMedia(@PathVariable("id") Long id,
+                            @PathVariable("path") String path,
+                            @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        if (!streamingEnabled) {
+            throw new ResourceNotFoundException("Streaming through the service is not enabled");
+        }
+        MediaObject object = mediaStreamingPort.open(id, path);
+        try {
+            sendRange(object, rangeHeader, request, response);
+        } finally {
+            // The local copy is written while the handler runs, so it can be evicted again from here on
+            mediaStreamingPort.release(object);
+        }
+    }
+
+    private void sendRange(MediaObject object,
+                           String rangeHeader,
+                           HttpServletRequest request,
+                           HttpServletResponse response) throws IOException {
+        long size = object.getSize();
+        long start = 0;
+        long end = size - 1;
+
+        // Multiple or malformed ranges are ignored and the whole file is returned, as RFC 9110 allows
+        HttpRange range = singleRange(rangeHeader);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(size);
+                end = range.getRangeEnd(size);
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        } else {
+            response.setStatus(HttpStatus.OK.value());
+        }
+        long length = end - start + 1;
+        response.setContentType(object.getContentType());
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=86400");
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        mediaStreamingPort.transfer(object, start, end, Channels.newChannel(response.getOutputStream()));
+    }
+
+    private static HttpRange singleRange(String rangeHeader) {
+        if (rangeHeader == null || rangeHeader.isBlank()) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
     // List only movies or only series
     @Operation(
             summary = "List only movies or only series",
-            description = "Returns a list of movies or series activated according to the specified category. " +
-                    "If the category is 2, series are considered; otherwise, movies are returned.",
+            description = "Returns a page of movies or series activated according to the specified category. " +
+                    "If the category is 2, series are considered (one entry per series, its first episode); otherwise, movies are returned. " +
+                    "When more results exist, the X-Next-Cursor header holds the cursor of the next page.",
             tags = {"User"},
             parameters = {
                     @Parameter(
@@ -247,12 +562,23 @@ public class MovieController {
                             description = "Category identifier (1 = movie, 2 = Series)",
                             required = true,
                             example = "2"
+                    ),
+                    @Parameter(
+                            name = "cursor",
+                            description = "Cursor returned in X-Next-Cursor by the previous page; omit it for the first page",
+                            example = "120"
+                    ),
+                    @Parameter(
+                            name = "size",
+                            description = "Page size, between 1 and " + MAX_PAGE_SIZE,
+                            example = "50"
                     )
             },
             responses = {
                     @ApiResponse(
                             responseCode = "200",
                             description = "List of movies or series obtained correctly",
+                            headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor of the next page, absent on the last page"),
                             content = @Content(
                                     mediaType = "application/json",
                                     array = @ArraySchema(schema = @Schema(implementation = MovieDto.class))
@@ -285,43 +611,36 @@ public class MovieController {
             }
     )
     @GetMapping("/by-category/{categoryId}")
-    public ResponseEntity<?> getByCategory(@PathVariable("categoryId")  Long categoryId) {
+    public ResponseEntity<?> getByCategory(@PathVariable("categoryId")  Long categoryId,
+                                           @RequestParam(value = "cursor", required = false) Long cursor,
+                                           @RequestParam(value = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
         // Validate the parameter
         if (categoryId < 1 || categoryId > 2) {
             throw new IllegalArgumentException("The categoryId parameter must be 1 (Movies) or 2 (Series).");
         }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("The size parameter must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
 
-        List<Movie> baseList = movieServicePort.findAll().stream()
-                .filter(movie -> movie.getIdCategory().equals(categoryId))
-                .filter(movie -> Boolean.TRUE.equals(movie.getEstate()))
-                .toList();
+        // One extra row tells whether there is a next page
+        List<Movie> page = movieServicePort.getCatalogPage(categoryId, cursor, size + 1);
 
-        if (baseList.isEmpty()) {
+        if (page.isEmpty() && cursor == null) {
             throw new NoResultsFoundException("No results found for the category " + categoryId + ".");
         }
 
-        List<Movie> filteredMovies;
-
-        if (categoryId == 2) { // Series
-            filteredMovies = baseList.stream()
-                    .collect(Collectors.groupingBy(movie -> normalizeTitle(movie.getTitle())))
-                    .values().stream()
-                    .map(group -> group.stream()
-                            .filter(e -> e.getSeasonNumber() != null)
-                            .min(Comparator.comparingInt(Movie::getSeasonNumber)
-                                    .thenComparingInt(Movie::getEpisodeNumber))
-                            .orElse(null))
-                    .filter(Objects::nonNull)
-                    .toList();
-        } else { // Movies
-            filteredMovies = baseList;
-        }
+        boolean hasNext = page.size() > size;
+        List<Movie> filteredMovies = hasNext ? page.subList(0, size) : page;
 
         List<MovieDto> result = filteredMovies.stream()
                 .map(this::mapToDtoWithSignedBanner)
                 .toList();
 
-        return ResponseEntity.ok(result);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (hasNext) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(filteredMovies.get(size - 1).getIdMovie()));
+        }
+        return response.body(result);
     }
     //list episodes of a series-- Do not use it as a user part
     @Hidden
@@ -330,10 +649,7 @@ public class MovieController {
             @PathVariable("title") String title,
             @PathVariable("seasonNumber") Integer seasonNumber) {
 
-        List<Movie> episodes = movieServicePort.getEpisodesBySeriesTitle(title).stream()
-                .filter(m -> Objects.equals(m.getSeasonNumber(), seasonNumber))
-                .sorted(Comparator.comparing(Movie::getEpisodeNumber)) // sort
-                .toList();
+        List<Movie> episodes = movieServicePort.getEpisodesBySeason(title, seasonNumber);
         Duration duration = Duration.ofMinutes(60);
 
         List<MovieDto> dtoList = new ArrayList<>();
@@ -357,7 +673,8 @@ public class MovieController {
     //Get urls
     @Operation(
             summary = "Get URLs of assets from a movie or series",
-            description = "Generates temporary (pre-signed) URLs valid for 60 minutes to access a movie or series' multimedia resources: audio, subtitles, and banner images.",
+            description = "Generates temporary (pre-signed) URLs valid for 60 minutes to access a movie or series' multimedia resources: audio, subtitles, and banner images. "
+                    + "thumbnailsUrl links to the seek-preview track (/play/{id}/thumbnails.vtt) when the title has one.",
             tags = {"User"},
             parameters = {
                     @Parameter(
@@ -408,9 +725,113 @@ public class MovieController {
         assets.setSubtitlesEsUrl(fileStoragePort.generatePresignedDownloadUrl(bucket, movie.getSubTitlesSpanish(), duration));
         assets.setSubtitlesEnUrl(fileStoragePort.generatePresignedDownloadUrl(bucket, movie.getSubTitlesEnglish(), duration));
         assets.setImageBannerUrl(fileStoragePort.generatePresignedDownloadUrl(bucket, movie.getImageBanner(), duration));
+        assets.setThumbnailsUrl(thumbnailsLink(movie));
 
         return ResponseEntity.ok(assets);
     }
+    //Get urls of assets and playback for many movies or a whole season at once
+    @Operation(
+            summary = "Get asset and playback URLs of many movies or episodes",
+            description = "Returns, in a single response, the pre-signed asset URLs (valid for 60 minutes) and the playback URLs of "
+                    + "every requested movie or episode, as /{id}/assets and /play/{id}/{quality} would. Send either a list of ids "
+                    + "(at most " + MAX_BATCH_SIZE + ") or a series title and season number. Unknown ids are skipped.",
+            tags = {"User"},
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Manifest generated correctly, in the order of the request (or of the episodes)",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = MovieManifestDto.class))
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid request",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(example = "{ \"error\": \"Send either ids or seriesTitle and seasonNumber.\" }")
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "None of the requested movies or episodes exist",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(example = "{ \"error\": \"No movies or episodes were found for the request.\" }")
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "Internal server error while generating the manifest",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(example = "{ \"error\": \"Unexpected error while generating assets.\" }")
+                            )
+                    )
+            }
+    )
+    @PostMapping("/assets/batch")
+    public ResponseEntity<List<MovieManifestDto>> getAssetManifest(@RequestBody AssetManifestRequestDto request) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean bySeason = request.getSeriesTitle() != null && !request.getSeriesTitle().isBlank()
+                && request.getSeasonNumber() != null;
+        if (byIds == bySeason) {
+            throw new IllegalArgumentException("Send either ids or seriesTitle and seasonNumber.");
+        }
+        if (byIds && request.getIds().size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " ids can be requested at once.");
+        }
+
+        // One query for the ids; a season is served by the series read model
+        List<Movie> movies = byIds
+                ? movieServicePort.findAllById(request.getIds())
+                : movieServicePort.getEpisodesBySeason(request.getSeriesTitle(), request.getSeasonNumber());
+
+        if (movies.isEmpty()) {
+            throw new NoResultsFoundException("No movies or episodes were found for the request.");
+        }
+
+        // Sign every object of the batch in one pass
+        List<String> keys = new ArrayList<>();
+        for (Movie movie : movies) {
+            keys.addAll(Arrays.asList(movie.getAudioUrlEs(), movie.getAudioUrlEn(),
+                    movie.getSubTitlesSpanish(), movie.getSubTitlesEnglish(), movie.getImageBanner()));
+            videoKeys(movie).values().stream()
+                    .filter(key -> !key.endsWith(".m3u8"))
+                    .forEach(keys::add);
+        }
+        Map<String, String> signed = fileStoragePort.generatePresignedDownloadUrls(bucket, keys, Duration.ofMinutes(60));
+
+        List<MovieManifestDto> manifest = new ArrayList<>();
+        for (Movie movie : movies) {
+            MovieAssetsDto assets = new MovieAssetsDto();
+            assets.setAudioEsUrl(signed.get(movie.getAudioUrlEs()));
+            assets.setAudioEnUrl(signed.get(movie.getAudioUrlEn()));
+            assets.setSubtitlesEsUrl(signed.get(movie.getSubTitlesSpanish()));
+            assets.setSubtitlesEnUrl(signed.get(movie.getSubTitlesEnglish()));
+            assets.setImageBannerUrl(signed.get(movie.getImageBanner()));
+            assets.setThumbnailsUrl(thumbnailsLink(movie));
+
+            Map<String, String> playbackUrls = new LinkedHashMap<>();
+            videoKeys(movie).forEach((quality, key) -> playbackUrls.put(quality, key.endsWith(".m3u8")
+                    ? link("/play/{id}/hls/{quality}/index.m3u8", movie.getIdMovie(), quality)
+                    : signed.get(key)));
+
+            manifest.add(MovieManifestDto.builder()
+                    .idMovie(movie.getIdMovie())
+                    .title(movie.getTitle())
+                    .seasonNumber(movie.getSeasonNumber())
+                    .episodeNumber(movie.getEpisodeNumber())
+                    .assets(assets)
+                    .hlsMasterUrl(movie.getHlsMasterUrl() == null ? null
+                            : link("/play/{id}/hls/master.m3u8", movie.getIdMovie()))
+                    .playbackUrls(playbackUrls)
+                    .build());
+        }
+
+        return ResponseEntity.ok(manifest);
+    }
     //list all episodes of x series to list
     @Operation(
             summary = "List all episodes of a series grouped by season",
@@ -442,28 +863,23 @@ public class MovieController {
     )
     @GetMapping("/series/{title}/episodes-all")
     public ResponseEntity<?> getAllEpisodesGroupedBySeason(@PathVariable("title")  String title) {
-        List<Movie> episodes = movieServicePort.getEpisodesBySeriesTitle(title);
+        Map<Integer, List<Movie>> seasons = movieServicePort.getEpisodesGroupedBySeason(title);
 
-        if (episodes == null || episodes.isEmpty()) {
+        if (seasons.isEmpty()) {
             throw new NoResultsFoundException("No episodes were found for the indicated series.");
         }
 
         Duration duration = Duration.ofMinutes(60);
 
-        // Group by season number and map DATA to signed URLs
-        Map<Integer, List<MovieDto>> grouped = episodes.stream()
-                .collect(Collectors.groupingBy(
-                        Movie::getSeasonNumber,
-                        TreeMap::new,
-                        Collectors.mapping(
-                                movie -> {
-                                    MovieDto dto = movieRestMapper.toDto(movie);
-                                    dto.setImageBanner(fileStoragePort.generatePresignedDownloadUrl(bucket, movie.getImageBanner(), duration));
-                                    return dto;
-                                },
-                                Collectors.toList()
-                        )
-                ));
+        // Seasons and episodes come already ordered; only map DATA to signed URLs
+        Map<Integer, List<MovieDto>> grouped = new TreeMap<>();
+        seasons.forEach((season, episodes) -> grouped.put(season, episodes.stream()
+                .map(movie -> {
+                    MovieDto dto = movieRestMapper.toDto(movie);
+                    dto.setImageBanner(fileStoragePort.generatePresignedDownloadUrl(bucket, movie.getImageBanner(), duration));
+                    return dto;
+                })
+                .toList()));
 
         return ResponseEntity.ok(grouped);
     }
@@ -476,7 +892,8 @@ public class MovieController {
     //Upload movie or episode (with video, audio, subtitles and image)
     @Operation(
             summary = "Upload a new movie or episode with media files",
-            description = "Allows an admin to upload a movie or episode with its associated media files asynchronously. Returns immediately the movie metadata with status 202.",
+            description = "Allows an admin to upload a movie or episode with its associated media files. The files are queued in a durable ingest job "
+                    + "and processed in the background; the progress can be followed at /{id}/ingest. Returns immediately the movie metadata with status 202.",
             tags = {"Admin"},
             responses = {
                     @ApiResponse(responseCode = "202", description = "Movie/episode upload accepted for processing",
@@ -557,36 +974,199 @@ public class MovieController {
             Movie saved = movieServicePort.save(movie);
 
 
-            Path tempDir = Files.createTempDirectory("upload_temp_" + UUID.randomUUID());
+            IngestWorkspace workspace = ingestJobServicePort.createWorkspace(saved.getIdMovie());
 
-            Path videoPath = tempDir.resolve("video.mp4");
-            file.transferTo(videoPath.toFile());
+            //Parts are spooled on the ingest volume: transferTo(File) goes through Part.write, which renames
+            //the spooled file into the workspace (transferTo(Path) would copy every byte through a stream)
+            try {
+                file.transferTo(workspace.video().toFile());
+                audioEn.transferTo(workspace.audioEn().toFile());
+                audioEs.transferTo(workspace.audioEs().toFile());
+                subsEn.transferTo(workspace.subsEn().toFile());
+                subsEs.transferTo(workspace.subsEs().toFile());
+                image.transferTo(workspace.banner().toFile());
 
-            Path audioEnPath = tempDir.resolve("audio_en.m4a");
-            audioEn.transferTo(audioEnPath.toFile());
-
-            Path audioEsPath = tempDir.resolve("audio_es.m4a");
-            audioEs.transferTo(audioEsPath.toFile());
-
-            Path subsEnPath = tempDir.resolve("subs_en.vtt");
-            subsEn.transferTo(subsEnPath.toFile());
-
-            Path subsEsPath = tempDir.resolve("subs_es.vtt");
-            subsEs.transferTo(subsEsPath.toFile());
-
-            Path imagePath = tempDir.resolve("banner.jpg");
-            image.transferTo(imagePath.toFile());
-
-            //We call the asynchronous method passing the paths
-            uploadMoviePort.processAndUploadMovieAsync(
-                    videoPath, audioEnPath, audioEsPath, subsEnPath, subsEsPath, imagePath, saved
-            );
+                //We queue a durable ingest job; a worker picks it up and survives restarts
+                ingestJobServicePort.enqueue(saved.getIdMovie(), workspace);
+            } catch (Exception e) {
+                ingestJobServicePort.discardWorkspace(workspace);
+                throw e;
+            }
 
             //We return success without waiting for processing
             MovieDto responseDto = movieRestMapper.toDto(saved);
             return new ResponseEntity<>(responseDto, HttpStatus.ACCEPTED);
 
     }
+    //Open a direct-to-storage upload of a movie or episode
+    @Operation(
+            summary = "Start a direct upload of a movie or episode",
+            description = "Saves the movie metadata and returns pre-signed PUT URLs to upload each media file straight to storage, "
+                    + "instead of sending them through this service as in /create/s3. Send the size in bytes of the six files "
+                    + "(VIDEO, AUDIO_EN, AUDIO_ES, SUBS_EN, SUBS_ES, BANNER). Small files get a single URL; large ones are multipart "
+                    + "uploads: byte range [(n-1) * partSize, n * partSize) of the file is PUT to uploadUrls[n-1], parts in any order or "
+                    + "in parallel, and the ETag header of each response is kept for /create/upload-session/{id}/complete. "
+                    + "The URLs expire at expiresAt; browser uploads need the bucket CORS rules to expose the ETag header.",
+            tags = {"Admin"},
+            responses = {
+                    @ApiResponse(
+                            responseCode = "201",
+                            description = "Upload session opened",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = UploadSessionDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Missing movie data or file sizes, or a file larger than allowed",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(example = "{ \"error\": \"All media files are required: missing the size of SUBS_EN\" }")
+                            )
+                    ),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized - admin role required"),
+                    @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions")
+            }
+    )
+    @PostMapping("/create/upload-session")
+    @PreAuthorize("hasRole('admin_client_role')")
+    public ResponseEntity<UploadSessionDto> openUploadSession(@RequestBody UploadSessionRequestDto request) {
+        if (request.getMovie() == null) {
+            throw new IllegalArgumentException("The movie data is required");
+        }
+        Movie movie = movieRestMapper.toDomain(request.getMovie());
+        UploadSession session = uploadSessionServicePort.open(movie, request.getFileSizes());
+        return new ResponseEntity<>(uploadSessionRestMapper.toDto(session), HttpStatus.CREATED);
+    }
+    //Complete a direct upload and queue its processing
+    @Operation(
+            summary = "Complete a direct upload",
+            description = "Call once every file of the session has been uploaded. Completes the multipart uploads with the ETags "
+                    + "of their parts, checks that each file is stored with the declared size and queues the ingest job, which reads "
+                    + "the files from storage. Returns the movie metadata with status 202; the progress can be followed at /{id}/ingest.",
+            tags = {"Admin"},
+            responses = {
+                    @ApiResponse(
+                            responseCode = "202",
+                            description = "Upload completed and accepted for processing",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = MovieDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Missing part ETags, a file not uploaded or of another size, or a session no longer open",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(example = "{ \"error\": \"VIDEO has 1048576 bytes, but 2147483648 were declared\" }")
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Upload session not found",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(example = "{ \"error\": \"No upload session was found with the specified ID\" }")
+                            )
+                    )
+            }
+    )
+    @PostMapping("/create/upload-session/{id}/complete")
+    @PreAuthorize("hasRole('admin_client_role')")
+    public ResponseEntity<MovieDto> completeUploadSession(@PathVariable("id") String id,
+                                                          @RequestBody(required = false) UploadSessionCompleteDto request) throws IOException {
+        Movie movie = uploadSessionServicePort.complete(id, request == null ? null : request.getPartETags());
+        return new ResponseEntity<>(movieRestMapper.toDto(movie), HttpStatus.ACCEPTED);
+    }
+    //Cancel a direct upload
+    @Operation(
+            summary = "Cancel a direct upload",
+            description = "Aborts the multipart uploads of an open session and deletes the files already uploaded. "
+                    + "The movie metadata is kept. Sessions neither completed nor cancelled are released when they expire.",
+            tags = {"Admin"},
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Upload session cancelled"),
+                    @ApiResponse(responseCode = "400", description = "The session is no longer open"),
+                    @ApiResponse(responseCode = "404", description = "Upload session not found")
+            }
+    )
+    @DeleteMapping("/create/upload-session/{id}")
+    @PreAuthorize("hasRole('admin_client_role')")
+    public ResponseEntity<Void> abortUploadSession(@PathVariable("id") String id) {
+        uploadSessionServicePort.abort(id);
+        return ResponseEntity.noContent().build();
+    }
+    //Ingest status of an uploaded movie or episode
+    @Operation(
+            summary = "Get ingest status",
+            description = "Returns the latest ingest job of a movie or episode: its state (QUEUED, FETCHING, TRANSCODING, UPLOADING, DONE, FAILED; FETCHING only for direct uploads), "
+                    + "the last completed stage, the number of attempts and the last error. While a job encodes, progressPercent, "
+                    + "encodeFps and encodeSpeed (1.0 = real time) report the FFmpeg progress, refreshed every few seconds; "
+                    + "stageStartedAt tells when the running stage began.",
+            tags = {"Admin"},
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Ingest job found",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = IngestJobDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "No ingest job exists for the movie",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(example = "{ \"error\": \"No ingest job was found for the specified movie\" }")
+                            )
+                    )
+            }
+    )
+    @GetMapping("/{id}/ingest")
+    @PreAuthorize("hasRole('admin_client_role')")
+    public ResponseEntity<IngestJobDto> getIngestStatus(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(ingestJobRestMapper.toDto(ingestJobServicePort.getLatestJob(id)));
+    }
+    //Retry a failed ingest from its last completed stage
+    @Operation(
+            summary = "Retry a failed ingest",
+            description = "Queues the latest failed ingest job of a movie or episode again. Stages already completed are not repeated.",
+            tags = {"Admin"},
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Ingest job queued again",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = IngestJobDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "The latest ingest job has not failed",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(example = "{ \"error\": \"Only failed ingest jobs can be retried.\" }")
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "No ingest job exists for the movie",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(example = "{ \"error\": \"No ingest job was found for the specified movie\" }")
+                            )
+                    )
+            }
+    )
+    @PostMapping("/{id}/ingest/retry")
+    @PreAuthorize("hasRole('admin_client_role')")
+    public ResponseEntity<IngestJobDto> retryIngest(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(ingestJobRestMapper.toDto(ingestJobServicePort.retry(id)));
+    }
     //Update movie/episode
     @Operation(
             summary = "Update movie or episode",
@@ -772,6 +1352,32 @@ public class MovieController {
         return ResponseEntity.ok(Map.of("message", message));
     }
 
+    private Map<String, String> videoKeys(Movie movie) {
+        Map<String, String> keys = new LinkedHashMap<>();
+        if (movie.getVideoUrl480p() != null) {
+            keys.put("480p", movie.getVideoUrl480p());
+        }
+        if (movie.getVideoUrl720p() != null) {
+            keys.put("720p", movie.getVideoUrl720p());
+        }
+        if (movie.getVideoUrl1080p() != null) {
+            keys.put("1080p", movie.getVideoUrl1080p());
+        }
+        return keys;
+    }
+
+    // Absolute link to another endpoint of this service, honouring the gateway prefix
+    private String thumbnailsLink(Movie movie) {
+        return movie.getThumbnailTrackUrl() == null ? null : link("/play/{id}/thumbnails.vtt", movie.getIdMovie());
+    }
+
+    private String link(String path, Object... variables) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path(path)
+                .buildAndExpand(variables)
+                .toUriString();
+    }
+
     private MovieDto mapToDtoWithSignedBanner(Movie movie) {
         MovieDto dto = movieRestMapper.toDto(movie);
 
@@ -785,11 +1391,5 @@ public class MovieController {
         }
         return dto;
     }
-    private String normalizeTitle(String title) {
-        return title
-                .replaceAll("(?i)season\\s*\\d+", "")     // Delete 'season X'
-                .replaceAll("\\s+", "")                  // Delete all  spaces
-                .toLowerCase();
-    }
 
 }
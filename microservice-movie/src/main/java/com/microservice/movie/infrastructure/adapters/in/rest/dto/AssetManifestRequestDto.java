@@ -0,0 +1,17 @@
+package com.microservice.movie.infrastructure.adapters.in.rest.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AssetManifestRequestDto {
+    // Either a list of movie or episode ids...
+    private List<Long> ids;
+    // ...or a whole season of a series
+    private String seriesTitle;
+    private Integer seasonNumber;
+}
@@ -0,0 +1,26 @@
+package com.microservice.movie.infrastructure.adapters.in.rest.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IngestJobDto {
+    private Long idJob;
+    private Long idMovie;
+    private String state;
+    private String completedStage;
+    private int attempts;
+    private int maxAttempts;
+    private String lastError;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime stageStartedAt;
+    private Double progressPercent;
+    private Double encodeFps;
+    private Double encodeSpeed;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
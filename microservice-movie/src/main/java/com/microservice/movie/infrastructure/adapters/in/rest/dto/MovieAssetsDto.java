@@ -12,4 +12,6 @@ public class MovieAssetsDto {
     private String subtitlesEsUrl;
     private String subtitlesEnUrl;
     private String imageBannerUrl;
+    // Link to the WebVTT seek-preview track, null when the title has none
+    private String thumbnailsUrl;
 }
\ No newline at end of file
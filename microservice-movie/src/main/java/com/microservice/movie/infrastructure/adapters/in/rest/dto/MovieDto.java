@@ -30,5 +30,8 @@ public class MovieDto {
     private Integer seasonNumber;
     private Integer episodeNumber;
     private String imageBanner;
+    private String hlsMasterUrl;
+    private String dashManifestUrl;
+    private String thumbnailTrackUrl;
     private Boolean estate;
 }
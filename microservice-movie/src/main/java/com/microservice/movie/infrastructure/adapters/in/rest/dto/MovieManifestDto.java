@@ -0,0 +1,20 @@
+package com.microservice.movie.infrastructure.adapters.in.rest.dto;
+
+import lombok.*;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovieManifestDto {
+    private Long idMovie;
+    private String title;
+    private Integer seasonNumber;
+    private Integer episodeNumber;
+    private MovieAssetsDto assets;
+    private String hlsMasterUrl;
+    // quality -> playback URL, as returned by /play/{id}/{quality}
+    private Map<String, String> playbackUrls;
+}
@@ -0,0 +1,16 @@
+package com.microservice.movie.infrastructure.adapters.in.rest.dto;
+
+import com.microservice.movie.domain.model.AssetRole;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionCompleteDto {
+    // ETag response header of every part PUT of each multipart file, in part order
+    private Map<AssetRole, List<String>> partETags;
+}
@@ -0,0 +1,18 @@
+package com.microservice.movie.infrastructure.adapters.in.rest.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionDto {
+    private String idSession;
+    private Long idMovie;
+    private String state;
+    private LocalDateTime expiresAt;
+    private List<UploadSessionFileDto> files;
+}
@@ -0,0 +1,20 @@
+package com.microservice.movie.infrastructure.adapters.in.rest.dto;
+
+import com.microservice.movie.domain.model.AssetRole;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionFileDto {
+    private AssetRole role;
+    private Long sizeBytes;
+    private boolean multipart;
+    // Multipart files only: bytes [(n-1) * partSize, n * partSize) go to uploadUrls[n-1]
+    private Long partSize;
+    private Integer partCount;
+    private List<String> uploadUrls;
+}
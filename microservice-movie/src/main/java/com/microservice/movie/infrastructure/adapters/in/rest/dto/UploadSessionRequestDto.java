@@ -0,0 +1,16 @@
+package com.microservice.movie.infrastructure.adapters.in.rest.dto;
+
+import com.microservice.movie.domain.model.AssetRole;
+import lombok.*;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionRequestDto {
+    private MovieDto movie;
+    // Size in bytes of every source file: VIDEO, AUDIO_EN, AUDIO_ES, SUBS_EN, SUBS_ES and BANNER
+    private Map<AssetRole, Long> fileSizes;
+}
@@ -1,5 +1,9 @@
 package com.microservice.movie.infrastructure.adapters.in.rest.exception;
 
+import com.microservice.movie.domain.exceptions.IngestJobNotFoundException;
+import com.microservice.movie.domain.exceptions.MovieNotFoundException;
+import com.microservice.movie.domain.exceptions.StreamingUnavailableException;
+import com.microservice.movie.domain.exceptions.UploadSessionNotFoundException;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +23,44 @@ public class GlobalExceptionHandler {
                 "message", ex.getMessage()
         ));
     }
+    @ExceptionHandler(MovieNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleMovieNotFound(MovieNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                "timestamp", LocalDateTime.now(),
+                "status", 404,
+                "error", "Resource not found",
+                "message", "Movie not found"
+        ));
+    }
+    @ExceptionHandler(IngestJobNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleIngestJobNotFound(IngestJobNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                "timestamp", LocalDateTime.now(),
+                "status", 404,
+                "error", "Resource not found",
+                "message", "No ingest job was found for the specified movie"
+        ));
+    }
+    @ExceptionHandler(UploadSessionNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleUploadSessionNotFound(UploadSessionNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                "timestamp", LocalDateTime.now(),
+                "status", 404,
+                "error", "Resource not found",
+                "message", "No upload session was found with the specified ID"
+        ));
+    }
+    @ExceptionHandler(StreamingUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleStreamingUnavailable(StreamingUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(Map.of(
+                        "timestamp", LocalDateTime.now(),
+                        "status", 503,
+                        "error", "Service unavailable",
+                        "message", "Too many streams are being read from storage; retry shortly"
+                ));
+    }
     @ExceptionHandler(AuthenticationException.class)
     public ResponseEntity<Map<String, Object>> handleAuthenticationException(AuthenticationException ex) {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
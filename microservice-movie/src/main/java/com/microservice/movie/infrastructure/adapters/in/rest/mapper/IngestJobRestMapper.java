@@ -0,0 +1,10 @@
+package com.microservice.movie.infrastructure.adapters.in.rest.mapper;
+
+import com.microservice.movie.domain.model.IngestJob;
+import com.microservice.movie.infrastructure.adapters.in.rest.dto.IngestJobDto;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface IngestJobRestMapper {
+    IngestJobDto toDto(IngestJob job);
+}
@@ -0,0 +1,13 @@
+package com.microservice.movie.infrastructure.adapters.in.rest.mapper;
+
+import com.microservice.movie.domain.model.UploadSession;
+import com.microservice.movie.domain.model.UploadSessionFile;
+import com.microservice.movie.infrastructure.adapters.in.rest.dto.UploadSessionDto;
+import com.microservice.movie.infrastructure.adapters.in.rest.dto.UploadSessionFileDto;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface UploadSessionRestMapper {
+    UploadSessionDto toDto(UploadSession session);
+    UploadSessionFileDto toDto(UploadSessionFile file);
+}
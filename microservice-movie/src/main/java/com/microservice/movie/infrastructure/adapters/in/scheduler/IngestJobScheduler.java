@@ -0,0 +1,54 @@
+package com.microservice.movie.infrastructure.adapters.in.scheduler;
+
+import com.microservice.movie.application.ports.in.IngestJobServicePort;
+import com.microservice.movie.application.ports.in.UploadSessionServicePort;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class IngestJobScheduler {
+
+    private final IngestJobServicePort ingestJobServicePort;
+    private final UploadSessionServicePort uploadSessionServicePort;
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    @Scheduled(fixedDelayString = "${ingest.poll-interval-ms:5000}")
+    public void dispatch() {
+        try {
+            ingestJobServicePort.dispatchPendingJobs();
+        } catch (Exception e) {
+            logger.error("Error dispatching ingest jobs", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ingest.purge-interval-ms:3600000}")
+    public void purgeWorkspaces() {
+        try {
+            ingestJobServicePort.purgeExpiredWorkspaces();
+        } catch (Exception e) {
+            logger.error("Error purging ingest workspaces", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ingest.lease-renewal-ms:30000}")
+    public void renewLeases() {
+        try {
+            ingestJobServicePort.renewLeases();
+        } catch (Exception e) {
+            logger.error("Error renewing ingest job leases", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${upload-session.expiry-check-ms:600000}")
+    public void expireUploadSessions() {
+        try {
+            uploadSessionServicePort.expireSessions();
+        } catch (Exception e) {
+            logger.error("Error expiring upload sessions", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.microservice.movie.infrastructure.adapters.in.scheduler;
+
+import com.microservice.movie.application.ports.in.MovieServicePort;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class MediaAssetScheduler {
+
+    private final MovieServicePort movieServicePort;
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    @Scheduled(fixedDelayString = "${storage.gc.interval-ms:600000}")
+    public void collectUnreferencedAssets() {
+        try {
+            movieServicePort.collectUnreferencedAssets();
+        } catch (Exception e) {
+            logger.error("Error deleting unreferenced assets", e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.microservice.movie.infrastructure.adapters.out.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservice.movie.application.ports.out.CatalogCachePort;
+import com.microservice.movie.domain.model.MovieChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of catalog listings (category pages, search results).
+ * <p>
+ * The catalog only changes through admin writes, each of which publishes a
+ * {@link MovieChangedEvent}; any change drops every cached read. Entries are keyed by a
+ * generation that moves on each change, so a read that started before a write and finishes
+ * after it is stored under a generation nobody asks for any more. {@code catalog.cache.ttl-seconds}
+ * only bounds staleness should a change from another instance be missed.
+ */
+@Component
+public class CaffeineCatalogCacheAdapter implements CatalogCachePort {
+
+    private final Cache<Entry, Object> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+
+    public CaffeineCatalogCacheAdapter(MeterRegistry meterRegistry,
+                                       @Value("${catalog.cache.max-entries:10000}") long maxEntries,
+                                       @Value("${catalog.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.hits = Counter.builder("movie.catalog.cache.requests")
+                .tag("result", "hit")
+                .description("Catalog reads served from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("movie.catalog.cache.requests")
+                .tag("result", "miss")
+                .description("Catalog reads that had to query the catalog")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("movie.catalog.cache.invalidations")
+                .description("Catalog changes that emptied the cache")
+                .register(meterRegistry);
+        Gauge.builder("movie.catalog.cache.size", cache, Cache::estimatedSize)
+                .description("Catalog reads currently cached")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Supplier<T> loader) {
+        boolean[] loaded = {false};
+        Object value = cache.get(new Entry(generation.get(), key), k -> {
+            loaded[0] = true;
+            return loader.get();
+        });
+        (loaded[0] ? misses : hits).increment();
+        return (T) value;
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+        invalidations.increment();
+    }
+
+    private record Entry(long generation, Object key) {
+    }
+}
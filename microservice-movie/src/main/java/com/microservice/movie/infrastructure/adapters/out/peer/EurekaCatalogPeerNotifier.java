@@ -0,0 +1,120 @@
+package com.microservice.movie.infrastructure.adapters.out.peer;
+
+import com.microservice.movie.domain.model.MovieChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Forwards catalog changes made on this instance to the other instances of the service
+ * registered in Eureka, so that their search index, series listings and catalog cache follow
+ * writes they did not see.
+ * <p>
+ * Only the id travels; the receiver reloads the movie from the shared database. Notifications
+ * are sent after the write returns, from one background thread, and a peer that cannot be
+ * reached is skipped; its cache catches up within {@code catalog.cache.ttl-seconds}.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.peers.enabled", havingValue = "true")
+public class EurekaCatalogPeerNotifier {
+
+    private static final String TOKEN_HEADER = "X-Catalog-Peer-Token";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final DiscoveryClient discoveryClient;
+    private final ObjectProvider<Registration> registration;
+    private final String serviceId;
+    private final String token;
+    private final RestClient restClient;
+    private final ExecutorService sender = Executors.newSingleThreadExecutor();
+
+    private final Counter sent;
+    private final Counter failed;
+
+    public EurekaCatalogPeerNotifier(DiscoveryClient discoveryClient,
+                                     ObjectProvider<Registration> registration,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${spring.application.name}") String serviceId,
+                                     @Value("${catalog.peers.token:}") String token,
+                                     @Value("${catalog.peers.timeout-ms:2000}") long timeoutMs) {
+        this.discoveryClient = discoveryClient;
+        this.registration = registration;
+        this.serviceId = serviceId;
+        this.token = token;
+        Duration timeout = Duration.ofMillis(timeoutMs);
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(
+                HttpClient.newBuilder().connectTimeout(timeout).build());
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+        if (token.isBlank()) {
+            logger.warn("catalog.peers.token is empty: peers will reject catalog change notifications");
+        }
+
+        this.sent = notificationCounter(meterRegistry, "sent");
+        this.failed = notificationCounter(meterRegistry, "failed");
+    }
+
+    private static Counter notificationCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("movie.catalog.peer.notifications")
+                .description("Catalog changes forwarded to other instances")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (event.isFromPeer()) {
+            return;
+        }
+        Long idMovie = event.getIdMovie();
+        sender.execute(() -> notifyPeers(idMovie));
+    }
+
+    private void notifyPeers(Long idMovie) {
+        for (ServiceInstance peer : peers()) {
+            try {
+                restClient.post()
+                        .uri(peer.getUri() + "/internal/catalog/changed/{id}", idMovie)
+                        .header(TOKEN_HEADER, token)
+                        .retrieve()
+                        .toBodilessEntity();
+                sent.increment();
+            } catch (RuntimeException e) {
+                failed.increment();
+                logger.warn("Could not notify {} of the change of movie {}", peer.getUri(), idMovie, e);
+            }
+        }
+    }
+
+    private List<ServiceInstance> peers() {
+        Registration self = registration.getIfAvailable();
+        String selfId = self == null ? null : self.getInstanceId();
+        return discoveryClient.getInstances(serviceId).stream()
+                .filter(instance -> selfId == null || !selfId.equals(instance.getInstanceId()))
+                .toList();
+    }
+
+    @PreDestroy
+    void stop() {
+        sender.shutdown();
+    }
+}
@@ -0,0 +1,64 @@
+package com.microservice.movie.infrastructure.adapters.out.persistence.entity;
+
+import com.microservice.movie.domain.model.IngestStage;
+import com.microservice.movie.domain.model.IngestState;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "ingest_job")
+public class IngestJobEntity {
+    @Id
+    @Column(name = "id_job")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long idJob;
+    @Column(name = "id_movie")
+    private Long idMovie;
+
+    @Enumerated(EnumType.STRING)
+    private IngestState state;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "completed_stage")
+    private IngestStage completedStage;
+
+    @Column(name = "work_dir")
+    private String workDir;
+    @Column(name = "source_prefix")
+    private String sourcePrefix;
+    @Column(name = "work_node")
+    private String workNode;
+    private int attempts;
+    @Column(name = "max_attempts")
+    private int maxAttempts;
+    @Column(name = "last_error")
+    private String lastError;
+
+    private String owner;
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "stage_started_at")
+    private LocalDateTime stageStartedAt;
+    @Column(name = "progress_percent")
+    private Double progressPercent;
+    @Column(name = "encode_fps")
+    private Double encodeFps;
+    @Column(name = "encode_speed")
+    private Double encodeSpeed;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
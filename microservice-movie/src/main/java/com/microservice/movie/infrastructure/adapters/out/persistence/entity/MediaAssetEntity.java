@@ -0,0 +1,42 @@
+package com.microservice.movie.infrastructure.adapters.out.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "media_asset")
+public class MediaAssetEntity {
+    @Id
+    @Column(name = "content_hash")
+    private String contentHash;
+    @Column(name = "object_key")
+    private String objectKey;
+    @Column(name = "size_bytes")
+    private long sizeBytes;
+
+    // Comma separated qualities of an encoded ladder
+    private String renditions;
+    @Column(name = "dash_packaged")
+    private boolean dashPackaged;
+    @Column(name = "thumbnails_generated")
+    private boolean thumbnailsGenerated;
+
+    @Column(name = "ref_count")
+    private int refCount;
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    // When the count last dropped; a sweep deletes assets left at zero for the grace period
+    @Column(name = "released_at")
+    private LocalDateTime releasedAt;
+    // Claimed by the sweep: its objects are being deleted and it can no longer be referenced
+    private boolean deleting;
+}
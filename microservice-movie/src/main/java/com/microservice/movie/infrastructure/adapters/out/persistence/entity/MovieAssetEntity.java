@@ -0,0 +1,27 @@
+package com.microservice.movie.infrastructure.adapters.out.persistence.entity;
+
+import com.microservice.movie.domain.model.AssetRole;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@IdClass(MovieAssetId.class)
+@Table(name = "movie_asset")
+public class MovieAssetEntity {
+    @Id
+    @Column(name = "id_movie")
+    private Long idMovie;
+    @Id
+    @Enumerated(EnumType.STRING)
+    private AssetRole role;
+
+    @Column(name = "content_hash")
+    private String contentHash;
+}
@@ -0,0 +1,18 @@
+package com.microservice.movie.infrastructure.adapters.out.persistence.entity;
+
+import com.microservice.movie.domain.model.AssetRole;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+public class MovieAssetId implements Serializable {
+    private Long idMovie;
+    private AssetRole role;
+}
@@ -53,6 +53,25 @@ public class MovieEntity {
     private Integer episodeNumber;
     @Column(name = "image_banner")
     private String imageBanner;
+    @Column(name = "hls_master_url")
+    private String hlsMasterUrl;
+    @Column(name = "dash_manifest_url")
+    private String dashManifestUrl;
+    @Column(name = "thumbnail_track_url")
+    private String thumbnailTrackUrl;
 
     private Boolean estate;
+
+    // Episodes of one series share this key; kept in sync with the title on every write
+    @Column(name = "series_key")
+    private String seriesKey;
+
+    @PrePersist
+    @PreUpdate
+    void updateSeriesKey() {
+        seriesKey = title == null ? null : title
+                .replaceAll("(?i)season\\s*\\d+", "")     // Delete 'season X'
+                .replaceAll("\\s+", "")                  // Delete all  spaces
+                .toLowerCase();
+    }
 }
@@ -0,0 +1,42 @@
+package com.microservice.movie.infrastructure.adapters.out.persistence.entity;
+
+import com.microservice.movie.domain.model.UploadSessionState;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "upload_session")
+public class UploadSessionEntity {
+    @Id
+    @Column(name = "id_session")
+    private String idSession;
+    @Column(name = "id_movie")
+    private Long idMovie;
+
+    @Enumerated(EnumType.STRING)
+    private UploadSessionState state;
+    @Column(name = "staging_prefix")
+    private String stagingPrefix;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "upload_session_file", joinColumns = @JoinColumn(name = "id_session"))
+    private List<UploadSessionFileEntity> files = new ArrayList<>();
+}
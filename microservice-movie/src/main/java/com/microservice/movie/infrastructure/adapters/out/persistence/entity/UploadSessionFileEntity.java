@@ -0,0 +1,29 @@
+package com.microservice.movie.infrastructure.adapters.out.persistence.entity;
+
+import com.microservice.movie.domain.model.AssetRole;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Embeddable
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UploadSessionFileEntity {
+    @Enumerated(EnumType.STRING)
+    private AssetRole role;
+    @Column(name = "object_key")
+    private String objectKey;
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
+    @Column(name = "upload_id")
+    private String uploadId;
+    @Column(name = "part_size")
+    private Long partSize;
+    @Column(name = "part_count")
+    private Integer partCount;
+}
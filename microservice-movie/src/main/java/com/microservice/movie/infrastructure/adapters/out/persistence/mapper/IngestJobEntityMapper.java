@@ -0,0 +1,11 @@
+package com.microservice.movie.infrastructure.adapters.out.persistence.mapper;
+
+import com.microservice.movie.domain.model.IngestJob;
+import com.microservice.movie.infrastructure.adapters.out.persistence.entity.IngestJobEntity;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface IngestJobEntityMapper {
+    IngestJob toDomain(IngestJobEntity entity);
+    IngestJobEntity toEntity(IngestJob job);
+}
@@ -0,0 +1,22 @@
+package com.microservice.movie.infrastructure.adapters.out.persistence.mapper;
+
+import com.microservice.movie.domain.model.MediaAsset;
+import com.microservice.movie.infrastructure.adapters.out.persistence.entity.MediaAssetEntity;
+import org.mapstruct.Mapper;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface MediaAssetEntityMapper {
+    MediaAsset toDomain(MediaAssetEntity entity);
+    MediaAssetEntity toEntity(MediaAsset asset);
+
+    default List<String> toRenditions(String renditions) {
+        return renditions == null || renditions.isBlank() ? null : Arrays.asList(renditions.split(","));
+    }
+
+    default String fromRenditions(List<String> renditions) {
+        return renditions == null || renditions.isEmpty() ? null : String.join(",", renditions);
+    }
+}
@@ -0,0 +1,18 @@
+package com.microservice.movie.infrastructure.adapters.out.persistence.mapper;
+
+import com.microservice.movie.domain.model.UploadSession;
+import com.microservice.movie.domain.model.UploadSessionFile;
+import com.microservice.movie.infrastructure.adapters.out.persistence.entity.UploadSessionEntity;
+import com.microservice.movie.infrastructure.adapters.out.persistence.entity.UploadSessionFileEntity;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface UploadSessionEntityMapper {
+    UploadSession toDomain(UploadSessionEntity entity);
+    UploadSessionEntity toEntity(UploadSession session);
+
+    @Mapping(target = "uploadUrls", ignore = true)
+    UploadSessionFile toDomain(UploadSessionFileEntity entity);
+    UploadSessionFileEntity toEntity(UploadSessionFile file);
+}
@@ -0,0 +1,91 @@
+package com.microservice.movie.infrastructure.adapters.out.persistence.repository;
+
+import com.microservice.movie.domain.model.IngestStage;
+import com.microservice.movie.domain.model.IngestState;
+import com.microservice.movie.infrastructure.adapters.out.persistence.entity.IngestJobEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface IngestJobJpaRepository extends JpaRepository<IngestJobEntity, Long> {
+    Optional<IngestJobEntity> findFirstByIdMovieOrderByIdJobDesc(Long idMovie);
+    List<IngestJobEntity> findByStateAndUpdatedAtBefore(IngestState state, LocalDateTime before);
+    boolean existsByWorkDir(String workDir);
+
+    // Pending jobs whose retry delay has passed, plus running jobs whose owner stopped renewing its lease.
+    // A job whose files are on the volume of one node is left to that node
+    @Query("""
+            SELECT j.idJob FROM IngestJobEntity j
+            WHERE j.state IN :states
+              AND (j.workNode IS NULL OR j.workNode = :node)
+              AND (j.leaseUntil IS NULL OR j.leaseUntil < :now)
+              AND (j.nextAttemptAt IS NULL OR j.nextAttemptAt <= :now)
+            ORDER BY j.idJob
+            """)
+    List<Long> findClaimableIds(@Param("states") Collection<IngestState> states,
+                                @Param("node") String node,
+                                @Param("now") LocalDateTime now,
+                                Pageable pageable);
+
+    // Conditional update: only one worker can win the lease of a given job
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE IngestJobEntity j
+            SET j.owner = :owner, j.leaseUntil = :leaseUntil, j.attempts = j.attempts + 1, j.updatedAt = :now
+            WHERE j.idJob = :idJob
+              AND j.state IN :states
+              AND (j.workNode IS NULL OR j.workNode = :node)
+              AND (j.leaseUntil IS NULL OR j.leaseUntil < :now)
+              AND (j.nextAttemptAt IS NULL OR j.nextAttemptAt <= :now)
+            """)
+    int claim(@Param("idJob") Long idJob,
+              @Param("states") Collection<IngestState> states,
+              @Param("node") String node,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Only touches the progress columns, so it never races with lease or state changes
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE IngestJobEntity j
+            SET j.progressPercent = :percent, j.encodeFps = :fps, j.encodeSpeed = :speed
+            WHERE j.idJob = :idJob AND j.owner = :owner
+            """)
+    int updateProgress(@Param("idJob") Long idJob,
+                       @Param("owner") String owner,
+                       @Param("percent") Double percent,
+                       @Param("fps") Double fps,
+                       @Param("speed") Double speed);
+
+    // Records a stage checkpoint without saving the row the worker thread still holds
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE IngestJobEntity j
+            SET j.state = :state, j.completedStage = :completedStage, j.stageStartedAt = :now, j.updatedAt = :now
+            WHERE j.idJob = :idJob AND j.owner = :owner
+            """)
+    int checkpoint(@Param("idJob") Long idJob,
+                   @Param("owner") String owner,
+                   @Param("state") IngestState state,
+                   @Param("completedStage") IngestStage completedStage,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE IngestJobEntity j SET j.leaseUntil = :leaseUntil WHERE j.owner = :owner AND j.idJob IN :ids")
+    int renewLeases(@Param("ids") Collection<Long> ids,
+                    @Param("owner") String owner,
+                    @Param("leaseUntil") LocalDateTime leaseUntil);
+}
@@ -0,0 +1,87 @@
+package com.microservice.movie.infrastructure.adapters.out.persistence.repository;
+
+import com.microservice.movie.application.ports.out.IngestJobPersistencePort;
+import com.microservice.movie.domain.model.IngestJob;
+import com.microservice.movie.domain.model.IngestStage;
+import com.microservice.movie.domain.model.IngestState;
+import com.microservice.movie.infrastructure.adapters.out.persistence.entity.IngestJobEntity;
+import com.microservice.movie.infrastructure.adapters.out.persistence.mapper.IngestJobEntityMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+@RequiredArgsConstructor
+public class IngestJobPersistenceAdapter implements IngestJobPersistencePort {
+
+    private static final Set<IngestState> CLAIMABLE_STATES =
+            EnumSet.of(IngestState.QUEUED, IngestState.FETCHING, IngestState.TRANSCODING, IngestState.UPLOADING);
+
+    private final IngestJobJpaRepository ingestJobJpaRepository;
+    private final IngestJobEntityMapper ingestJobEntityMapper;
+
+    @Override
+    public IngestJob save(IngestJob job) {
+        IngestJobEntity saved = ingestJobJpaRepository.save(ingestJobEntityMapper.toEntity(job));
+        return ingestJobEntityMapper.toDomain(saved);
+    }
+
+    @Override
+    public Optional<IngestJob> findById(Long idJob) {
+        return ingestJobJpaRepository.findById(idJob)
+                .map(ingestJobEntityMapper::toDomain);
+    }
+
+    @Override
+    public Optional<IngestJob> findLatestByMovie(Long idMovie) {
+        return ingestJobJpaRepository.findFirstByIdMovieOrderByIdJobDesc(idMovie)
+                .map(ingestJobEntityMapper::toDomain);
+    }
+
+    @Override
+    public List<Long> findClaimable(String node, LocalDateTime now, int limit) {
+        return ingestJobJpaRepository.findClaimableIds(CLAIMABLE_STATES, node, now, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public boolean claim(Long idJob, String node, String owner, LocalDateTime now, LocalDateTime leaseUntil) {
+        return ingestJobJpaRepository.claim(idJob, CLAIMABLE_STATES, node, owner, now, leaseUntil) == 1;
+    }
+
+    @Override
+    public void updateProgress(Long idJob, String owner, Double percent, Double fps, Double speed) {
+        ingestJobJpaRepository.updateProgress(idJob, owner, percent, fps, speed);
+    }
+
+    @Override
+    public void checkpoint(Long idJob, String owner, IngestState state, IngestStage completedStage, LocalDateTime now) {
+        ingestJobJpaRepository.checkpoint(idJob, owner, state, completedStage, now);
+    }
+
+    @Override
+    public void renewLeases(Collection<Long> idJobs, String owner, LocalDateTime leaseUntil) {
+        if (!idJobs.isEmpty()) {
+            ingestJobJpaRepository.renewLeases(idJobs, owner, leaseUntil);
+        }
+    }
+
+    @Override
+    public List<IngestJob> findFailedUpdatedBefore(LocalDateTime before) {
+        return ingestJobJpaRepository.findByStateAndUpdatedAtBefore(IngestState.FAILED, before)
+                .stream()
+                .map(ingestJobEntityMapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    public boolean existsByWorkDir(String workDir) {
+        return ingestJobJpaRepository.existsByWorkDir(workDir);
+    }
+}
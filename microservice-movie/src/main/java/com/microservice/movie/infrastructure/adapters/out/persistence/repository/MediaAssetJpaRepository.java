@@ -0,0 +1,53 @@
+package com.microservice.movie.infrastructure.adapters.out.persistence.repository;
+
+import com.microservice.movie.infrastructure.adapters.out.persistence.entity.MediaAssetEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MediaAssetJpaRepository extends JpaRepository<MediaAssetEntity, String> {
+
+    // Atomic: a row being deleted is not resurrected, the caller stores the content again instead
+    @Modifying
+    @Query("UPDATE MediaAssetEntity a SET a.refCount = a.refCount + 1 WHERE a.contentHash = :hash AND a.deleting = false")
+    int incrementRefCount(@Param("hash") String contentHash);
+
+    @Modifying
+    @Query("UPDATE MediaAssetEntity a SET a.refCount = a.refCount - 1, a.releasedAt = :now WHERE a.contentHash = :hash")
+    int decrementRefCount(@Param("hash") String contentHash, @Param("now") LocalDateTime now);
+
+    // Tombstones left by an interrupted sweep come back too, so their objects are deleted again
+    @Query("SELECT a FROM MediaAssetEntity a WHERE a.refCount <= 0 AND a.releasedAt < :before ORDER BY a.releasedAt")
+    List<MediaAssetEntity> findUnreferenced(@Param("before") LocalDateTime before, Pageable pageable);
+
+    // Serialized with incrementRefCount and insertOrIncrement by the row lock: only one of them wins
+    @Modifying
+    @Query("UPDATE MediaAssetEntity a SET a.deleting = true WHERE a.contentHash = :hash AND a.refCount <= 0")
+    int markDeleting(@Param("hash") String contentHash);
+
+    @Modifying
+    @Query("DELETE FROM MediaAssetEntity a WHERE a.contentHash = :hash AND a.deleting = true")
+    int deleteTombstone(@Param("hash") String contentHash);
+
+    // Two jobs may store the same content at the same time; the second one only adds its reference.
+    // A tombstone is left as it is, the caller finds it deleting and fails
+    @Modifying
+    @Query(value = """
+            INSERT INTO media_asset (content_hash, object_key, size_bytes, renditions, dash_packaged,
+                                     thumbnails_generated, ref_count, created_at)
+            VALUES (:hash, :objectKey, :sizeBytes, :renditions, :dashPackaged, :thumbnailsGenerated, 1, :createdAt)
+            ON DUPLICATE KEY UPDATE ref_count = IF(deleting, ref_count, ref_count + 1)
+            """, nativeQuery = true)
+    void insertOrIncrement(@Param("hash") String contentHash,
+                           @Param("objectKey") String objectKey,
+                           @Param("sizeBytes") long sizeBytes,
+                           @Param("renditions") String renditions,
+                           @Param("dashPackaged") boolean dashPackaged,
+                           @Param("thumbnailsGenerated") boolean thumbnailsGenerated,
+                           @Param("createdAt") LocalDateTime createdAt);
+}
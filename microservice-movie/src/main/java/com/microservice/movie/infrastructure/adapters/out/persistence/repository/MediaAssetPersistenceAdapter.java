@@ -0,0 +1,97 @@
+package com.microservice.movie.infrastructure.adapters.out.persistence.repository;
+
+import com.microservice.movie.application.ports.out.MediaAssetPersistencePort;
+import com.microservice.movie.domain.model.AssetRole;
+import com.microservice.movie.domain.model.MediaAsset;
+import com.microservice.movie.infrastructure.adapters.out.persistence.entity.MediaAssetEntity;
+import com.microservice.movie.infrastructure.adapters.out.persistence.entity.MovieAssetEntity;
+import com.microservice.movie.infrastructure.adapters.out.persistence.entity.MovieAssetId;
+import com.microservice.movie.infrastructure.adapters.out.persistence.mapper.MediaAssetEntityMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reference counting of {@code media_asset} rows. The count of an asset always equals its
+ * {@code movie_asset} rows: both change in the same transaction, and a movie holds at most one
+ * reference per role, so retried ingest stages never count twice.
+ * <p>
+ * A row whose count drops to zero stays, so an ingest of the same content can still reference it.
+ * The sweep first marks it deleting, which no reference can get past, and only then deletes its
+ * objects: an object is never deleted while a title may point at it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MediaAssetPersistenceAdapter implements MediaAssetPersistencePort {
+
+    private final MediaAssetJpaRepository mediaAssetJpaRepository;
+    private final MovieAssetJpaRepository movieAssetJpaRepository;
+    private final MediaAssetEntityMapper mediaAssetEntityMapper;
+
+    @Override
+    @Transactional
+    public Optional<MediaAsset> acquire(Long idMovie, AssetRole role, String contentHash) {
+        Optional<MovieAssetEntity> reference = movieAssetJpaRepository.findById(new MovieAssetId(idMovie, role));
+        if (reference.isPresent()) {
+            return mediaAssetJpaRepository.findById(reference.get().getContentHash())
+                    .map(mediaAssetEntityMapper::toDomain);
+        }
+        if (mediaAssetJpaRepository.incrementRefCount(contentHash) == 0) {
+            return Optional.empty();
+        }
+        movieAssetJpaRepository.save(new MovieAssetEntity(idMovie, role, contentHash));
+        return mediaAssetJpaRepository.findById(contentHash)
+                .map(mediaAssetEntityMapper::toDomain);
+    }
+
+    @Override
+    @Transactional
+    public MediaAsset register(Long idMovie, AssetRole role, MediaAsset asset) {
+        mediaAssetJpaRepository.insertOrIncrement(asset.getContentHash(), asset.getObjectKey(), asset.getSizeBytes(),
+                mediaAssetEntityMapper.fromRenditions(asset.getRenditions()), asset.isDashPackaged(), asset.isThumbnailsGenerated(),
+                LocalDateTime.now());
+        MediaAssetEntity stored = mediaAssetJpaRepository.findById(asset.getContentHash()).orElseThrow();
+        if (stored.isDeleting()) {
+            // The sweep may delete what was just uploaded: the retried stage stores it again after the sweep
+            throw new IllegalStateException("Asset " + asset.getContentHash() + " is being deleted; store it again");
+        }
+        movieAssetJpaRepository.save(new MovieAssetEntity(idMovie, role, asset.getContentHash()));
+        return mediaAssetEntityMapper.toDomain(stored);
+    }
+
+    @Override
+    @Transactional
+    public void releaseAll(Long idMovie) {
+        List<MovieAssetEntity> references = movieAssetJpaRepository.findByIdMovie(idMovie);
+        movieAssetJpaRepository.deleteByIdMovie(idMovie);
+        LocalDateTime now = LocalDateTime.now();
+        for (MovieAssetEntity reference : references) {
+            mediaAssetJpaRepository.decrementRefCount(reference.getContentHash(), now);
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<MediaAsset> claimUnreferenced(LocalDateTime releasedBefore, int limit) {
+        List<MediaAsset> claimed = new ArrayList<>();
+        for (MediaAssetEntity asset : mediaAssetJpaRepository.findUnreferenced(releasedBefore, PageRequest.of(0, limit))) {
+            // Lost when an ingest referenced the asset again since it was read
+            if (asset.isDeleting() || mediaAssetJpaRepository.markDeleting(asset.getContentHash()) == 1) {
+                claimed.add(mediaAssetEntityMapper.toDomain(asset));
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    @Transactional
+    public void remove(String contentHash) {
+        mediaAssetJpaRepository.deleteTombstone(contentHash);
+    }
+}
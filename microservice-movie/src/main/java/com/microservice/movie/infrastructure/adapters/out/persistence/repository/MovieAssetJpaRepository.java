@@ -0,0 +1,18 @@
+package com.microservice.movie.infrastructure.adapters.out.persistence.repository;
+
+import com.microservice.movie.infrastructure.adapters.out.persistence.entity.MovieAssetEntity;
+import com.microservice.movie.infrastructure.adapters.out.persistence.entity.MovieAssetId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface MovieAssetJpaRepository extends JpaRepository<MovieAssetEntity, MovieAssetId> {
+    List<MovieAssetEntity> findByIdMovie(Long idMovie);
+
+    @Modifying
+    @Query("DELETE FROM MovieAssetEntity r WHERE r.idMovie = :idMovie")
+    int deleteByIdMovie(@Param("idMovie") Long idMovie);
+}
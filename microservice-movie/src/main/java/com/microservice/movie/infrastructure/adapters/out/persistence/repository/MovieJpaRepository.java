@@ -1,7 +1,10 @@
 package com.microservice.movie.infrastructure.adapters.out.persistence.repository;
 
 import com.microservice.movie.infrastructure.adapters.out.persistence.entity.MovieEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -9,7 +12,28 @@ import java.util.Optional;
 public interface MovieJpaRepository extends JpaRepository<MovieEntity, Long> {
     Optional<MovieEntity> findByCategory_IdCategory(Long idCategory);
     Optional<MovieEntity> findByTitle(String title);
-    List<MovieEntity> findByTitleContainingIgnoreCase(String title);
-    List<MovieEntity> findAllByTitle(String title);
+
+    @Query("SELECT m FROM MovieEntity m " +
+            "WHERE m.category.idCategory = :idCategory AND m.estate = true AND m.idMovie > :afterId " +
+            "ORDER BY m.idMovie")
+    List<MovieEntity> findActiveByCategoryAfter(@Param("idCategory") Long idCategory,
+                                                @Param("afterId") Long afterId,
+                                                Pageable pageable);
+
+    // One row per series: the active episode with no earlier (season, episode, id) in the same series
+    @Query("SELECT m FROM MovieEntity m " +
+            "WHERE m.category.idCategory = :idCategory AND m.estate = true AND m.seasonNumber IS NOT NULL " +
+            "AND m.idMovie > :afterId " +
+            "AND NOT EXISTS (SELECT o.idMovie FROM MovieEntity o " +
+            "    WHERE o.seriesKey = m.seriesKey AND o.category.idCategory = :idCategory " +
+            "    AND o.estate = true AND o.seasonNumber IS NOT NULL " +
+            "    AND (o.seasonNumber < m.seasonNumber " +
+            "        OR (o.seasonNumber = m.seasonNumber AND COALESCE(o.episodeNumber, 0) < COALESCE(m.episodeNumber, 0)) " +
+            "        OR (o.seasonNumber = m.seasonNumber AND COALESCE(o.episodeNumber, 0) = COALESCE(m.episodeNumber, 0) " +
+            "            AND o.idMovie < m.idMovie))) " +
+            "ORDER BY m.idMovie")
+    List<MovieEntity> findFirstActiveEpisodesAfter(@Param("idCategory") Long idCategory,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable pageable);
 
 }
@@ -5,8 +5,10 @@ import com.microservice.movie.domain.model.Movie;
 import com.microservice.movie.infrastructure.adapters.out.persistence.entity.MovieEntity;
 import com.microservice.movie.infrastructure.adapters.out.persistence.mapper.MovieEntityMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -14,6 +16,8 @@ import java.util.stream.Collectors;
 @Repository
 @RequiredArgsConstructor
 public class MoviePersistenceAdapter implements MoviePersistencePort {
+    private static final long SERIES_CATEGORY = 2L;
+
     private final MovieJpaRepository movieJpaRepository;
     private final MovieEntityMapper movieEntityMapper;
     @Override
@@ -30,6 +34,14 @@ public class MoviePersistenceAdapter implements MoviePersistencePort {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Movie> findAllById(Collection<Long> ids) {
+        return movieJpaRepository.findAllById(ids)
+                .stream()
+                .map(movieEntityMapper::toDomain)
+                .toList();
+    }
+
     @Override
     public Movie save(Movie movie) {
         MovieEntity entity = movieEntityMapper.toEntity(movie);
@@ -55,17 +67,13 @@ public class MoviePersistenceAdapter implements MoviePersistencePort {
     }
 
     @Override
-    public List<Movie> searchByTitle(String title) {
-        return movieJpaRepository.findByTitleContainingIgnoreCase(title).stream()
-                .map(movieEntityMapper::toDomain)
-                .filter(movie -> Boolean.TRUE.equals(movie.getEstate()))
-                .collect(Collectors.toList());
-    }
-
-    @Override
-    public List<Movie> findAllByTitle(String title) {
-        return movieJpaRepository.findAllByTitle(title)
-                .stream()
+    public List<Movie> findCatalogPage(Long idCategory, Long afterId, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        long after = afterId == null ? 0L : afterId;
+        List<MovieEntity> entities = idCategory == SERIES_CATEGORY
+                ? movieJpaRepository.findFirstActiveEpisodesAfter(idCategory, after, page)
+                : movieJpaRepository.findActiveByCategoryAfter(idCategory, after, page);
+        return entities.stream()
                 .map(movieEntityMapper::toDomain)
                 .toList();
     }
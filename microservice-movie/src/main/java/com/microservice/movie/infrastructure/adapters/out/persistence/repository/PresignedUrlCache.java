@@ -0,0 +1,105 @@
+package com.microservice.movie.infrastructure.adapters.out.persistence.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Reuses presigned download URLs across requests.
+ * <p>
+ * Requested durations are rounded up to whole minutes, and a URL is signed for that bucket plus
+ * {@code storage.presign-cache.reuse-window-seconds}. It is served from the cache only during that
+ * window, so every caller still gets a URL valid for at least the duration it asked for.
+ */
+@Component
+public class PresignedUrlCache {
+
+    // SigV4 presigned URLs cannot outlive seven days
+    private static final Duration MAX_LIFETIME = Duration.ofDays(7);
+    private static final Duration GRANULARITY = Duration.ofMinutes(1);
+
+    private final Duration reuseWindow;
+    private final Cache<CacheKey, SignedUrl> cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    public PresignedUrlCache(MeterRegistry meterRegistry,
+                             @Value("${storage.presign-cache.max-entries:50000}") long maxEntries,
+                             @Value("${storage.presign-cache.reuse-window-seconds:600}") long reuseWindowSeconds) {
+        this.reuseWindow = Duration.ofSeconds(Math.max(0, reuseWindowSeconds));
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<CacheKey, SignedUrl>() {
+                    @Override
+                    public long expireAfterCreate(CacheKey key, SignedUrl value, long currentTime) {
+                        return value.reusableFor().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(CacheKey key, SignedUrl value, long currentTime, long currentDuration) {
+                        return value.reusableFor().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(CacheKey key, SignedUrl value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.hits = Counter.builder("storage.presign.cache.requests")
+                .tag("result", "hit")
+                .description("Presigned URLs served from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("storage.presign.cache.requests")
+                .tag("result", "miss")
+                .description("Presigned URLs that had to be signed")
+                .register(meterRegistry);
+        Gauge.builder("storage.presign.cache.size", cache, Cache::estimatedSize)
+                .description("Presigned URLs currently cached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns a URL valid for at least {@code duration}, calling {@code signer} with the lifetime
+     * to sign for only when no reusable URL is cached.
+     */
+    public String get(String bucket, String key, Duration duration, Function<Duration, String> signer) {
+        Duration bucketed = roundUp(duration);
+        Duration reusableFor = min(reuseWindow, MAX_LIFETIME.minus(bucketed));
+        if (reusableFor.isZero() || reusableFor.isNegative()) {
+            misses.increment();
+            return signer.apply(duration);
+        }
+
+        boolean[] signed = {false};
+        SignedUrl url = cache.get(new CacheKey(bucket, key, bucketed), k -> {
+            signed[0] = true;
+            return new SignedUrl(signer.apply(bucketed.plus(reusableFor)), reusableFor);
+        });
+        (signed[0] ? misses : hits).increment();
+        return url.url();
+    }
+
+    private static Duration roundUp(Duration duration) {
+        long units = (duration.toMillis() + GRANULARITY.toMillis() - 1) / GRANULARITY.toMillis();
+        return GRANULARITY.multipliedBy(Math.max(1, units));
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private record CacheKey(String bucket, String key, Duration duration) {
+    }
+
+    private record SignedUrl(String url, Duration reusableFor) {
+    }
+}
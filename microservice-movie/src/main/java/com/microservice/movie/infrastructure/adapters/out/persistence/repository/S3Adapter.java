@@ -1,38 +1,123 @@
 package com.microservice.movie.infrastructure.adapters.out.persistence.repository;
 
 import com.microservice.movie.application.ports.out.FileStoragePort;
+import com.microservice.movie.application.ports.out.MediaCachePort;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
-import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Repository
 public class S3Adapter implements FileStoragePort {
 
+    // S3 rejects non-final multipart parts smaller than 5 MiB
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    // Most keys a single DeleteObjects request accepts
+    private static final int MAX_DELETE_BATCH = 1000;
+    // Downloads copy through one of these whatever the object size
+    private static final int TRANSFER_BUFFER_SIZE = 256 * 1024;
+    private static final int MAX_IDLE_TRANSFER_BUFFERS = 32;
+
     @Autowired
     private S3Client s3Client;
     @Autowired
     private S3Presigner s3Presigner;
+    @Autowired
+    private PresignedUrlCache presignedUrlCache;
+    @Autowired
+    private MediaCachePort mediaCachePort;
+
+    private final DirectBufferPool transferBuffers = new DirectBufferPool(TRANSFER_BUFFER_SIZE, MAX_IDLE_TRANSFER_BUFFERS);
+
+    @Value("${storage.upload.multipart-threshold-mb:64}")
+    private long multipartThresholdMb;
+    @Value("${storage.upload.part-size-mb:16}")
+    private long partSizeMb;
+    @Value("${storage.upload.part-concurrency:8}")
+    private int partConcurrency;
+    @Value("${storage.upload.file-concurrency:4}")
+    private int fileConcurrency;
+
+    // Separate pools: file tasks block on their part tasks, so they must never share threads
+    private ExecutorService fileExecutor;
+    private ExecutorService partExecutor;
+
+    @PostConstruct
+    void startExecutors() {
+        fileExecutor = Executors.newFixedThreadPool(Math.max(1, fileConcurrency));
+        partExecutor = Executors.newFixedThreadPool(Math.max(1, partConcurrency));
+    }
+
+    @PreDestroy
+    void stopExecutors() {
+        fileExecutor.shutdownNow();
+        partExecutor.shutdownNow();
+    }
 
     @Override
     public boolean uploadFile(String bucket, String key, Path file) {
+        try {
+            long size = Files.size(file);
+            if (size >= multipartThresholdMb * 1024 * 1024) {
+                return uploadMultipart(bucket, key, file, size);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading " + file, e);
+        }
+
         PutObjectRequest putObjectRequest = PutObjectRequest.builder()
                 .bucket(bucket)
                 .key(key)
@@ -44,34 +129,212 @@ public class S3Adapter implements FileStoragePort {
     }
 
     @Override
-    public void downloadFile(String bucket, String key) throws IOException {
-        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+    public void uploadFiles(String bucket, Map<String, Path> files) throws IOException {
+        List<Future<Boolean>> uploads = new ArrayList<>();
+        for (Map.Entry<String, Path> file : files.entrySet()) {
+            uploads.add(fileExecutor.submit(() -> uploadFile(bucket, file.getKey(), file.getValue())));
+        }
+        try {
+            for (Future<Boolean> upload : uploads) {
+                if (!upload.get()) {
+                    throw new IOException("Storage rejected one of the uploads to " + bucket);
+                }
+            }
+        } catch (InterruptedException e) {
+            uploads.forEach(u -> u.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while uploading to " + bucket, e);
+        } catch (ExecutionException e) {
+            uploads.forEach(u -> u.cancel(true));
+            throw new IOException("Error uploading to " + bucket, e.getCause());
+        }
+    }
+
+    @Override
+    public void deleteObjects(String bucket, String prefix) {
+        List<ObjectIdentifier> batch = new ArrayList<>();
+        ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
+                .bucket(bucket)
+                .prefix(prefix)
+                .build();
+        for (S3Object object : s3Client.listObjectsV2Paginator(listRequest).contents()) {
+            batch.add(ObjectIdentifier.builder().key(object.key()).build());
+            if (batch.size() == MAX_DELETE_BATCH) {
+                deleteBatch(bucket, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            deleteBatch(bucket, batch);
+        }
+    }
+
+    private void deleteBatch(String bucket, List<ObjectIdentifier> keys) {
+        s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                .bucket(bucket)
+                .delete(Delete.builder().objects(keys).quiet(true).build())
+                .build());
+    }
+
+    private boolean uploadMultipart(String bucket, String key, Path file, long size) {
+        long partSize = Math.max(MIN_PART_SIZE, partSizeMb * 1024 * 1024);
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .build()).uploadId();
+
+        List<Future<CompletedPart>> parts = new ArrayList<>();
+        try {
+            int partNumber = 1;
+            for (long offset = 0; offset < size; offset += partSize, partNumber++) {
+                long length = Math.min(partSize, size - offset);
+                int number = partNumber;
+                long start = offset;
+                parts.add(partExecutor.submit(() -> uploadPart(bucket, key, uploadId, file, number, start, length)));
+            }
+
+            List<CompletedPart> completed = new ArrayList<>();
+            for (Future<CompletedPart> part : parts) {
+                completed.add(part.get());
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completed).build())
+                    .build());
+            return true;
+        } catch (Exception e) {
+            parts.forEach(p -> p.cancel(true));
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("Multipart upload of " + key + " failed", e);
+        }
+    }
+
+    private CompletedPart uploadPart(String bucket, String key, String uploadId, Path file,
+                                     int partNumber, long offset, long length) {
+        UploadPartRequest request = UploadPartRequest.builder()
                 .bucket(bucket)
                 .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength(length)
                 .build();
 
-        ResponseBytes<GetObjectResponse> objectBytes = this.s3Client.getObjectAsBytes(getObjectRequest);
+        // The provider reopens the slice, so the SDK can replay it on retries
+        RequestBody body = RequestBody.fromContentProvider(
+                () -> new FileSliceInputStream(file, offset, length), length, "application/octet-stream");
 
+        String eTag = s3Client.uploadPart(request, body).eTag();
+        return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+    }
+
+    @Override
+    public void downloadFile(String bucket, String key) throws IOException {
         String fileName;
 
         if(key.contains("/")){
-            fileName = key.substring( key.lastIndexOf("/") );
+            fileName = key.substring( key.lastIndexOf("/") + 1 );
         } else {
             fileName = key;
         }
 
-        String filePath = Paths.get("src", "main", "resources", "static", fileName).toString();
+        downloadTo(bucket, key, Paths.get("src", "main", "resources", "static", fileName));
+    }
+
+    @Override
+    public void downloadTo(String bucket, String key, Path target) throws IOException {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .build();
+
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (ResponseInputStream<GetObjectResponse> in = this.s3Client.getObject(getObjectRequest);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            copy(in, out);
+        }
+    }
+
+    @Override
+    public long downloadRange(String bucket, String key, long start, long end, WritableByteChannel target) throws IOException {
+        try (InputStream in = openRange(bucket, key, start, end)) {
+            return copy(in, target);
+        }
+    }
 
-        File file = new File(filePath);
-        file.getParentFile().mkdirs();
+    // Writes to a slow target block the read, so at most one buffer of the object is in memory
+    private long copy(InputStream in, WritableByteChannel out) throws IOException {
+        ReadableByteChannel source = Channels.newChannel(in);
+        ByteBuffer buffer = transferBuffers.acquire();
+        try {
+            long copied = 0;
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    copied += out.write(buffer);
+                }
+                buffer.clear();
+            }
+            return copied;
+        } finally {
+            transferBuffers.release(buffer);
+        }
+    }
 
-        try (FileOutputStream fos = new FileOutputStream(file)) {
-            fos.write(objectBytes.asByteArray());
+    @Override
+    public String readObjectAsString(String bucket, String key) {
+        try {
+            return mediaCachePort.read(bucket, key, target -> downloadTo(bucket, key, target), Files::readString);
         } catch (IOException e) {
-            throw new IOException("Error downloading file: " + e.getCause());
+            throw new UncheckedIOException("Error reading " + key, e);
         }
     }
 
+    @Override
+    public Path getLocalCopy(String bucket, String key) throws IOException {
+        return mediaCachePort.get(bucket, key, target -> downloadTo(bucket, key, target));
+    }
+
+    @Override
+    public OptionalLong getObjectSize(String bucket, String key) {
+        HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .build();
+        try {
+            return OptionalLong.of(this.s3Client.headObject(headObjectRequest).contentLength());
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return OptionalLong.empty();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public InputStream openRange(String bucket, String key, long start, long end) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .range("bytes=" + start + "-" + end)
+                .build();
+
+        return this.s3Client.getObject(getObjectRequest);
+    }
+
     @Override
     public String generatePresignedUploadUrl(String bucket, String key, Duration duration) {
         PutObjectRequest putObjectRequest = PutObjectRequest.builder()
@@ -90,8 +353,75 @@ public class S3Adapter implements FileStoragePort {
         return presignedUrl.toString();
     }
 
+    @Override
+    public String createMultipartUpload(String bucket, String key) {
+        return s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .build()).uploadId();
+    }
+
+    @Override
+    public String generatePresignedUploadPartUrl(String bucket, String key, String uploadId, int partNumber, Duration duration) {
+        UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .build();
+
+        UploadPartPresignRequest presignRequest = UploadPartPresignRequest.builder()
+                .signatureDuration(duration)
+                .uploadPartRequest(uploadPartRequest)
+                .build();
+
+        return this.s3Presigner.presignUploadPart(presignRequest).url().toString();
+    }
+
+    @Override
+    public void completeMultipartUpload(String bucket, String key, String uploadId, List<String> eTags) {
+        List<CompletedPart> parts = new ArrayList<>();
+        for (int i = 0; i < eTags.size(); i++) {
+            parts.add(CompletedPart.builder().partNumber(i + 1).eTag(eTags.get(i)).build());
+        }
+        s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                .build());
+    }
+
+    @Override
+    public void abortMultipartUpload(String bucket, String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (NoSuchUploadException e) {
+            // Already completed or aborted
+        }
+    }
+
     @Override
     public String generatePresignedDownloadUrl(String bucket, String key, Duration duration) {
+        return presignedUrlCache.get(bucket, key, duration, lifetime -> presignDownload(bucket, key, lifetime));
+    }
+
+    @Override
+    public Map<String, String> generatePresignedDownloadUrls(String bucket, Collection<String> keys, Duration duration) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (String key : keys) {
+            if (key != null && !urls.containsKey(key)) {
+                urls.put(key, generatePresignedDownloadUrl(bucket, key, duration));
+            }
+        }
+        return urls;
+    }
+
+    private String presignDownload(String bucket, String key, Duration duration) {
         GetObjectRequest getObjectRequest = GetObjectRequest.builder()
                 .bucket(bucket)
                 .key(key)
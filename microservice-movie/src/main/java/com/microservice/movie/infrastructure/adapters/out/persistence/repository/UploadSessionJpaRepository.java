@@ -0,0 +1,29 @@
+package com.microservice.movie.infrastructure.adapters.out.persistence.repository;
+
+import com.microservice.movie.domain.model.UploadSessionState;
+import com.microservice.movie.infrastructure.adapters.out.persistence.entity.UploadSessionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface UploadSessionJpaRepository extends JpaRepository<UploadSessionEntity, String> {
+    List<UploadSessionEntity> findByStateAndExpiresAtBefore(UploadSessionState state, LocalDateTime before);
+
+    // Conditional update: of two concurrent completions (or a completion and an expiry) only one wins
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE UploadSessionEntity s
+            SET s.state = :to, s.updatedAt = :now
+            WHERE s.idSession = :idSession AND s.state = :from
+            """)
+    int transition(@Param("idSession") String idSession,
+                   @Param("from") UploadSessionState from,
+                   @Param("to") UploadSessionState to,
+                   @Param("now") LocalDateTime now);
+}
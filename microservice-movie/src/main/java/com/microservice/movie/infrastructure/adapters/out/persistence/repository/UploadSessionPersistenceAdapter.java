@@ -0,0 +1,46 @@
+package com.microservice.movie.infrastructure.adapters.out.persistence.repository;
+
+import com.microservice.movie.application.ports.out.UploadSessionPersistencePort;
+import com.microservice.movie.domain.model.UploadSession;
+import com.microservice.movie.domain.model.UploadSessionState;
+import com.microservice.movie.infrastructure.adapters.out.persistence.entity.UploadSessionEntity;
+import com.microservice.movie.infrastructure.adapters.out.persistence.mapper.UploadSessionEntityMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class UploadSessionPersistenceAdapter implements UploadSessionPersistencePort {
+
+    private final UploadSessionJpaRepository uploadSessionJpaRepository;
+    private final UploadSessionEntityMapper uploadSessionEntityMapper;
+
+    @Override
+    public UploadSession save(UploadSession session) {
+        UploadSessionEntity saved = uploadSessionJpaRepository.save(uploadSessionEntityMapper.toEntity(session));
+        return uploadSessionEntityMapper.toDomain(saved);
+    }
+
+    @Override
+    public Optional<UploadSession> findById(String idSession) {
+        return uploadSessionJpaRepository.findById(idSession)
+                .map(uploadSessionEntityMapper::toDomain);
+    }
+
+    @Override
+    public List<UploadSession> findOpenExpiredBefore(LocalDateTime now) {
+        return uploadSessionJpaRepository.findByStateAndExpiresAtBefore(UploadSessionState.OPEN, now)
+                .stream()
+                .map(uploadSessionEntityMapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    public boolean transition(String idSession, UploadSessionState from, UploadSessionState to) {
+        return uploadSessionJpaRepository.transition(idSession, from, to, LocalDateTime.now()) == 1;
+    }
+}
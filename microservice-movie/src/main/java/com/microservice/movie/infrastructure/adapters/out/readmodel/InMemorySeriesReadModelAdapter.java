@@ -0,0 +1,120 @@
+package com.microservice.movie.infrastructure.adapters.out.readmodel;
+
+import com.microservice.movie.application.ports.out.MoviePersistencePort;
+import com.microservice.movie.application.ports.out.SeriesReadModelPort;
+import com.microservice.movie.domain.model.Movie;
+import com.microservice.movie.domain.model.MovieChangedEvent;
+import com.microservice.movie.domain.model.Series;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Series -> seasons -> ordered episodes, precomputed from the catalog.
+ * <p>
+ * Readers get an immutable {@link Series} snapshot with one map lookup. Writers follow
+ * {@link MovieChangedEvent}s and rebuild only the snapshot of the series that changed
+ * (and of the previous series, when an episode is renamed).
+ */
+@Component
+public class InMemorySeriesReadModelAdapter implements SeriesReadModelPort {
+
+    private static final long SERIES_CATEGORY = 2L;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Comparator<Movie> EPISODE_ORDER = Comparator
+            .comparing(Movie::getEpisodeNumber, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Movie::getIdMovie);
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final MoviePersistencePort moviePersistencePort;
+
+    private final Map<String, Series> snapshots = new ConcurrentHashMap<>();
+    // Writer-side state, guarded by this
+    private final Map<String, Map<Long, Movie>> episodesBySeries = new HashMap<>();
+    private final Map<Long, String> seriesOfEpisode = new HashMap<>();
+
+    public InMemorySeriesReadModelAdapter(MoviePersistencePort moviePersistencePort) {
+        this.moviePersistencePort = moviePersistencePort;
+    }
+
+    @Override
+    public Optional<Series> findByTitle(String title) {
+        return title == null ? Optional.empty() : Optional.ofNullable(snapshots.get(key(title)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        episodesBySeries.clear();
+        seriesOfEpisode.clear();
+        for (Movie movie : moviePersistencePort.findAll()) {
+            if (isListed(movie)) {
+                String key = key(movie.getTitle());
+                episodesBySeries.computeIfAbsent(key, k -> new HashMap<>()).put(movie.getIdMovie(), movie);
+                seriesOfEpisode.put(movie.getIdMovie(), key);
+            }
+        }
+        snapshots.keySet().retainAll(episodesBySeries.keySet());
+        episodesBySeries.keySet().forEach(this::publish);
+        logger.info("Series read model built with {} series", episodesBySeries.size());
+    }
+
+    @EventListener
+    public synchronized void onMovieChanged(MovieChangedEvent event) {
+        String previousKey = seriesOfEpisode.remove(event.getIdMovie());
+        if (previousKey != null) {
+            episodesBySeries.get(previousKey).remove(event.getIdMovie());
+        }
+
+        String key = null;
+        if (!event.isDeleted() && isListed(event.getMovie())) {
+            key = key(event.getMovie().getTitle());
+            episodesBySeries.computeIfAbsent(key, k -> new HashMap<>()).put(event.getIdMovie(), event.getMovie());
+            seriesOfEpisode.put(event.getIdMovie(), key);
+            publish(key);
+        }
+        if (previousKey != null && !previousKey.equals(key)) {
+            publish(previousKey);
+        }
+    }
+
+    private void publish(String key) {
+        Map<Long, Movie> episodes = episodesBySeries.get(key);
+        if (episodes == null || episodes.isEmpty()) {
+            episodesBySeries.remove(key);
+            snapshots.remove(key);
+            return;
+        }
+        TreeMap<Integer, List<Movie>> seasons = new TreeMap<>();
+        for (Movie episode : episodes.values()) {
+            seasons.computeIfAbsent(episode.getSeasonNumber(), s -> new ArrayList<>()).add(episode);
+        }
+        seasons.values().forEach(season -> season.sort(EPISODE_ORDER));
+        String title = seasons.firstEntry().getValue().get(0).getTitle();
+        snapshots.put(key, new Series(title, seasons));
+    }
+
+    private static boolean isListed(Movie movie) {
+        return Long.valueOf(SERIES_CATEGORY).equals(movie.getIdCategory())
+                && Boolean.TRUE.equals(movie.getEstate())
+                && movie.getSeasonNumber() != null;
+    }
+
+    // Mirrors the accent and case insensitive collation of the title column
+    private static String key(String title) {
+        return DIACRITICS.matcher(Normalizer.normalize(title, Normalizer.Form.NFD)).replaceAll("").toLowerCase();
+    }
+}
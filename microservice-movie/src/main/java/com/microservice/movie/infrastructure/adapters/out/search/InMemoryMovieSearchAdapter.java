@@ -0,0 +1,198 @@
+package com.microservice.movie.infrastructure.adapters.out.search;
+
+import com.microservice.movie.application.ports.out.MoviePersistencePort;
+import com.microservice.movie.application.ports.out.MovieSearchPort;
+import com.microservice.movie.domain.model.Movie;
+import com.microservice.movie.domain.model.MovieChangedEvent;
+import com.microservice.movie.domain.model.MovieSearchPage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over the titles and descriptions of active movies and episodes.
+ * <p>
+ * Words are lower-cased and stripped of accents, so "Canción" and "cancion" match. Every word of
+ * the query must match a word of the document, either whole or as a prefix of it. Title matches
+ * weigh more than description matches and whole words more than prefixes. The index is loaded
+ * once at startup and then follows {@link MovieChangedEvent}s.
+ */
+@Component
+public class InMemoryMovieSearchAdapter implements MovieSearchPort {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float PREFIX_FACTOR = 0.5f;
+    private static final float TITLE_PREFIX_BONUS = 2f;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final MoviePersistencePort moviePersistencePort;
+
+    // word -> (id movie -> weight of the word in that movie)
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, IndexedMovie> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public InMemoryMovieSearchAdapter(MoviePersistencePort moviePersistencePort) {
+        this.moviePersistencePort = moviePersistencePort;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            // Loaded under the lock so that no change event can be overwritten by older rows
+            List<Movie> movies = moviePersistencePort.findAll();
+            postings.clear();
+            documents.clear();
+            movies.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Search index built with {} active titles", documents.size());
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.getIdMovie());
+            if (!event.isDeleted()) {
+                add(event.getMovie());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public MovieSearchPage search(String query, int page, int size) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new MovieSearchPage(List.of(), 0);
+        }
+        String normalizedQuery = String.join(" ", terms);
+
+        List<IndexedMovie> ranked;
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = null;
+            for (String term : terms) {
+                Map<Long, Float> termScores = match(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return new MovieSearchPage(List.of(), 0);
+                }
+            }
+
+            ranked = new ArrayList<>(scores.size());
+            for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+                IndexedMovie document = documents.get(entry.getKey());
+                float score = entry.getValue();
+                if (document.normalizedTitle().startsWith(normalizedQuery)) {
+                    score += TITLE_PREFIX_BONUS * terms.size();
+                }
+                ranked.add(document.withScore(score));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        ranked.sort(Comparator.comparingDouble(IndexedMovie::score).reversed()
+                .thenComparing(IndexedMovie::normalizedTitle)
+                .thenComparing(d -> d.movie().getIdMovie()));
+
+        int from = (int) Math.min((long) page * size, ranked.size());
+        int to = Math.min(from + size, ranked.size());
+        List<Movie> movies = ranked.subList(from, to).stream().map(IndexedMovie::movie).toList();
+        return new MovieSearchPage(movies, ranked.size());
+    }
+
+    // Whole-word hits keep their weight, words that only start with the term count for less
+    private Map<Long, Float> match(String term) {
+        Map<Long, Float> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Float>> entry : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            float factor = entry.getKey().equals(term) ? 1f : PREFIX_FACTOR;
+            entry.getValue().forEach((id, weight) -> scores.merge(id, weight * factor, Math::max));
+        }
+        return scores;
+    }
+
+    private void add(Movie movie) {
+        if (movie.getIdMovie() == null || !Boolean.TRUE.equals(movie.getEstate())) {
+            return;
+        }
+        Map<String, Float> weights = new HashMap<>();
+        for (String word : tokenize(movie.getDescription())) {
+            weights.merge(word, DESCRIPTION_WEIGHT, Math::max);
+        }
+        List<String> titleWords = tokenize(movie.getTitle());
+        for (String word : titleWords) {
+            weights.merge(word, TITLE_WEIGHT, Math::max);
+        }
+        weights.forEach((word, weight) -> postings.computeIfAbsent(word, w -> new HashMap<>()).put(movie.getIdMovie(), weight));
+        documents.put(movie.getIdMovie(), new IndexedMovie(movie, String.join(" ", titleWords), Set.copyOf(weights.keySet()), 0f));
+    }
+
+    private void remove(Long idMovie) {
+        IndexedMovie previous = documents.remove(idMovie);
+        if (previous == null) {
+            return;
+        }
+        for (String word : previous.words()) {
+            Map<Long, Float> ids = postings.get(word);
+            if (ids != null) {
+                ids.remove(idMovie);
+                if (ids.isEmpty()) {
+                    postings.remove(word);
+                }
+            }
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> words = new ArrayList<>();
+        for (String word : SEPARATORS.split(folded.toLowerCase())) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private record IndexedMovie(Movie movie, String normalizedTitle, Set<String> words, float score) {
+        IndexedMovie withScore(float newScore) {
+            return new IndexedMovie(movie, normalizedTitle, words, newScore);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.microservice.movie.infrastructure.adapters.out.transcoding;
+
+import com.microservice.movie.application.ports.out.EncodingProfilePort;
+import com.microservice.movie.domain.model.Rendition;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+@EnableConfigurationProperties(EncodingProfileProperties.class)
+public class ConfiguredEncodingProfileAdapter implements EncodingProfilePort {
+
+    private final List<Rendition> renditions;
+
+    public ConfiguredEncodingProfileAdapter(EncodingProfileProperties properties) {
+        List<Rendition> configured = properties.getProfiles().get(properties.getProfile());
+        if (configured == null) {
+            if (!properties.getProfiles().isEmpty()) {
+                throw new IllegalStateException("Unknown encoding profile '" + properties.getProfile()
+                        + "', expected one of " + properties.getProfiles().keySet());
+            }
+            configured = EncodingProfileProperties.builtInLadder();
+        }
+        validate(properties.getProfile(), configured);
+        this.renditions = configured.stream()
+                .sorted(Comparator.comparingInt(Rendition::getHeight).reversed())
+                .toList();
+    }
+
+    @Override
+    public List<Rendition> getRenditions() {
+        return renditions;
+    }
+
+    // Checked at startup, so that a bad profile fails the deployment instead of every ingest
+    private static void validate(String profile, List<Rendition> renditions) {
+        if (renditions.isEmpty()) {
+            throw new IllegalStateException("Encoding profile '" + profile + "' has no renditions");
+        }
+        Set<String> qualities = new HashSet<>();
+        for (Rendition rendition : renditions) {
+            if (!Rendition.QUALITIES.contains(rendition.getQuality())) {
+                throw new IllegalStateException("Rendition '" + rendition.getQuality() + "' of encoding profile '"
+                        + profile + "' is not one of " + Rendition.QUALITIES);
+            }
+            if (!qualities.add(rendition.getQuality())) {
+                throw new IllegalStateException("Encoding profile '" + profile + "' defines "
+                        + rendition.getQuality() + " twice");
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.microservice.movie.infrastructure.adapters.out.transcoding;
+
+import com.microservice.movie.domain.model.Rendition;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Named encoding profiles ({@code transcoding.profiles.<name>}) and the one in use
+ * ({@code transcoding.profile}). Profiles describe outputs (resolution, quality, bitrate cap),
+ * not encoder flags, so the same profile applies whatever encoder the adapter drives.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "transcoding")
+public class EncodingProfileProperties {
+
+    static final String DEFAULT_PROFILE = "default";
+
+    private String profile = DEFAULT_PROFILE;
+    private Map<String, List<Rendition>> profiles = new HashMap<>();
+
+    // Ladder used when the configuration defines no profile at all
+    static List<Rendition> builtInLadder() {
+        return List.of(
+                new Rendition("1080p", 1920, 1080, 28, "fast", 6000),
+                new Rendition("720p", 1280, 720, 30, "fast", 3500),
+                new Rendition("480p", 854, 480, 32, "fast", 1500)
+        );
+    }
+}
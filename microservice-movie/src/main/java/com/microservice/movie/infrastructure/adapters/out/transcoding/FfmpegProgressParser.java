@@ -0,0 +1,77 @@
+package com.microservice.movie.infrastructure.adapters.out.transcoding;
+
+import com.microservice.movie.domain.model.TranscodeProgress;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the key=value blocks FFmpeg writes with {@code -progress pipe:1}, plus the
+ * {@code Duration:} line of its input banner, which is needed to compute a percentage.
+ */
+class FfmpegProgressParser {
+
+    private static final Pattern PROGRESS_LINE = Pattern.compile("^([a-z0-9_]+)=(\\S*)$");
+    private static final Pattern DURATION = Pattern.compile("Duration: (\\d+):(\\d{2}):(\\d{2}(?:\\.\\d+)?)");
+
+    private Duration total;
+    private double fps;
+    private double speed;
+    private long outTimeMicros;
+    private TranscodeProgress last;
+
+    /**
+     * Consumes one output line. Returns a new snapshot when the line closes a progress
+     * block, {@code null} otherwise.
+     */
+    TranscodeProgress accept(String line) {
+        Matcher progress = PROGRESS_LINE.matcher(line.trim());
+        if (!progress.matches()) {
+            Matcher duration = DURATION.matcher(line);
+            if (total == null && duration.find()) {
+                long millis = Math.round((Long.parseLong(duration.group(1)) * 3600
+                        + Long.parseLong(duration.group(2)) * 60
+                        + Double.parseDouble(duration.group(3))) * 1000);
+                total = Duration.ofMillis(millis);
+            }
+            return null;
+        }
+
+        String value = progress.group(2);
+        switch (progress.group(1)) {
+            case "fps" -> fps = parse(value, fps);
+            case "out_time_us" -> outTimeMicros = (long) parse(value, outTimeMicros);
+            case "speed" -> speed = parse(value.endsWith("x") ? value.substring(0, value.length() - 1) : value, speed);
+            case "progress" -> {
+                Duration encoded = Duration.ofNanos(outTimeMicros * 1000);
+                Double percent = total == null || total.isZero() ? null
+                        : "end".equals(value) ? 100.0
+                        : Math.min(100.0, encoded.toMillis() * 100.0 / total.toMillis());
+                last = new TranscodeProgress(percent, fps, speed, encoded);
+                return last;
+            }
+            default -> {
+                // frame, bitrate, sizes, ... are not tracked
+            }
+        }
+        return null;
+    }
+
+    boolean isProgressLine(String line) {
+        return PROGRESS_LINE.matcher(line.trim()).matches();
+    }
+
+    TranscodeProgress last() {
+        return last;
+    }
+
+    // FFmpeg prints N/A until the first frames are out
+    private static double parse(String value, double fallback) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,629 @@
+package com.microservice.movie.infrastructure.adapters.out.transcoding;
+
+import com.microservice.movie.application.ports.out.TranscodingPort;
+import com.microservice.movie.domain.model.Rendition;
+import com.microservice.movie.domain.model.SourceMedia;
+import com.microservice.movie.domain.model.TranscodeProgress;
+import com.microservice.movie.domain.model.TranscodeResult;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Encodes a source video into an HLS ladder with FFmpeg.
+ * <p>
+ * In {@code single-pass} mode the source is decoded once and the decoded frames are split
+ * into one scaler/encoder chain per rendition inside a single FFmpeg process.
+ * In {@code parallel} mode each rendition gets its own FFmpeg process, and at most
+ * {@code transcoding.max-parallel-encodes} of them run at the same time.
+ * Both modes share the CPU budget configured with {@code transcoding.cpu-budget}.
+ * Keyframes are forced on segment boundaries so that every rendition can be switched
+ * at any segment.
+ * <p>
+ * Encodes run with {@code -progress}, so callers receive live percentage, fps and speed,
+ * and the final fps and speed of every encode are published as Micrometer summaries.
+ * <p>
+ * Preview thumbnails are taken from keyframes only, so extracting them decodes a small fraction
+ * of the source and can run next to the encode; each sheet holds a
+ * {@code transcoding.thumbnails.columns} x {@code rows} grid of frames.
+ */
+@Component
+public class FfmpegTranscodingAdapter implements TranscodingPort {
+
+    private static final String SINGLE_PASS = "single-pass";
+    static final String MEDIA_PLAYLIST = "index.m3u8";
+    static final String MASTER_PLAYLIST = "master.m3u8";
+    static final String DASH_MANIFEST = "manifest.mpd";
+    static final String THUMBNAIL_TRACK = "thumbnails.vtt";
+    static final String SPRITE_PREFIX = "sprite_";
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final String mode;
+    private final int cpuBudget;
+    private final int maxParallelEncodes;
+    private final int segmentSeconds;
+    private final int thumbnailInterval;
+    private final int thumbnailWidth;
+    private final int thumbnailColumns;
+    private final int thumbnailRows;
+    private final ExecutorService encodeExecutor;
+    private final DistributionSummary encodeFps;
+    private final DistributionSummary encodeSpeed;
+
+    public FfmpegTranscodingAdapter(
+            MeterRegistry meterRegistry,
+            @Value("${transcoding.mode:single-pass}") String mode,
+            @Value("${transcoding.cpu-budget:0}") int cpuBudget,
+            @Value("${transcoding.max-parallel-encodes:3}") int maxParallelEncodes,
+            @Value("${transcoding.hls.segment-seconds:6}") int segmentSeconds,
+            @Value("${transcoding.thumbnails.interval-seconds:10}") int thumbnailInterval,
+            @Value("${transcoding.thumbnails.width:160}") int thumbnailWidth,
+            @Value("${transcoding.thumbnails.columns:10}") int thumbnailColumns,
+            @Value("${transcoding.thumbnails.rows:10}") int thumbnailRows) {
+        this.mode = mode;
+        this.cpuBudget = cpuBudget > 0 ? cpuBudget : Runtime.getRuntime().availableProcessors();
+        this.maxParallelEncodes = Math.max(1, maxParallelEncodes);
+        this.segmentSeconds = Math.max(1, segmentSeconds);
+        this.thumbnailInterval = Math.max(1, thumbnailInterval);
+        this.thumbnailWidth = even(thumbnailWidth);
+        this.thumbnailColumns = Math.max(1, thumbnailColumns);
+        this.thumbnailRows = Math.max(1, thumbnailRows);
+        this.encodeExecutor = Executors.newFixedThreadPool(this.maxParallelEncodes);
+        this.encodeFps = DistributionSummary.builder("movie.transcode.fps")
+                .description("Average frames per second of each FFmpeg encode")
+                .tag("mode", mode)
+                .register(meterRegistry);
+        this.encodeSpeed = DistributionSummary.builder("movie.transcode.speed")
+                .description("Encoded media seconds per wall-clock second of each FFmpeg encode")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SourceMedia probe(Path source) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(
+                "ffprobe", "-v", "error",
+                "-select_streams", "v:0",
+                "-show_entries", "stream=width,height,bit_rate:format=duration,bit_rate",
+                "-of", "default=noprint_wrappers=1",
+                source.toString()
+        ).redirectErrorStream(true).start();
+
+        // The stream section comes first, so its bit_rate wins over the container's when both are known
+        Map<String, String> values = new HashMap<>();
+        int exitCode = await(process, line -> {
+            int separator = line.indexOf('=');
+            if (separator > 0 && !line.endsWith("=N/A")) {
+                values.putIfAbsent(line.substring(0, separator), line.substring(separator + 1).trim());
+            }
+        });
+        if (exitCode != 0 || !values.containsKey("width") || !values.containsKey("height")) {
+            throw new IOException("Could not probe the video stream of " + source.getFileName());
+        }
+
+        return SourceMedia.builder()
+                .width(Integer.parseInt(values.get("width")))
+                .height(Integer.parseInt(values.get("height")))
+                .bitrateKbps(values.containsKey("bit_rate") ? Long.parseLong(values.get("bit_rate")) / 1000 : 0)
+                .duration(values.containsKey("duration")
+                        ? Duration.ofMillis(Math.round(Double.parseDouble(values.get("duration")) * 1000))
+                        : Duration.ZERO)
+                .build();
+    }
+
+    @Override
+    public List<TranscodeResult> transcode(Path source, Path outputDir, List<Rendition> renditions,
+                                           Consumer<TranscodeProgress> progress, Consumer<TranscodeResult> completed)
+            throws IOException, InterruptedException {
+        if (renditions.isEmpty()) {
+            return List.of();
+        }
+        for (Rendition rendition : renditions) {
+            Files.createDirectories(outputDir.resolve(rendition.getQuality()));
+        }
+        if (SINGLE_PASS.equalsIgnoreCase(mode)) {
+            return transcodeSinglePass(source, outputDir, renditions, progress, completed);
+        }
+        return transcodeParallel(source, outputDir, renditions, progress, completed);
+    }
+
+    @Override
+    public Path writeMasterPlaylist(Path outputDir, List<TranscodeResult> renditions) throws IOException {
+        StringBuilder master = new StringBuilder("#EXTM3U\n#EXT-X-VERSION:3\n");
+        renditions.stream()
+                .sorted(Comparator.comparingLong(TranscodeResult::getBandwidth).reversed())
+                .forEach(r -> master.append("#EXT-X-STREAM-INF:BANDWIDTH=").append(r.getBandwidth())
+                        .append(",AVERAGE-BANDWIDTH=").append(r.getAverageBandwidth())
+                        .append(",RESOLUTION=").append(r.getWidth()).append("x").append(r.getHeight())
+                        .append(",NAME=\"").append(r.getQuality()).append("\"\n")
+                        .append(r.getQuality()).append("/").append(MEDIA_PLAYLIST).append("\n"));
+
+        Path masterPath = outputDir.resolve(MASTER_PLAYLIST);
+        Files.writeString(masterPath, master);
+        return masterPath;
+    }
+
+    @Override
+    public Path packageDash(Path dashDir, List<TranscodeResult> renditions) throws IOException, InterruptedException {
+        Files.createDirectories(dashDir);
+        List<String> command = new ArrayList<>(List.of("ffmpeg", "-y"));
+        for (TranscodeResult rendition : renditions) {
+            command.addAll(List.of("-i", rendition.getPlaylist().toString()));
+        }
+        for (int i = 0; i < renditions.size(); i++) {
+            command.addAll(List.of("-map", i + ":v"));
+        }
+        Path manifest = dashDir.resolve(DASH_MANIFEST);
+        // Explicit segment lists (no templates) so every segment URL can be signed on its own
+        command.addAll(List.of(
+                "-c", "copy",
+                "-f", "dash",
+                "-seg_duration", String.valueOf(segmentSeconds),
+                "-use_template", "0",
+                "-use_timeline", "0",
+                "-adaptation_sets", "id=0,streams=v",
+                manifest.toString()
+        ));
+        run(command, "DASH packaging", p -> { });
+        return manifest;
+    }
+
+    @Override
+    public Path generateThumbnails(Path source, Path outputDir, SourceMedia media) throws IOException, InterruptedException {
+        if (media.getDuration() == null || media.getDuration().isZero() || media.getWidth() <= 0) {
+            throw new IOException("The duration and size of " + source.getFileName() + " are needed to time its thumbnails");
+        }
+        // A retried stage starts over, so no sheet of an earlier attempt is left behind
+        deleteFiles(outputDir);
+        Files.createDirectories(outputDir);
+        int width = thumbnailWidth;
+        int height = even((int) Math.round((double) width * media.getHeight() / media.getWidth()));
+
+        List<String> command = List.of(
+                "ffmpeg", "-y", "-nostdin", "-v", "error",
+                "-skip_frame", "nokey", "-i", source.toString(),
+                "-an", "-sn",
+                "-vf", "fps=1/" + thumbnailInterval + ",scale=" + width + ":" + height
+                        + ",tile=" + thumbnailColumns + "x" + thumbnailRows,
+                "-threads", "1",
+                "-q:v", "5",
+                outputDir.resolve(SPRITE_PREFIX + "%05d.jpg").toString()
+        );
+        // Output goes to a file rather than a pipe, so an interrupted job stops FFmpeg right away
+        Path log = outputDir.resolveSibling(outputDir.getFileName() + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        int exitCode;
+        try {
+            exitCode = process.waitFor();
+        } finally {
+            if (process.isAlive()) {
+                process.destroyForcibly().onExit().join();
+            }
+        }
+        if (exitCode != 0) {
+            List<String> lines = Files.readAllLines(log);
+            logger.error("FFmpeg exited with code {} while extracting thumbnails: {}", exitCode,
+                    lines.isEmpty() ? null : lines.get(lines.size() - 1));
+            throw new IOException("Error extracting thumbnails of " + source.getFileName());
+        }
+        Files.deleteIfExists(log);
+
+        int sheets;
+        try (Stream<Path> files = Files.list(outputDir)) {
+            sheets = (int) files.filter(f -> f.getFileName().toString().startsWith(SPRITE_PREFIX)).count();
+        }
+        if (sheets == 0) {
+            throw new IOException("FFmpeg produced no thumbnails of " + source.getFileName());
+        }
+        return writeThumbnailTrack(outputDir, media.getDuration(), sheets, width, height);
+    }
+
+    // One cue per interval, pointing at its tile: sprite_00001.jpg#xywh=x,y,w,h
+    private Path writeThumbnailTrack(Path outputDir, Duration duration, int sheets, int width, int height)
+            throws IOException {
+        int perSheet = thumbnailColumns * thumbnailRows;
+        long intervalMillis = thumbnailInterval * 1000L;
+        long count = Math.min((duration.toMillis() + intervalMillis - 1) / intervalMillis, (long) sheets * perSheet);
+
+        StringBuilder track = new StringBuilder("WEBVTT\n");
+        for (int i = 0; i < count; i++) {
+            int tile = i % perSheet;
+            track.append('\n')
+                    .append(vttTime(i * intervalMillis)).append(" --> ")
+                    .append(vttTime(Math.min((i + 1) * intervalMillis, duration.toMillis()))).append('\n')
+                    .append(String.format("%s%05d.jpg#xywh=%d,%d,%d,%d", SPRITE_PREFIX, i / perSheet + 1,
+                            (tile % thumbnailColumns) * width, (tile / thumbnailColumns) * height, width, height))
+                    .append('\n');
+        }
+        Path trackPath = outputDir.resolve(THUMBNAIL_TRACK);
+        Files.writeString(trackPath, track);
+        return trackPath;
+    }
+
+    private static String vttTime(long millis) {
+        return String.format("%02d:%02d:%02d.%03d",
+                millis / 3_600_000, millis / 60_000 % 60, millis / 1000 % 60, millis % 1000);
+    }
+
+    private static void deleteFiles(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    // 4:2:0 chroma needs even dimensions
+    private static int even(int value) {
+        return Math.max(2, value - value % 2);
+    }
+
+    // One decode, N encodes: split the decoded stream and scale/encode each branch
+    private List<TranscodeResult> transcodeSinglePass(Path source, Path outputDir, List<Rendition> renditions,
+                                                      Consumer<TranscodeProgress> progress,
+                                                      Consumer<TranscodeResult> completed)
+            throws IOException, InterruptedException {
+        int count = renditions.size();
+        StringBuilder filter = new StringBuilder("[0:v]split=").append(count);
+        for (int i = 0; i < count; i++) {
+            filter.append("[s").append(i).append("]");
+        }
+        for (int i = 0; i < count; i++) {
+            filter.append(";[s").append(i).append("]scale=").append(renditions.get(i).scale())
+                    .append("[v").append(i).append("]");
+        }
+
+        List<String> command = new ArrayList<>(List.of(
+                "ffmpeg", "-y", "-progress", "pipe:1", "-nostats", "-i", source.toString(),
+                "-filter_complex", filter.toString()
+        ));
+
+        int threadsPerEncode = Math.max(1, cpuBudget / count);
+        for (int i = 0; i < count; i++) {
+            command.addAll(List.of("-map", "[v" + i + "]"));
+            command.addAll(outputArguments(renditions.get(i), outputDir, threadsPerEncode));
+        }
+
+        long start = System.nanoTime();
+        record(run(command, "renditions " + renditions.stream().map(Rendition::getQuality).toList(), progress));
+        Duration wallTime = Duration.ofNanos(System.nanoTime() - start);
+
+        // All branches share the same decoder, so they all finish with the process
+        List<TranscodeResult> results = new ArrayList<>();
+        for (Rendition rendition : renditions) {
+            TranscodeResult result = result(rendition, outputDir, wallTime);
+            completed.accept(result);
+            results.add(result);
+        }
+        return results;
+    }
+
+    private List<TranscodeResult> transcodeParallel(Path source, Path outputDir, List<Rendition> renditions,
+                                                    Consumer<TranscodeProgress> progress,
+                                                    Consumer<TranscodeResult> completed)
+            throws IOException, InterruptedException {
+        int concurrent = Math.min(maxParallelEncodes, renditions.size());
+        int threadsPerEncode = Math.max(1, cpuBudget / concurrent);
+
+        // The job progresses as the average of its renditions; fps add up across processes
+        TranscodeProgress[] latest = new TranscodeProgress[renditions.size()];
+        ProcessGroup processes = new ProcessGroup();
+        CompletionService<TranscodeResult> encodes = new ExecutorCompletionService<>(encodeExecutor);
+        List<Future<TranscodeResult>> futures = new ArrayList<>();
+        for (int i = 0; i < renditions.size(); i++) {
+            int index = i;
+            Rendition rendition = renditions.get(i);
+            futures.add(encodes.submit(() -> {
+                TranscodeResult result = encodeOne(source, outputDir, rendition, threadsPerEncode, processes, p -> {
+                    synchronized (latest) {
+                        latest[index] = p;
+                        progress.accept(combine(latest));
+                    }
+                });
+                // Reported from the encoding thread: the other renditions keep encoding meanwhile
+                completed.accept(result);
+                return result;
+            }));
+        }
+
+        // Taken in completion order, so the first failure stops the others however long they still had to go
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                encodes.take().get();
+            }
+        } catch (InterruptedException e) {
+            stop(processes, futures);
+            throw e;
+        } catch (ExecutionException e) {
+            stop(processes, futures);
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IOException("Error encoding renditions", cause);
+        }
+        return futures.stream().map(Future::resultNow).toList();
+    }
+
+    /*
+     * Cancelling the futures would only interrupt the threads, so the encodes are killed instead.
+     * A retry encodes into the same directories, so this waits until no task of the failed call is
+     * left: queued ones fail as soon as they try to start their process.
+     */
+    private static void stop(ProcessGroup processes, List<? extends Future<?>> futures) {
+        processes.destroyAll();
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (ExecutionException | CancellationException e) {
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private TranscodeResult encodeOne(Path source, Path outputDir, Rendition rendition, int threads,
+                                      ProcessGroup processes, Consumer<TranscodeProgress> progress)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(
+                "ffmpeg", "-y", "-progress", "pipe:1", "-nostats", "-i", source.toString(),
+                "-vf", "scale=" + rendition.scale()
+        ));
+        command.addAll(outputArguments(rendition, outputDir, threads));
+
+        long start = System.nanoTime();
+        record(run(command, rendition.getQuality(), progress, processes));
+        return result(rendition, outputDir, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private List<String> outputArguments(Rendition rendition, Path outputDir, int threads) {
+        Path renditionDir = outputDir.resolve(rendition.getQuality());
+        List<String> arguments = new ArrayList<>(List.of(
+                "-an",
+                "-c:v", "libx264",
+                "-crf", String.valueOf(rendition.getCrf()),
+                "-preset", rendition.getPreset()
+        ));
+        if (rendition.getMaxBitrateKbps() > 0) {
+            // Capped CRF: constant quality, but never above the peak the profile allows
+            arguments.addAll(List.of(
+                    "-maxrate", rendition.getMaxBitrateKbps() + "k",
+                    "-bufsize", (2 * rendition.getMaxBitrateKbps()) + "k"
+            ));
+        }
+        arguments.addAll(List.of(
+                "-threads", String.valueOf(threads),
+                "-sc_threshold", "0",
+                "-force_key_frames", "expr:gte(t,n_forced*" + segmentSeconds + ")",
+                "-f", "hls",
+                "-hls_time", String.valueOf(segmentSeconds),
+                "-hls_playlist_type", "vod",
+                "-hls_segment_filename", renditionDir.resolve("seg_%05d.ts").toString(),
+                renditionDir.resolve(MEDIA_PLAYLIST).toString()
+        ));
+        return arguments;
+    }
+
+    private TranscodeResult result(Rendition rendition, Path outputDir, Duration wallTime) throws IOException {
+        Path renditionDir = outputDir.resolve(rendition.getQuality());
+        Path playlist = renditionDir.resolve(MEDIA_PLAYLIST);
+        long[] bandwidth = measureBandwidth(playlist);
+        return TranscodeResult.builder()
+                .quality(rendition.getQuality())
+                .output(renditionDir)
+                .playlist(playlist)
+                .width(rendition.getWidth())
+                .height(rendition.getHeight())
+                .bandwidth(bandwidth[0])
+                .averageBandwidth(bandwidth[1])
+                .wallTime(wallTime)
+                .build();
+    }
+
+    // Returns {peak, average} bits per second over the segments listed in a media playlist
+    private long[] measureBandwidth(Path playlist) throws IOException {
+        Path dir = playlist.getParent();
+        double totalSeconds = 0;
+        long totalBytes = 0;
+        double peak = 0;
+        double segmentSeconds = 0;
+        for (String line : Files.readAllLines(playlist)) {
+            if (line.startsWith("#EXTINF:")) {
+                String value = line.substring("#EXTINF:".length());
+                int comma = value.indexOf(',');
+                segmentSeconds = Double.parseDouble(comma >= 0 ? value.substring(0, comma) : value);
+            } else if (!line.isBlank() && !line.startsWith("#")) {
+                long bytes = Files.size(dir.resolve(line.trim()));
+                totalBytes += bytes;
+                totalSeconds += segmentSeconds;
+                if (segmentSeconds > 0) {
+                    peak = Math.max(peak, bytes * 8 / segmentSeconds);
+                }
+            }
+        }
+        long average = totalSeconds > 0 ? Math.round(totalBytes * 8 / totalSeconds) : 0;
+        return new long[]{Math.round(peak), average};
+    }
+
+    // Renditions that have not reported yet count as not started
+    private static TranscodeProgress combine(TranscodeProgress[] renditions) {
+        double percent = 0;
+        boolean known = true;
+        double fps = 0;
+        double speed = 0;
+        int reporting = 0;
+        Duration encoded = null;
+        for (TranscodeProgress p : renditions) {
+            Duration done = p == null ? Duration.ZERO : p.getEncoded();
+            encoded = encoded == null || done.compareTo(encoded) < 0 ? done : encoded;
+            if (p == null) {
+                continue;
+            }
+            reporting++;
+            if (p.getPercent() == null) {
+                known = false;
+            } else {
+                percent += p.getPercent() / renditions.length;
+            }
+            fps += p.getFps();
+            speed += p.getSpeed();
+        }
+        return new TranscodeProgress(known ? percent : null, fps, reporting == 0 ? 0 : speed / reporting, encoded);
+    }
+
+    private void record(TranscodeProgress last) {
+        if (last != null && last.getFps() > 0) {
+            encodeFps.record(last.getFps());
+            encodeSpeed.record(last.getSpeed());
+        }
+    }
+
+    // Returns the last progress snapshot FFmpeg reported, or null if it reported none
+    private TranscodeProgress run(List<String> command, String label, Consumer<TranscodeProgress> progress)
+            throws IOException, InterruptedException {
+        return run(command, label, progress, new ProcessGroup());
+    }
+
+    private TranscodeProgress run(List<String> command, String label, Consumer<TranscodeProgress> progress,
+                                  ProcessGroup processes)
+            throws IOException, InterruptedException {
+        Process process = processes.start(new ProcessBuilder(command).redirectErrorStream(true));
+
+        FfmpegProgressParser parser = new FfmpegProgressParser();
+        AtomicReference<String> lastLine = new AtomicReference<>();
+        int exitCode = await(process, line -> {
+            TranscodeProgress snapshot = parser.accept(line);
+            if (snapshot != null) {
+                progress.accept(snapshot);
+            } else if (!parser.isProgressLine(line)) {
+                lastLine.set(line);
+            }
+        });
+
+        if (exitCode != 0) {
+            logger.error("FFmpeg exited with code {} while encoding {}: {}", exitCode, label, lastLine.get());
+            throw new RuntimeException("Error encoding " + label);
+        }
+        return parser.last();
+    }
+
+    /**
+     * Waits for a process while another thread hands its output lines to {@code lines}.
+     * The caller blocks in {@link Process#waitFor()} rather than on the next line, so an interrupted
+     * job kills the process right away; either way, the process is gone and its output fully read
+     * when this returns.
+     */
+    static int await(Process process, Consumer<String> lines) throws InterruptedException {
+        Thread reader = Thread.ofPlatform().daemon().name("ffmpeg-output-" + process.pid()).start(() -> {
+            try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = output.readLine()) != null) {
+                    lines.accept(line);
+                }
+            } catch (IOException e) {
+                // The pipe closes under the reader when the process is destroyed
+            }
+        });
+        try {
+            return process.waitFor();
+        } finally {
+            if (process.isAlive()) {
+                process.destroyForcibly().onExit().join();
+            }
+            joinUninterruptibly(reader);
+        }
+    }
+
+    // The process has exited, so its pipe is at EOF and the reader is about to finish
+    private static void joinUninterruptibly(Thread thread) {
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The processes started for one transcode. Once destroyed, the group kills what it started,
+     * waits for it to exit and refuses to start anything else.
+     */
+    static final class ProcessGroup {
+        // Guarded by this
+        private final List<Process> processes = new ArrayList<>();
+        private boolean destroyed;
+
+        synchronized Process start(ProcessBuilder builder) throws IOException {
+            if (destroyed) {
+                throw new IOException("The transcode was stopped");
+            }
+            Process process = builder.start();
+            processes.add(process);
+            return process;
+        }
+
+        void destroyAll() {
+            List<Process> started;
+            synchronized (this) {
+                destroyed = true;
+                started = List.copyOf(processes);
+            }
+            started.forEach(Process::destroyForcibly);
+            started.forEach(process -> process.onExit().join());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        encodeExecutor.shutdownNow();
+    }
+}
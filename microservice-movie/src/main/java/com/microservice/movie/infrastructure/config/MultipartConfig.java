@@ -0,0 +1,30 @@
+package com.microservice.movie.infrastructure.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Spools multipart uploads onto the same volume as the ingest work directory.
+ * {@code MultipartFile.transferTo(File)} into a job workspace then renames the spooled
+ * part instead of writing a multi-GB file a second time. {@code transferTo(Path)} always
+ * copies, so it must not be used for these parts.
+ */
+@Configuration
+public class MultipartConfig {
+
+    @Bean
+    public MultipartConfigElement multipartConfigElement(
+            MultipartProperties multipartProperties,
+            @Value("${ingest.work-dir:${java.io.tmpdir}/movie-ingest}") String workDir) throws IOException {
+        Path spoolDir = Files.createDirectories(Path.of(workDir, ".uploads"));
+        multipartProperties.setLocation(spoolDir.toString());
+        return multipartProperties.createMultipartConfig();
+    }
+}
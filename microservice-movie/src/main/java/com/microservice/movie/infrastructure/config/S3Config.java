@@ -6,6 +6,7 @@ import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
@@ -21,6 +22,9 @@ public class S3Config {
     private String awsSecretKey;
     @Value("${aws.region}")
     private String region;
+    // Shared by the concurrent part and file uploads
+    @Value("${storage.max-connections:32}")
+    private int maxConnections;
 
     @Bean
     public S3Client getyS3Client(){
@@ -31,6 +35,7 @@ public class S3Config {
                 .region(Region.of(region))
                 .endpointOverride(URI.create("https://s3.us-east-1.amazonaws.com"))
                 .credentialsProvider(StaticCredentialsProvider.create(basicCredentials))
+                .httpClientBuilder(ApacheHttpClient.builder().maxConnections(maxConnections))
                 .build();
     }
     @Bean
@@ -35,7 +35,10 @@ public class SecurityConfig  implements WebMvcConfigurer {
                         .requestMatchers(
                                 "/v3/api-docs/**",
                                 "/swagger-ui.html",
-                                "/swagger-ui/**"
+                                "/swagger-ui/**",
+                                "/actuator/health",
+                                // Authenticated by the shared peer token instead of a JWT
+                                "/internal/catalog/**"
                         ).permitAll()
                         .anyRequest().authenticated()
                 )
@@ -52,6 +55,8 @@ public class SecurityConfig  implements WebMvcConfigurer {
         config.setAllowedOriginPatterns(List.of("*"));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        // Paging headers of the catalog and search listings, readable by browser clients
+        config.setExposedHeaders(List.of("X-Next-Cursor", "X-Total-Count"));
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
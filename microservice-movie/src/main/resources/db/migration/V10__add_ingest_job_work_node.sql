@@ -0,0 +1,8 @@
+-- Ingest node whose volume holds the uploaded files of the job; null when any node can run it
+ALTER TABLE ingest_job
+    ADD COLUMN work_node VARCHAR(255);
+
+-- Unfinished uploads received before this column: their files are on the node that last ran them
+UPDATE ingest_job
+SET work_node = SUBSTRING_INDEX(owner, ':', 1)
+WHERE source_prefix IS NULL AND owner IS NOT NULL AND state <> 'DONE';
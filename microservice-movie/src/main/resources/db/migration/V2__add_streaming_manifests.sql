@@ -0,0 +1,4 @@
+-- HLS master playlist and optional DASH manifest keys per movie or episode
+ALTER TABLE movie
+    ADD COLUMN hls_master_url VARCHAR(500),
+    ADD COLUMN dash_manifest_url VARCHAR(500);
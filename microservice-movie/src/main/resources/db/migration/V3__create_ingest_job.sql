@@ -0,0 +1,23 @@
+-- Durable ingest queue: one row per upload, claimed by workers through a lease
+CREATE TABLE ingest_job (
+    id_job BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id_movie BIGINT NOT NULL,
+    state VARCHAR(20) NOT NULL,
+    completed_stage VARCHAR(20),
+    work_dir VARCHAR(1000) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    max_attempts INT NOT NULL,
+    last_error VARCHAR(2000),
+    owner VARCHAR(255),
+    lease_until DATETIME(6),
+    next_attempt_at DATETIME(6),
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+
+    CONSTRAINT fk_ingest_job_movie FOREIGN KEY (id_movie)
+        REFERENCES movie(id_movie)
+        ON DELETE CASCADE
+);
+
+CREATE INDEX idx_ingest_job_state ON ingest_job (state, next_attempt_at);
+CREATE INDEX idx_ingest_job_movie ON ingest_job (id_movie);
@@ -0,0 +1,9 @@
+-- Series key: the title without 'Season N' and blanks, lower-cased, so episodes of a series group in SQL
+ALTER TABLE movie ADD COLUMN series_key VARCHAR(255);
+
+UPDATE movie
+SET series_key = LOWER(REGEXP_REPLACE(REGEXP_REPLACE(title, '(?i)season\\s*[0-9]+', ''), '\\s+', ''));
+
+-- Keyset pagination of active titles by category, and first-episode lookups per series
+CREATE INDEX idx_movie_catalog ON movie (id_category, estate, id_movie);
+CREATE INDEX idx_movie_series_episode ON movie (series_key, season_number, episode_number);
@@ -0,0 +1,6 @@
+-- Live progress of the running stage, reported from the FFmpeg progress stream
+ALTER TABLE ingest_job
+    ADD COLUMN progress_percent DOUBLE,
+    ADD COLUMN encode_fps DOUBLE,
+    ADD COLUMN encode_speed DOUBLE,
+    ADD COLUMN stage_started_at DATETIME(6);
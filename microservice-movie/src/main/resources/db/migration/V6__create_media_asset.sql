@@ -0,0 +1,23 @@
+-- Content-addressed assets: one row per distinct content, shared by every title that uses it
+CREATE TABLE media_asset (
+    content_hash CHAR(64) PRIMARY KEY,
+    object_key VARCHAR(1000) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    renditions VARCHAR(255),
+    dash_packaged BOOLEAN NOT NULL DEFAULT FALSE,
+    ref_count INT NOT NULL,
+    created_at DATETIME(6) NOT NULL
+);
+
+-- The references behind ref_count: which asset each title uses in each role
+CREATE TABLE movie_asset (
+    id_movie BIGINT NOT NULL,
+    role VARCHAR(20) NOT NULL,
+    content_hash CHAR(64) NOT NULL,
+
+    PRIMARY KEY (id_movie, role),
+    CONSTRAINT fk_movie_asset_asset FOREIGN KEY (content_hash)
+        REFERENCES media_asset(content_hash)
+);
+
+CREATE INDEX idx_movie_asset_hash ON movie_asset (content_hash);
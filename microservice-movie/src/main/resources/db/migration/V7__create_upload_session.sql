@@ -0,0 +1,35 @@
+-- Direct-to-storage uploads: the client sends each source to presigned URLs, then completes the session
+CREATE TABLE upload_session (
+    id_session CHAR(36) PRIMARY KEY,
+    id_movie BIGINT NOT NULL,
+    state VARCHAR(20) NOT NULL,
+    staging_prefix VARCHAR(255) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+
+    CONSTRAINT fk_upload_session_movie FOREIGN KEY (id_movie)
+        REFERENCES movie(id_movie)
+        ON DELETE CASCADE
+);
+
+CREATE INDEX idx_upload_session_state ON upload_session (state, expires_at);
+
+-- One source file of a session; upload_id is set when the file is sent as a multipart upload
+CREATE TABLE upload_session_file (
+    id_session CHAR(36) NOT NULL,
+    role VARCHAR(20) NOT NULL,
+    object_key VARCHAR(1000) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    upload_id VARCHAR(1024),
+    part_size BIGINT,
+    part_count INT,
+
+    PRIMARY KEY (id_session, role),
+    CONSTRAINT fk_upload_session_file_session FOREIGN KEY (id_session)
+        REFERENCES upload_session(id_session)
+        ON DELETE CASCADE
+);
+
+-- Jobs of completed sessions read their sources from storage instead of a local upload
+ALTER TABLE ingest_job ADD COLUMN source_prefix VARCHAR(255);
@@ -0,0 +1,6 @@
+-- WebVTT track of the preview sprite sheets of a title, and whether an encoded ladder has one
+ALTER TABLE movie
+    ADD COLUMN thumbnail_track_url VARCHAR(500);
+
+ALTER TABLE media_asset
+    ADD COLUMN thumbnails_generated BOOLEAN NOT NULL DEFAULT FALSE;
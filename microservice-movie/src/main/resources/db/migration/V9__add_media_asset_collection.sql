@@ -0,0 +1,7 @@
+-- Assets left without references are deleted by a sweep once released_at is older than the grace
+-- period. A row marked deleting is a tombstone: no ingest may reference it while its objects go
+ALTER TABLE media_asset
+    ADD COLUMN released_at DATETIME(6),
+    ADD COLUMN deleting BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE INDEX idx_media_asset_released ON media_asset (ref_count, released_at);
@@ -0,0 +1,183 @@
+package com.microservice.movie.application.services;
+
+import com.microservice.movie.application.ports.in.MovieServicePort;
+import com.microservice.movie.domain.exceptions.MovieNotFoundException;
+import com.microservice.movie.domain.model.MediaObject;
+import com.microservice.movie.domain.model.Movie;
+import com.microservice.movie.infrastructure.adapters.out.cache.DiskMediaCacheAdapter;
+import com.microservice.movie.infrastructure.adapters.out.persistence.repository.S3Adapter;
+import com.microservice.movie.support.LocalS3Server;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MediaStreamingServiceImplTest {
+
+    private static final String BUCKET = "movies";
+    private static final String PREFIX = "media/abc/";
+    private static final int MB = 1024 * 1024;
+
+    @TempDir
+    Path cacheDir;
+
+    private LocalS3Server server;
+    private S3Client s3Client;
+    private DiskMediaCacheAdapter cache;
+    private MediaStreamingServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new LocalS3Server(0);
+        s3Client = S3Client.builder()
+                .region(Region.US_EAST_1)
+                .endpointOverride(server.endpoint())
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .httpClientBuilder(ApacheHttpClient.builder().maxConnections(16))
+                .build();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // Objects up to 1 MB are cached, larger ones always come from storage
+        cache = new DiskMediaCacheAdapter(registry, cacheDir.toString(), 16, 1);
+        S3Adapter storage = new S3Adapter();
+        ReflectionTestUtils.setField(storage, "s3Client", s3Client);
+        ReflectionTestUtils.setField(storage, "mediaCachePort", cache);
+
+        Movie movie = Movie.builder()
+                .idMovie(7L)
+                .estate(true)
+                .hlsMasterUrl(PREFIX + "hls/master.m3u8")
+                .build();
+        MovieServicePort movies = mock(MovieServicePort.class);
+        when(movies.findById(7L)).thenReturn(movie);
+
+        service = new MediaStreamingServiceImpl(movies, storage, cache, registry, BUCKET, 8, 2000, 600);
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3Client.close();
+        server.close();
+    }
+
+    @Test
+    void servesRangesFromStorage() throws Exception {
+        byte[] segment = randomBytes(3 * MB);
+        server.putObject(BUCKET, PREFIX + "hls/720p/segment_00001.ts", segment);
+
+        MediaObject object = service.open(7L, "/hls/720p/segment_00001.ts");
+        assertFalse(object.isCached());
+        assertEquals(segment.length, object.getSize());
+        assertEquals("video/mp2t", object.getContentType());
+
+        assertArrayEquals(Arrays.copyOfRange(segment, 1000, 2 * MB + 1),
+                read(object, 1000, 2 * MB));
+        assertArrayEquals(segment, read(object, 0, segment.length - 1));
+    }
+
+    @Test
+    void cachesSmallObjectsOnFirstRead() throws Exception {
+        byte[] segment = randomBytes(MB / 2);
+        server.putObject(BUCKET, PREFIX + "hls/480p/segment_00002.ts", segment);
+
+        MediaObject first = service.open(7L, "/hls/480p/segment_00002.ts");
+        assertTrue(first.isCached());
+        assertArrayEquals(segment, Files.readAllBytes(cacheDir.resolve(BUCKET).resolve(PREFIX + "hls/480p/segment_00002.ts")));
+
+        // Later reads never reach storage
+        server.close();
+        MediaObject second = service.open(7L, "/hls/480p/segment_00002.ts");
+        assertTrue(second.isCached());
+        assertArrayEquals(Arrays.copyOfRange(segment, 10, 5000), read(second, 10, 4999));
+    }
+
+    @Test
+    void openedCopiesAreKeptUntilReleased() throws Exception {
+        byte[] segment = randomBytes(MB / 2);
+        server.putObject(BUCKET, PREFIX + "hls/480p/segment_00004.ts", segment);
+        MediaObject object = service.open(7L, "/hls/480p/segment_00004.ts");
+        assertTrue(object.isCached());
+
+        // Enough newer objects to evict everything else in the 16 MB cache
+        for (int i = 0; i < 20; i++) {
+            cache.get(BUCKET, "filler/" + i, target -> Files.write(target, randomBytes(MB)));
+        }
+        assertArrayEquals(segment, read(object, 0, segment.length - 1));
+
+        service.release(object);
+        cache.get(BUCKET, "filler/last", target -> Files.write(target, randomBytes(MB)));
+        assertFalse(Files.exists(object.getLocalFile()));
+    }
+
+    @Test
+    void concurrentReadersGetTheirOwnRanges() throws Exception {
+        byte[] segment = randomBytes(4 * MB);
+        server.putObject(BUCKET, PREFIX + "hls/1080p/segment_00003.ts", segment);
+        MediaObject object = service.open(7L, "/hls/1080p/segment_00003.ts");
+
+        ExecutorService readers = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> reads = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                long start = (long) i * 100_000;
+                long end = start + MB - 1;
+                reads.add(readers.submit(() -> {
+                    assertArrayEquals(Arrays.copyOfRange(segment, (int) start, (int) end + 1), read(object, start, end));
+                    return null;
+                }));
+            }
+            for (Future<?> read : reads) {
+                read.get();
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsPathsOutsideTheLadder() {
+        assertThrows(IllegalArgumentException.class, () -> service.open(7L, "/banner/banner.jpg"));
+        assertThrows(IllegalArgumentException.class, () -> service.open(7L, "/hls/../../other/hls/master.m3u8"));
+        assertThrows(MovieNotFoundException.class, () -> service.open(7L, "/hls/720p/missing.ts"));
+    }
+
+    private byte[] read(MediaObject object, long start, long end) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.transfer(object, start, end, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,141 @@
+package com.microservice.movie.application.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StageGraphTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, Duration> timings = new ConcurrentHashMap<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void runsIndependentStagesTogetherAndDependentsAfterThem() throws Exception {
+        StageGraph graph = new StageGraph(executor, timings::put);
+        // Each of the first two stages waits for the other: they only finish if they run at the same time
+        CountDownLatch both = new CountDownLatch(2);
+        List<String> order = new CopyOnWriteArrayList<>();
+        graph.add("encode", () -> {
+            both.countDown();
+            assertTrue(both.await(5, TimeUnit.SECONDS));
+            order.add("encode");
+        });
+        graph.add("assets", () -> {
+            both.countDown();
+            assertTrue(both.await(5, TimeUnit.SECONDS));
+            order.add("assets");
+        });
+        graph.add("publish", () -> order.add("publish"), "encode", "assets");
+
+        graph.run();
+
+        assertEquals(3, order.size());
+        assertEquals("publish", order.get(2));
+        assertEquals(Set.of("encode", "assets", "publish"), timings.keySet());
+    }
+
+    @Test
+    void waitsForStagesAddedWhileRunning() throws Exception {
+        StageGraph graph = new StageGraph(executor, timings::put);
+        AtomicBoolean uploaded = new AtomicBoolean();
+        graph.add("encode", () -> graph.add("upload-720p", () -> {
+            Thread.sleep(100);
+            uploaded.set(true);
+        }));
+
+        graph.run();
+
+        assertTrue(uploaded.get());
+        assertTrue(timings.containsKey("upload-720p"));
+    }
+
+    @Test
+    void firstFailureInterruptsRunningStagesAndSkipsTheRest() throws Exception {
+        StageGraph graph = new StageGraph(executor, timings::put);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        AtomicBoolean published = new AtomicBoolean();
+        graph.add("encode", () -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        });
+        graph.add("assets", () -> {
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            throw new IOException("storage unavailable");
+        });
+        graph.add("publish", () -> published.set(true), "encode", "assets");
+
+        IOException error = assertThrows(IOException.class, graph::run);
+
+        assertEquals("storage unavailable", error.getMessage());
+        assertTrue(interrupted.get());
+        assertFalse(published.get());
+        assertFalse(timings.containsKey("assets"));
+    }
+
+    @Test
+    @EnabledOnOs({OS.LINUX, OS.MAC})
+    void failureStopsAStageBlockedOnAnExternalProcess() throws Exception {
+        StageGraph graph = new StageGraph(executor, timings::put);
+        AtomicReference<Process> encoder = new AtomicReference<>();
+        CountDownLatch started = new CountDownLatch(1);
+        // Same shape as the FFmpeg adapter: block in waitFor and kill the process when interrupted
+        graph.add("encode", () -> {
+            Process process = new ProcessBuilder("sleep", "60").redirectErrorStream(true).start();
+            encoder.set(process);
+            started.countDown();
+            try {
+                process.waitFor();
+            } finally {
+                if (process.isAlive()) {
+                    process.destroyForcibly().onExit().join();
+                }
+            }
+        });
+        graph.add("assets", () -> {
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            throw new IOException("storage unavailable");
+        });
+
+        long start = System.nanoTime();
+        assertThrows(IOException.class, graph::run);
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toSeconds() < 10);
+        assertFalse(encoder.get().isAlive());
+    }
+
+    @Test
+    void rejectsUnknownDependencies() {
+        StageGraph graph = new StageGraph(executor, timings::put);
+        assertThrows(IllegalArgumentException.class, () -> graph.add("publish", () -> { }, "encode"));
+    }
+}
@@ -0,0 +1,114 @@
+package com.microservice.movie.infrastructure.adapters.in.rest.controller;
+
+import com.microservice.movie.application.ports.in.IngestJobServicePort;
+import com.microservice.movie.application.ports.in.MovieServicePort;
+import com.microservice.movie.domain.model.IngestWorkspace;
+import com.microservice.movie.domain.model.Movie;
+import com.microservice.movie.infrastructure.adapters.in.rest.dto.MovieDto;
+import com.microservice.movie.infrastructure.adapters.in.rest.mapper.MovieRestMapperImpl;
+import org.apache.catalina.core.ApplicationPart;
+import org.apache.tomcat.util.http.fileupload.disk.DiskFileItem;
+import org.apache.tomcat.util.http.fileupload.util.FileItemHeadersImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.support.StandardMultipartHttpServletRequest;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MovieControllerUploadTest {
+
+    private static final String[] PARTS = {"file", "audioEn", "audioEs", "subsEn", "subsEs", "imageBanner"};
+
+    @TempDir
+    Path tempDir;
+
+    private final MovieServicePort movies = mock(MovieServicePort.class);
+    private final IngestJobServicePort jobs = mock(IngestJobServicePort.class);
+
+    @Test
+    void spooledPartsAreMovedIntoTheWorkspace() throws Exception {
+        Path spoolDir = Files.createDirectories(tempDir.resolve(".uploads"));
+        IngestWorkspace workspace = new IngestWorkspace(Files.createDirectories(tempDir.resolve("movie_7")));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/create/s3");
+        request.setContentType("multipart/form-data; boundary=test");
+        Map<String, Path> spooled = new LinkedHashMap<>();
+        Map<String, Object> inodes = new LinkedHashMap<>();
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        for (String name : PARTS) {
+            byte[] content = (name + " content").repeat(1000).getBytes(StandardCharsets.UTF_8);
+            DiskFileItem item = spool(spoolDir, name, content);
+            spooled.put(name, item.getStoreLocation().toPath());
+            inodes.put(name, Files.getAttribute(item.getStoreLocation().toPath(), "unix:ino"));
+            contents.put(name, content);
+            request.addPart(new ApplicationPart(item, spoolDir.toFile()));
+        }
+        StandardMultipartHttpServletRequest multipart = new StandardMultipartHttpServletRequest(request);
+
+        MovieController controller = controller(workspace);
+        ResponseEntity<MovieDto> response = controller.createMovieWithUpload("{\"title\":\"Title\"}",
+                file(multipart, "file"), file(multipart, "audioEn"), file(multipart, "audioEs"),
+                file(multipart, "subsEn"), file(multipart, "subsEs"), file(multipart, "imageBanner"));
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        verify(jobs).enqueue(7L, workspace);
+        verify(jobs, never()).discardWorkspace(any());
+        Map<String, Path> targets = Map.of(
+                "file", workspace.video(), "audioEn", workspace.audioEn(), "audioEs", workspace.audioEs(),
+                "subsEn", workspace.subsEn(), "subsEs", workspace.subsEs(), "imageBanner", workspace.banner());
+        for (String name : PARTS) {
+            Path target = targets.get(name);
+            assertArrayEquals(contents.get(name), Files.readAllBytes(target), name);
+            // Same inode, and nothing left in the spool: the part was renamed, not copied
+            assertEquals(inodes.get(name), Files.getAttribute(target, "unix:ino"), name);
+            assertFalse(Files.exists(spooled.get(name)), name);
+        }
+    }
+
+    private MovieController controller(IngestWorkspace workspace) throws Exception {
+        when(movies.save(any())).thenReturn(Movie.builder().idMovie(7L).title("Title").build());
+        when(jobs.createWorkspace(7L)).thenReturn(workspace);
+
+        MovieController controller = new MovieController();
+        ReflectionTestUtils.setField(controller, "movieServicePort", movies);
+        ReflectionTestUtils.setField(controller, "movieRestMapper", new MovieRestMapperImpl());
+        ReflectionTestUtils.setField(controller, "ingestJobServicePort", jobs);
+        return controller;
+    }
+
+    // A part as Tomcat leaves it once the request is read: a file in the spool directory
+    private static DiskFileItem spool(Path spoolDir, String name, byte[] content) throws Exception {
+        DiskFileItem item = new DiskFileItem(name, "application/octet-stream", false, name + ".bin", 0, spoolDir.toFile());
+        FileItemHeadersImpl headers = new FileItemHeadersImpl();
+        headers.addHeader("Content-Disposition", "form-data; name=\"" + name + "\"; filename=\"" + name + ".bin\"");
+        headers.addHeader("Content-Type", "application/octet-stream");
+        item.setHeaders(headers);
+        try (OutputStream out = item.getOutputStream()) {
+            out.write(content);
+        }
+        return item;
+    }
+
+    private static MultipartFile file(StandardMultipartHttpServletRequest request, String name) {
+        return request.getFile(name);
+    }
+}
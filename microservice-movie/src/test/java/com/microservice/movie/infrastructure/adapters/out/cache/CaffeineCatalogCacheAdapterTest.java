@@ -0,0 +1,62 @@
+package com.microservice.movie.infrastructure.adapters.out.cache;
+
+import com.microservice.movie.domain.model.MovieChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CaffeineCatalogCacheAdapterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CaffeineCatalogCacheAdapter cache = new CaffeineCatalogCacheAdapter(registry, 100, 300);
+
+    @Test
+    void loadsOnceUntilTheCatalogChanges() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(List.of(1), cache.get("page", () -> List.of(loads.incrementAndGet())));
+        assertEquals(List.of(1), cache.get("page", () -> List.of(loads.incrementAndGet())));
+        assertEquals(1, loads.get());
+
+        cache.onMovieChanged(new MovieChangedEvent(7L, null));
+        assertEquals(List.of(2), cache.get("page", () -> List.of(loads.incrementAndGet())));
+
+        assertEquals(1, registry.get("movie.catalog.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(2, registry.get("movie.catalog.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void readStartedBeforeAChangeIsNotServedAfterIt() throws Exception {
+        CountDownLatch querying = new CountDownLatch(1);
+        CountDownLatch changed = new CountDownLatch(1);
+        CompletableFuture<List<String>> stale = CompletableFuture.supplyAsync(() -> cache.get("search", () -> {
+            querying.countDown();
+            await(changed);
+            return List.of("before");
+        }));
+
+        // The change lands while the first read is still querying the catalog
+        querying.await();
+        cache.onMovieChanged(new MovieChangedEvent(7L, null));
+        changed.countDown();
+        assertEquals(List.of("before"), stale.get(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of("after"), cache.get("search", () -> List.of("after")));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.microservice.movie.infrastructure.adapters.out.cache;
+
+import com.microservice.movie.application.ports.out.MediaCachePort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiskMediaCacheAdapterTest {
+
+    private static final String BUCKET = "movies";
+    private static final int KB = 1024;
+    private static final int MB = 1024 * KB;
+
+    @TempDir
+    Path cacheDir;
+
+    private SimpleMeterRegistry registry;
+    private DiskMediaCacheAdapter cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        registry = new SimpleMeterRegistry();
+        // 1 MB in all, any object up to that size
+        cache = new DiskMediaCacheAdapter(registry, cacheDir.toString(), 1, 1);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedObjectOnceFull() throws Exception {
+        byte[] a = randomBytes(400 * KB);
+        byte[] b = randomBytes(400 * KB + 1);
+        byte[] c = randomBytes(400 * KB + 2);
+        Path fileA = cache.get(BUCKET, "a.ts", writing(a));
+        Path fileB = cache.get(BUCKET, "b.ts", writing(b));
+        assertEquals(a.length + b.length, size());
+
+        // Reading a makes b the least recently used
+        assertEquals(fileA, cache.find(BUCKET, "a.ts").orElseThrow());
+        Path fileC = cache.get(BUCKET, "c.ts", writing(c));
+
+        assertTrue(cache.find(BUCKET, "b.ts").isEmpty());
+        assertFalse(Files.exists(fileB));
+        assertArrayEquals(a, Files.readAllBytes(fileA));
+        assertArrayEquals(c, Files.readAllBytes(fileC));
+        assertEquals(a.length + c.length, size());
+        assertEquals(1, registry.get("storage.disk.cache.evictions").counter().count());
+    }
+
+    @Test
+    void forgetsObjectsDeletedBehindItsBack() throws Exception {
+        byte[] a = randomBytes(100 * KB);
+        Path file = cache.get(BUCKET, "a.ts", writing(a));
+        Files.delete(file);
+
+        assertTrue(cache.find(BUCKET, "a.ts").isEmpty());
+        assertEquals(0, size());
+    }
+
+    @Test
+    void rebuildsItsIndexFromDisk() throws Exception {
+        byte[] a = randomBytes(300 * KB);
+        byte[] b = randomBytes(200 * KB);
+        cache.get(BUCKET, "hls/a.ts", writing(a));
+        cache.get(BUCKET, "hls/b.ts", writing(b));
+
+        registry = new SimpleMeterRegistry();
+        cache = new DiskMediaCacheAdapter(registry, cacheDir.toString(), 1, 1);
+
+        assertEquals(a.length + b.length, size());
+        assertArrayEquals(b, Files.readAllBytes(cache.find(BUCKET, "hls/b.ts").orElseThrow()));
+    }
+
+    @Test
+    void refusesObjectsOverTheMaxObjectSize() throws Exception {
+        assertTrue(cache.accepts(MB));
+        assertFalse(cache.accepts(MB + 1));
+
+        assertThrows(IOException.class, () -> cache.get(BUCKET, "big.ts", writing(randomBytes(MB + 1))));
+
+        assertTrue(cache.find(BUCKET, "big.ts").isEmpty());
+        assertFalse(Files.exists(cacheDir.resolve(BUCKET).resolve("big.ts")));
+        assertEquals(0, size());
+        try (var partial = Files.list(cacheDir.resolve(".tmp"))) {
+            assertEquals(0, partial.count());
+        }
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        byte[] segment = randomBytes(500 * KB);
+        int readers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        MediaCachePort.Loader slow = target -> {
+            loads.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            Files.write(target, segment);
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(readers);
+        try {
+            List<Future<Path>> reads = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                reads.add(pool.submit(() -> cache.get(BUCKET, "hls/segment_00001.ts", slow)));
+            }
+            // Every reader but the loading one is waiting on its load
+            awaitRequests("hit", readers - 1);
+            release.countDown();
+
+            Path first = reads.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<Path> read : reads) {
+                assertEquals(first, read.get(10, TimeUnit.SECONDS));
+            }
+            assertArrayEquals(segment, Files.readAllBytes(first));
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, requests("miss"));
+        assertEquals(segment.length, size());
+    }
+
+    @Test
+    void aFailedLoadFailsItsWaitersAndIsRetried() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        MediaCachePort.Loader failing = target -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            throw new IOException("storage unavailable");
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Path> loading = pool.submit(() -> cache.get(BUCKET, "a.ts", failing));
+            awaitRequests("miss", 1);
+            Future<Path> waiting = pool.submit(() -> cache.get(BUCKET, "a.ts", failing));
+            awaitRequests("hit", 1);
+            release.countDown();
+
+            for (Future<Path> read : List.of(loading, waiting)) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> read.get(10, TimeUnit.SECONDS));
+                assertInstanceOf(IOException.class, e.getCause());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        byte[] a = randomBytes(10 * KB);
+        assertArrayEquals(a, Files.readAllBytes(cache.get(BUCKET, "a.ts", writing(a))));
+        assertEquals(2, requests("miss"));
+    }
+
+    @Test
+    void pinnedObjectsAreNotEvicted() throws Exception {
+        byte[] a = randomBytes(600 * KB);
+        Path fileA = cache.get(BUCKET, "a.ts", writing(a));
+        assertTrue(cache.pin(fileA));
+        assertTrue(cache.pin(fileA));
+
+        // Over its size while a is being sent
+        Path fileB = cache.get(BUCKET, "b.ts", writing(randomBytes(600 * KB)));
+        assertEquals(1200 * KB, size());
+
+        // Still pinned by one reader: b goes instead
+        cache.unpin(fileA);
+        cache.get(BUCKET, "c.ts", writing(randomBytes(100 * KB)));
+        assertFalse(Files.exists(fileB));
+        assertArrayEquals(a, Files.readAllBytes(fileA));
+
+        cache.unpin(fileA);
+        cache.get(BUCKET, "d.ts", writing(randomBytes(400 * KB)));
+        assertFalse(Files.exists(fileA));
+        assertFalse(cache.pin(fileA));
+        assertEquals(500 * KB, size());
+    }
+
+    @Test
+    void readsACopyThatIsEvictedWhileItIsRead() throws Exception {
+        byte[] a = randomBytes(600 * KB);
+        Path[] read = new Path[1];
+        byte[] content = cache.read(BUCKET, "a.ts", writing(a), file -> {
+            read[0] = file;
+            // A fill that would evict a if it were not pinned
+            cache.get(BUCKET, "b.ts", writing(randomBytes(600 * KB)));
+            return Files.readAllBytes(file);
+        });
+        assertArrayEquals(a, content);
+
+        // Unpinned once read
+        cache.get(BUCKET, "c.ts", writing(randomBytes(100 * KB)));
+        assertFalse(Files.exists(read[0]));
+    }
+
+    @Test
+    void keepsKeysInsideTheCache() {
+        assertThrows(IllegalArgumentException.class, () -> cache.get(BUCKET, "../../outside.ts", writing(new byte[1])));
+        assertThrows(IllegalArgumentException.class, () -> cache.get(".", ".tmp/x", writing(new byte[1])));
+        assertTrue(cache.find(BUCKET, "../../outside.ts").isEmpty());
+    }
+
+    private long size() {
+        return (long) registry.get("storage.disk.cache.size").gauge().value();
+    }
+
+    private double requests(String result) {
+        return registry.get("storage.disk.cache.requests").tag("result", result).counter().count();
+    }
+
+    private void awaitRequests(String result, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (requests(result) < count) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for " + count + " " + result + "s");
+            Thread.sleep(10);
+        }
+    }
+
+    private static MediaCachePort.Loader writing(byte[] bytes) {
+        return target -> Files.write(target, bytes);
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,161 @@
+package com.microservice.movie.infrastructure.adapters.out.persistence.repository;
+
+import com.microservice.movie.support.LocalS3Server;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class S3AdapterTest {
+
+    private static final String BUCKET = "movies";
+    private static final int MB = 1024 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private LocalS3Server server;
+    private S3Client s3Client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // 16 MB/s per connection, roughly what a single S3 stream sustains from one host
+        server = new LocalS3Server(16L * MB);
+        s3Client = S3Client.builder()
+                .region(Region.US_EAST_1)
+                .endpointOverride(server.endpoint())
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(true)
+                        .chunkedEncodingEnabled(false)
+                        .build())
+                .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+                .httpClientBuilder(ApacheHttpClient.builder().maxConnections(16))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3Client.close();
+        server.close();
+    }
+
+    @Test
+    void filesBelowTheThresholdAreSentWithASinglePut() throws Exception {
+        byte[] content = randomBytes(6 * MB);
+        Path file = Files.write(tempDir.resolve("video.ts"), content);
+
+        S3Adapter adapter = adapter(1024, 16, 4, 1);
+        assertTrue(adapter.uploadFile(BUCKET, "single/video.ts", file));
+        adapter.stopExecutors();
+
+        assertArrayEquals(content, server.object(BUCKET, "single/video.ts"));
+        assertTrue(server.partUploads(BUCKET, "single/video.ts").isEmpty());
+    }
+
+    @Test
+    void largeFilesAreSentAsConcurrentParts() throws Exception {
+        byte[] content = randomBytes(20 * MB + 123);
+        Path file = Files.write(tempDir.resolve("video.ts"), content);
+
+        S3Adapter adapter = adapter(5, 5, 4, 1);
+        assertTrue(adapter.uploadFile(BUCKET, "multipart/video.ts", file));
+        adapter.stopExecutors();
+
+        assertArrayEquals(content, server.object(BUCKET, "multipart/video.ts"));
+        // Four full 5 MB parts and the remainder, each holding its own range of the file
+        List<LocalS3Server.PartUpload> parts = server.partUploads(BUCKET, "multipart/video.ts").stream()
+                .sorted(Comparator.comparingInt(LocalS3Server.PartUpload::partNumber))
+                .toList();
+        assertEquals(5, parts.size());
+        for (int i = 0; i < parts.size(); i++) {
+            LocalS3Server.PartUpload part = parts.get(i);
+            int start = i * 5 * MB;
+            assertEquals(i + 1, part.partNumber());
+            assertArrayEquals(Arrays.copyOfRange(content, start, Math.min(content.length, start + 5 * MB)), part.content(),
+                    "part " + part.partNumber());
+        }
+        // The parts were in flight at the same time rather than one after the other
+        assertTrue(parts.get(0).overlaps(parts.get(1)) && parts.get(0).overlaps(parts.get(2))
+                        && parts.get(0).overlaps(parts.get(3)),
+                "the first parts did not overlap");
+    }
+
+    @Test
+    void uploadFilesSendsEveryAssetOfATitle() throws Exception {
+        Map<String, Path> files = new LinkedHashMap<>();
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        for (int i = 0; i < 8; i++) {
+            byte[] content = randomBytes(MB / 2 + i);
+            String key = "title/hls/720p/seg_0000" + i + ".ts";
+            files.put(key, Files.write(tempDir.resolve("seg_" + i + ".ts"), content));
+            contents.put(key, content);
+        }
+
+        S3Adapter adapter = adapter(64, 16, 4, 4);
+        adapter.uploadFiles(BUCKET, files);
+        adapter.stopExecutors();
+
+        contents.forEach((key, content) -> assertArrayEquals(content, server.object(BUCKET, key), key));
+    }
+
+    @Test
+    void downloadsWholeObjectsAndRanges() throws Exception {
+        // Several times the transfer buffer, so the copy loops
+        byte[] content = randomBytes(3 * MB + 17);
+        server.putObject(BUCKET, "title/hls/1080p/seg_00001.ts", content);
+        S3Adapter adapter = adapter(64, 16, 1, 1);
+
+        // A longer stale file is replaced, not partly overwritten
+        Path target = Files.createDirectories(tempDir.resolve("download")).resolve("seg_00001.ts");
+        Files.write(target, randomBytes(4 * MB));
+        adapter.downloadTo(BUCKET, "title/hls/1080p/seg_00001.ts", target);
+        assertArrayEquals(content, Files.readAllBytes(target));
+
+        ByteArrayOutputStream range = new ByteArrayOutputStream();
+        long written = adapter.downloadRange(BUCKET, "title/hls/1080p/seg_00001.ts", 100, 2 * MB, Channels.newChannel(range));
+        assertEquals(2 * MB - 99, written);
+        assertArrayEquals(Arrays.copyOfRange(content, 100, 2 * MB + 1), range.toByteArray());
+        adapter.stopExecutors();
+    }
+
+    private S3Adapter adapter(long thresholdMb, long partSizeMb, int partConcurrency, int fileConcurrency) {
+        S3Adapter adapter = new S3Adapter();
+        ReflectionTestUtils.setField(adapter, "s3Client", s3Client);
+        ReflectionTestUtils.setField(adapter, "multipartThresholdMb", thresholdMb);
+        ReflectionTestUtils.setField(adapter, "partSizeMb", partSizeMb);
+        ReflectionTestUtils.setField(adapter, "partConcurrency", partConcurrency);
+        ReflectionTestUtils.setField(adapter, "fileConcurrency", fileConcurrency);
+        adapter.startExecutors();
+        return adapter;
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,58 @@
+package com.microservice.movie.infrastructure.adapters.out.transcoding;
+
+import com.microservice.movie.domain.model.Rendition;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConfiguredEncodingProfileAdapterTest {
+
+    @Test
+    void usesTheBuiltInLadderWithoutProfiles() {
+        List<Rendition> renditions = new ConfiguredEncodingProfileAdapter(new EncodingProfileProperties()).getRenditions();
+
+        assertEquals(List.of("1080p", "720p", "480p"), renditions.stream().map(Rendition::getQuality).toList());
+    }
+
+    @Test
+    void sortsTheConfiguredProfileHighestFirst() {
+        EncodingProfileProperties properties = properties(List.of(
+                new Rendition("480p", 854, 480, 32, "fast", 1500),
+                new Rendition("720p", 1280, 720, 30, "fast", 3500)));
+
+        List<Rendition> renditions = new ConfiguredEncodingProfileAdapter(properties).getRenditions();
+
+        assertEquals(List.of("720p", "480p"), renditions.stream().map(Rendition::getQuality).toList());
+    }
+
+    @Test
+    void rejectsProfilesThatCannotBePublished() {
+        assertThrows(IllegalStateException.class,
+                () -> new ConfiguredEncodingProfileAdapter(properties(List.of())));
+        assertThrows(IllegalStateException.class,
+                () -> new ConfiguredEncodingProfileAdapter(properties(List.of(
+                        new Rendition("1440p", 2560, 1440, 26, "fast", 9000)))));
+        assertThrows(IllegalStateException.class,
+                () -> new ConfiguredEncodingProfileAdapter(properties(List.of(
+                        new Rendition("720p", 1280, 720, 30, "fast", 3500),
+                        new Rendition("720p", 960, 720, 30, "fast", 3000)))));
+    }
+
+    @Test
+    void rejectsAnUnknownProfileName() {
+        EncodingProfileProperties properties = properties(EncodingProfileProperties.builtInLadder());
+        properties.setProfile("mobile");
+
+        assertThrows(IllegalStateException.class, () -> new ConfiguredEncodingProfileAdapter(properties));
+    }
+
+    private static EncodingProfileProperties properties(List<Rendition> renditions) {
+        EncodingProfileProperties properties = new EncodingProfileProperties();
+        properties.setProfiles(Map.of(EncodingProfileProperties.DEFAULT_PROFILE, renditions));
+        return properties;
+    }
+}
@@ -0,0 +1,148 @@
+package com.microservice.movie.infrastructure.adapters.out.transcoding;
+
+import com.microservice.movie.domain.model.TranscodeProgress;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FfmpegProgressParserTest {
+
+    // Output of "ffmpeg -progress pipe:1 -nostats -i in.mp4 ... -f hls ..." with stderr merged into it
+    private static final List<String> OUTPUT = List.of(
+            "ffmpeg version 6.1.1 Copyright (c) 2000-2023 the FFmpeg developers",
+            "Input #0, mov,mp4,m4a,3gp,3g2,mj2, from 'video.mp4':",
+            "  Metadata:",
+            "    major_brand     : isom",
+            "  Duration: 00:00:10.00, start: 0.000000, bitrate: 1205 kb/s",
+            "  Stream #0:0[0x1](und): Video: h264 (High) (avc1 / 0x31637661), yuv420p, 1920x1080, 1200 kb/s, 30 fps",
+            "Stream mapping:",
+            "  Stream #0:0 -> #0:0 (h264 (native) -> h264 (libx264))",
+            "frame=0",
+            "fps=0.00",
+            "stream_0_0_q=0.0",
+            "bitrate=N/A",
+            "total_size=N/A",
+            "out_time_us=N/A",
+            "out_time_ms=N/A",
+            "out_time=N/A",
+            "dup_frames=0",
+            "drop_frames=0",
+            "speed=N/A",
+            "progress=continue",
+            "[hls @ 0x5581c0a3e2c0] Opening '/work/hls/720p/seg_00000.ts' for writing",
+            "frame=120",
+            "fps=59.87",
+            "stream_0_0_q=28.0",
+            "bitrate=N/A",
+            "total_size=N/A",
+            "out_time_us=4000000",
+            "out_time_ms=4000000",
+            "out_time=00:00:04.000000",
+            "dup_frames=0",
+            "drop_frames=0",
+            "speed=1.99x",
+            "progress=continue",
+            "frame=300",
+            "fps=60.12",
+            "stream_0_0_q=-1.0",
+            "bitrate=N/A",
+            "total_size=N/A",
+            "out_time_us=9966667",
+            "out_time_ms=9966667",
+            "out_time=00:00:09.966667",
+            "dup_frames=0",
+            "drop_frames=0",
+            "speed=2.01x",
+            "progress=end",
+            "[libx264 @ 0x5581c0a41840] kb/s:1034.21"
+    );
+
+    @Test
+    void reportsOneSnapshotPerProgressBlock() {
+        FfmpegProgressParser parser = new FfmpegProgressParser();
+        List<TranscodeProgress> snapshots = new ArrayList<>();
+        for (String line : OUTPUT) {
+            TranscodeProgress snapshot = parser.accept(line);
+            if (snapshot != null) {
+                snapshots.add(snapshot);
+            }
+        }
+
+        assertEquals(3, snapshots.size());
+
+        // Values are N/A until the first frames are out
+        TranscodeProgress first = snapshots.get(0);
+        assertEquals(0.0, first.getPercent());
+        assertEquals(0.0, first.getFps());
+        assertEquals(0.0, first.getSpeed());
+        assertEquals(Duration.ZERO, first.getEncoded());
+
+        TranscodeProgress second = snapshots.get(1);
+        assertEquals(40.0, second.getPercent(), 1e-9);
+        assertEquals(59.87, second.getFps(), 1e-9);
+        assertEquals(1.99, second.getSpeed(), 1e-9);
+        assertEquals(Duration.ofSeconds(4), second.getEncoded());
+
+        // The last frame ends before the container duration, yet the encode is complete
+        TranscodeProgress last = snapshots.get(2);
+        assertEquals(100.0, last.getPercent());
+        assertEquals(60.12, last.getFps(), 1e-9);
+        assertEquals(2.01, last.getSpeed(), 1e-9);
+        assertSame(last, parser.last());
+    }
+
+    @Test
+    void keepsTheLastKnownValueWhenFfmpegReportsNotAvailable() {
+        FfmpegProgressParser parser = new FfmpegProgressParser();
+        parser.accept("Duration: 00:01:40.00, start: 0.000000, bitrate: 900 kb/s");
+        parser.accept("fps=24.00");
+        parser.accept("out_time_us=10000000");
+        parser.accept("speed=1.50x");
+        parser.accept("progress=continue");
+
+        parser.accept("fps=N/A");
+        parser.accept("out_time_us=N/A");
+        parser.accept("speed=N/A");
+        TranscodeProgress snapshot = parser.accept("progress=continue");
+
+        assertEquals(10.0, snapshot.getPercent(), 1e-9);
+        assertEquals(24.0, snapshot.getFps());
+        assertEquals(1.5, snapshot.getSpeed());
+    }
+
+    @Test
+    void hasNoPercentageWithoutTheInputDuration() {
+        FfmpegProgressParser parser = new FfmpegProgressParser();
+        parser.accept("out_time_us=2000000");
+        TranscodeProgress snapshot = parser.accept("progress=continue");
+
+        assertNull(snapshot.getPercent());
+        assertEquals(Duration.ofSeconds(2), snapshot.getEncoded());
+        assertNull(new FfmpegProgressParser().last());
+    }
+
+    // Lines that are not progress keys are what the adapter logs as the last line of a failed encode
+    @Test
+    void tellsProgressKeysFromDiagnostics() {
+        FfmpegProgressParser parser = new FfmpegProgressParser();
+
+        assertTrue(parser.isProgressLine("out_time_us=N/A"));
+        assertTrue(parser.isProgressLine("stream_0_0_q=28.0"));
+        assertTrue(parser.isProgressLine("progress=end"));
+        assertFalse(parser.isProgressLine("  Duration: 00:00:10.00, start: 0.000000, bitrate: 1205 kb/s"));
+        assertFalse(parser.isProgressLine("[hls @ 0x5581c0a3e2c0] Opening '/work/hls/720p/seg_00000.ts' for writing"));
+        assertFalse(parser.isProgressLine("video.mp4: No such file or directory"));
+        assertFalse(parser.isProgressLine("Conversion failed!"));
+
+        List<String> diagnostics = OUTPUT.stream().filter(line -> !parser.isProgressLine(line)).toList();
+        assertEquals("[libx264 @ 0x5581c0a41840] kb/s:1034.21", diagnostics.get(diagnostics.size() - 1));
+    }
+}
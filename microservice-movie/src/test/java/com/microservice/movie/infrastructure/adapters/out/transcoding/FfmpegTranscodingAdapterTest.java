@@ -0,0 +1,75 @@
+package com.microservice.movie.infrastructure.adapters.out.transcoding;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@EnabledOnOs({OS.LINUX, OS.MAC})
+class FfmpegTranscodingAdapterTest {
+
+    @Test
+    void awaitReturnsTheExitCodeOnceEveryLineIsRead() throws Exception {
+        Process process = new ProcessBuilder("sh", "-c", "echo progress=continue; echo progress=end; exit 3")
+                .redirectErrorStream(true)
+                .start();
+        List<String> lines = new CopyOnWriteArrayList<>();
+
+        int exitCode = FfmpegTranscodingAdapter.await(process, lines::add);
+
+        assertEquals(3, exitCode);
+        assertEquals(List.of("progress=continue", "progress=end"), lines);
+    }
+
+    @Test
+    void interruptingAwaitKillsAProcessThatStopsWriting() throws Exception {
+        // Prints one line, then blocks without writing: a reader on the pipe would never notice an interrupt
+        Process process = new ProcessBuilder("sh", "-c", "echo frame=1; exec sleep 60")
+                .redirectErrorStream(true)
+                .start();
+        CountDownLatch firstLine = new CountDownLatch(1);
+        AtomicReference<Throwable> outcome = new AtomicReference<>();
+        Thread worker = new Thread(() -> {
+            try {
+                FfmpegTranscodingAdapter.await(process, line -> firstLine.countDown());
+            } catch (Throwable e) {
+                outcome.set(e);
+            }
+        });
+        worker.start();
+        assertTrue(firstLine.await(5, TimeUnit.SECONDS));
+
+        worker.interrupt();
+        worker.join(Duration.ofSeconds(5));
+
+        assertFalse(worker.isAlive());
+        assertInstanceOf(InterruptedException.class, outcome.get());
+        assertFalse(process.isAlive());
+    }
+
+    @Test
+    void destroyedGroupKillsWhatItStartedAndStartsNothingElse() throws Exception {
+        FfmpegTranscodingAdapter.ProcessGroup processes = new FfmpegTranscodingAdapter.ProcessGroup();
+        Process first = processes.start(new ProcessBuilder("sleep", "60"));
+        Process second = processes.start(new ProcessBuilder("sleep", "60"));
+
+        processes.destroyAll();
+
+        assertFalse(first.isAlive());
+        assertFalse(second.isAlive());
+        assertThrows(IOException.class, () -> processes.start(new ProcessBuilder("sleep", "60")));
+    }
+}
@@ -13,7 +13,11 @@ public interface AlbumServicePort {
     List<Album> searchAlbumsByTitle(String title);
     List<Album> findByUserId(String userId);
     Album saveAlbumWithSongs(Album album, List<Long> songIds);
-    void addSongToAlbum(Long albumId, Long songId);
-    void removeSongFromAlbum(Long albumId, Long songId);
+    // The album must belong to userId
+    void addSongToAlbum(Long albumId, Long songId, String userId);
+    void removeSongFromAlbum(Long albumId, Long songId, String userId);
+    // Return the number of songs actually added or removed
+    int addSongsToAlbum(Long albumId, List<Long> songIds, String userId);
+    int removeSongsFromAlbum(Long albumId, List<Long> songIds, String userId);
     List<Song> getSongsByAlbumIdForUser(Long albumId, String userId);
 }
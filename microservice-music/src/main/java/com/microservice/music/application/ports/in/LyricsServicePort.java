@@ -0,0 +1,11 @@
+package com.microservice.music.application.ports.in;
+
+import com.microservice.music.domain.model.LyricsWindow;
+
+import java.util.Optional;
+
+public interface LyricsServicePort {
+    // Timed lines of the song in the language ("es" or "en") sounding in [fromMs, toMs);
+    // empty when there is no such song, or it has no timed lyrics in that language
+    Optional<LyricsWindow> getWindow(Long idSong, String language, long fromMs, long toMs);
+}
@@ -1,14 +1,18 @@
 package com.microservice.music.application.ports.in;
 
 import com.microservice.music.domain.model.Song;
+import com.microservice.music.domain.model.SongSummary;
 
 import java.util.List;
 
 public interface SongServicePort {
     Song saveSong(Song song);
     Song getSongById(Long id);
-    List<Song> getAllSongs();
+    List<Song> getSongsByIds(List<Long> ids);
+    List<SongSummary> getSongPage(Long afterId, int limit);
     void deleteSong(Long id);
+    // Deletes the stored files that no song points at and no upload has pinned
+    void collectUnreferencedFiles();
     List<Song> getSongsByAlbumId(Long albumId);
     List<Song> searchSongsByTitle(String title);
 }
@@ -2,6 +2,7 @@ package com.microservice.music.application.ports.out;
 
 import com.microservice.music.domain.model.Album;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +13,12 @@ public interface AlbumPersistencePort {
     void deleteById(Long id);
     List<Album> findByTitleContains(String title);
     List<Album> findByUserId(String userId);
+    // Owner of the album without loading it or its songs
+    Optional<String> findUserIdById(Long id);
+    // Single album_song rows: the album and its songs are not loaded. Both return whether a row changed
+    boolean addSong(Long albumId, Long songId);
+    boolean removeSong(Long albumId, Long songId);
+    // Many album_song rows per statement; both return the number of rows changed
+    int addSongs(Long albumId, Collection<Long> songIds);
+    int removeSongs(Long albumId, Collection<Long> songIds);
 }
@@ -6,7 +6,15 @@ import java.time.Duration;
 
 public interface FileStoragePort {
     boolean uploadFile( String key, Path file);
+    boolean exists(String key);
+    void deleteFile(String key);
     void downloadFile(String bucket, String key) throws IOException;
+    // Text content of the object, read through the local disk cache
+    String readObjectAsString(String key);
+    // Content of the object, read through the local disk cache
+    byte[] readObjectAsBytes(String key) throws IOException;
+    // Streams the whole object into the file (replaced if it exists) through a fixed-size buffer
+    void downloadTo(String key, Path target) throws IOException;
     String generatePresignedUploadUrl( String key, Duration duration);
     String generatePresignedDownloadUrl( String key);
 }
\ No newline at end of file
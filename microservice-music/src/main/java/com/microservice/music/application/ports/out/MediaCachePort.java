@@ -0,0 +1,30 @@
+package com.microservice.music.application.ports.out;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface MediaCachePort {
+    // Local copy of a stored object, if this instance holds one
+    Optional<Path> find(String bucket, String key);
+    // Whether objects of this size are kept locally
+    boolean accepts(long size);
+    // Keeps a local copy from being evicted until it is unpinned as many times; false when it is no longer held
+    boolean pin(Path file);
+    void unpin(Path file);
+    // Local copy of the object, written by the loader on a miss; concurrent misses of a key share one load.
+    // Fails, keeping nothing, when the loaded object is larger than accepts() allows
+    Path get(String bucket, String key, Loader loader) throws IOException;
+    // Reads the local copy as get() returns it, pinned until the reader is done with it
+    <T> T read(String bucket, String key, Loader loader, Reader<T> reader) throws IOException;
+
+    @FunctionalInterface
+    interface Loader {
+        void load(Path target) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(Path file) throws IOException;
+    }
+}
@@ -1,17 +1,29 @@
 package com.microservice.music.application.ports.out;
 
 import com.microservice.music.domain.model.Song;
+import com.microservice.music.domain.model.SongLyricsKeys;
+import com.microservice.music.domain.model.SongSummary;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface SongPersistencePort {
     Song save(Song song);
     Optional<Song> findById(Long id);
-    List<Song> findAll();
+    // Songs after afterId (all of them when null) in id order, without lyrics or albums
+    List<SongSummary> findSummaryPage(Long afterId, int limit);
+    // Only the lyrics keys of the song, empty when there is no song
+    Optional<SongLyricsKeys> findLyricsKeys(Long id);
     void deleteById(Long id);
     List<Song> findByAlbumId(Long albumId);
     List<Song> findByTitleContains(String title);
     Optional<Song> getSongById(Long id);
+    boolean existsById(Long id);
+    // One query per chunk of ids, whatever their number; unknown ids are skipped
+    List<Song> findAllById(Collection<Long> ids);
+    // The ids that belong to a song, without loading the songs
+    Set<Long> findExistingIds(Collection<Long> ids);
 
 }
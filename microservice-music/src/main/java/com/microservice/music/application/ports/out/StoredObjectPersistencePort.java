@@ -0,0 +1,15 @@
+package com.microservice.music.application.ports.out;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StoredObjectPersistencePort {
+    // Keeps the file from the sweep until the given time; false while the sweep is deleting it
+    boolean pin(String key, LocalDateTime until);
+    // Makes the file of a deleted song a candidate for the sweep
+    void release(String key);
+    // Marks up to limit unpinned files no song points at as deleting and returns their keys
+    List<String> claimUnreferenced(int limit);
+    // Drops the row of a claimed file once the file is deleted
+    void remove(String key);
+}
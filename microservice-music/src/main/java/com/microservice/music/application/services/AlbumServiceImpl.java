@@ -5,12 +5,20 @@ import com.microservice.music.application.ports.out.AlbumPersistencePort;
 import com.microservice.music.application.ports.out.SongPersistencePort;
 import com.microservice.music.domain.exceptions.AccessDeniedToAlbumException;
 import com.microservice.music.domain.exceptions.AlbumNotFoundException;
+import com.microservice.music.domain.exceptions.InvalidSongIdsException;
+import com.microservice.music.domain.exceptions.SongNotFoundException;
 import com.microservice.music.domain.model.Album;
 import com.microservice.music.domain.model.Song;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 @Service
 public class AlbumServiceImpl implements AlbumServicePort {
 
@@ -52,35 +60,77 @@ public class AlbumServiceImpl implements AlbumServicePort {
         return albumPersistencePort.findByUserId(userId);
     }
 
+    // A few statements whatever the number of songs: one to resolve them, one to save the album, one to link them
     @Override
+    @Transactional
     public Album saveAlbumWithSongs(Album album, List<Long> songIds) {
-        List<Song> songs = songIds.stream()
-                .map(id -> songPersistencePort.getSongById(id)
-                        .orElseThrow(() -> new IllegalArgumentException("There is no song with ID: " + id)))
-                .toList();
-        album.setSongs(songs);
-        return albumPersistencePort.save(album);
+        List<Long> ids = songIds == null ? List.of() : songIds.stream().distinct().toList();
+        requireNonNull(ids);
+        Map<Long, Song> found = new HashMap<>();
+        songPersistencePort.findAllById(ids).forEach(song -> found.put(song.getIdSong(), song));
+        requireAll(ids, found.keySet());
+
+        album.setSongs(new ArrayList<>());
+        Album saved = albumPersistencePort.save(album);
+        if (!ids.isEmpty()) {
+            albumPersistencePort.addSongs(saved.getIdAlbum(), ids);
+        }
+        saved.setSongs(ids.stream().map(found::get).collect(Collectors.toCollection(ArrayList::new)));
+        return saved;
     }
 
+    // One join row per call, whatever the size of the album; adding a song twice is a no-op
     @Override
-    public void addSongToAlbum(Long albumId, Long songId) {
-        Album album = albumPersistencePort.findById(albumId)
-                .orElseThrow(() -> new RuntimeException("Album not found"));
-        Song song = songPersistencePort.findById(songId)
-                .orElseThrow(() -> new RuntimeException("Song not found"));
-
-        if (album.getSongs().stream().noneMatch(s -> s.getIdSong().equals(songId))) {
-            album.getSongs().add(song);
-            albumPersistencePort.save(album);
+    public void addSongToAlbum(Long albumId, Long songId, String userId) {
+        requireOwner(albumId, userId);
+        if (!songPersistencePort.existsById(songId)) {
+            throw new SongNotFoundException();
         }
+        albumPersistencePort.addSong(albumId, songId);
     }
 
     @Override
-    public void removeSongFromAlbum(Long albumId, Long songId) {
-        Album album = albumPersistencePort.findById(albumId)
-                .orElseThrow(() -> new RuntimeException("Album not found"));
-        album.getSongs().removeIf(s -> s.getIdSong().equals(songId));
-        albumPersistencePort.save(album);
+    public void removeSongFromAlbum(Long albumId, Long songId, String userId) {
+        requireOwner(albumId, userId);
+        albumPersistencePort.removeSong(albumId, songId);
+    }
+
+    @Override
+    public int addSongsToAlbum(Long albumId, List<Long> songIds, String userId) {
+        requireOwner(albumId, userId);
+        requireNonNull(songIds);
+        requireAll(songIds, songPersistencePort.findExistingIds(songIds));
+        return albumPersistencePort.addSongs(albumId, songIds);
+    }
+
+    @Override
+    public int removeSongsFromAlbum(Long albumId, List<Long> songIds, String userId) {
+        requireOwner(albumId, userId);
+        return albumPersistencePort.removeSongs(albumId, songIds);
+    }
+
+    // Only the owner column is read, so the check costs the same as an existence check
+    private void requireOwner(Long albumId, String userId) {
+        String owner = albumPersistencePort.findUserIdById(albumId)
+                .orElseThrow(AlbumNotFoundException::new);
+        if (!owner.equals(userId)) {
+            throw new AccessDeniedToAlbumException("You do not have permission to edit this album.");
+        }
+    }
+
+    // Checked before the lookup: a null id would only match nothing and be reported as missing
+    private static void requireNonNull(List<Long> songIds) {
+        if (songIds.contains(null)) {
+            throw new InvalidSongIdsException("Song ids cannot be null.");
+        }
+    }
+
+    private static void requireAll(List<Long> songIds, Set<Long> existing) {
+        List<Long> missing = songIds.stream().filter(id -> !existing.contains(id)).distinct().toList();
+        if (!missing.isEmpty()) {
+            throw new InvalidSongIdsException("There is no song with ID: " + missing.stream()
+                    .map(String::valueOf).collect(Collectors.joining(", ")));
+        }
     }
 
     @Override
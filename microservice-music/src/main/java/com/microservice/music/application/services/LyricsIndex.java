@@ -0,0 +1,275 @@
+package com.microservice.music.application.services;
+
+import com.microservice.music.domain.model.LyricLine;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Timed lyrics (LRC or WebVTT) parsed into parallel arrays: line start and end times in
+ * milliseconds and the UTF-8 text of every line in one block. This is also the stored format,
+ * so loading an index is a copy of its arrays and a window lookup is a binary search.
+ * <p>
+ * A line lasts until the next one starts in LRC (the last one until the end of the song) and
+ * for its cue in WebVTT, where cues may overlap.
+ */
+final class LyricsIndex {
+
+    // Open-ended last line of an LRC file
+    static final int UNTIL_END = Integer.MAX_VALUE;
+
+    private static final int MAGIC = 0x4C595231; // "LYR1"
+    private static final String INDEX_EXTENSION = ".idx";
+
+    private static final Pattern LRC_TIME = Pattern.compile("\\[(\\d+):(\\d{1,2})(?:[.:](\\d{1,3}))?]");
+    private static final Pattern LRC_OFFSET = Pattern.compile("\\[offset:\\s*([+-]?\\d+)\\s*]", Pattern.CASE_INSENSITIVE);
+    private static final Pattern VTT_TIMING = Pattern.compile(
+            "^((?:\\d+:)?\\d{1,2}:\\d{2}\\.\\d{3})\\s+-->\\s+((?:\\d+:)?\\d{1,2}:\\d{2}\\.\\d{3})");
+    private static final Pattern VTT_TAG = Pattern.compile("<[^>]*>");
+
+    private final int[] starts;
+    private final int[] ends;
+    // Text of line i is text[offsets[i], offsets[i + 1])
+    private final int[] offsets;
+    private final byte[] text;
+    // Latest end among lines 0..i, so that the first line still sounding at a time can be found by binary search
+    private final int[] maxEnds;
+
+    private LyricsIndex(int[] starts, int[] ends, int[] offsets, byte[] text) {
+        this.starts = starts;
+        this.ends = ends;
+        this.offsets = offsets;
+        this.text = text;
+        this.maxEnds = new int[starts.length];
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < ends.length; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+
+    // Key of the index stored next to a lyrics file
+    static String keyFor(String lyricsKey) {
+        int slash = lyricsKey.lastIndexOf('/');
+        int dot = lyricsKey.lastIndexOf('.');
+        return (dot > slash ? lyricsKey.substring(0, dot) : lyricsKey) + INDEX_EXTENSION;
+    }
+
+    // Null when the lyrics carry no timing
+    static LyricsIndex parse(String lyrics) {
+        String content = lyrics.startsWith("\uFEFF") ? lyrics.substring(1) : lyrics;
+        List<LyricLine> lines = content.startsWith("WEBVTT") ? parseVtt(content) : parseLrc(content);
+        if (lines.isEmpty()) {
+            return null;
+        }
+        return of(lines);
+    }
+
+    static LyricsIndex decode(byte[] bytes) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a lyrics index");
+            }
+            int count = in.readInt();
+            if (count < 0 || count > bytes.length) {
+                throw new IOException("Corrupt lyrics index");
+            }
+            int[] starts = readInts(in, count);
+            int[] ends = readInts(in, count);
+            int[] offsets = readInts(in, count + 1);
+            byte[] text = new byte[offsets[count]];
+            in.readFully(text);
+            return new LyricsIndex(starts, ends, offsets, text);
+        }
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(sizeInBytes() + 8);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(starts.length);
+            writeInts(out, starts);
+            writeInts(out, ends);
+            writeInts(out, offsets);
+            out.write(text);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write a lyrics index in memory", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    int size() {
+        return starts.length;
+    }
+
+    // Approximate heap held by the index
+    int sizeInBytes() {
+        return 16 * starts.length + 4 + text.length;
+    }
+
+    // Lines sounding at some point of [fromMs, toMs), in start order
+    List<LyricLine> window(long fromMs, long toMs) {
+        int first = firstEndingAfter(fromMs);
+        int last = firstStartingAtOrAfter(toMs);
+        List<LyricLine> lines = new ArrayList<>(Math.max(0, last - first));
+        for (int i = first; i < last; i++) {
+            if (ends[i] > fromMs) {
+                lines.add(line(i));
+            }
+        }
+        return lines;
+    }
+
+    private LyricLine line(int i) {
+        String content = new String(text, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8);
+        return new LyricLine(starts[i], ends[i] == UNTIL_END ? null : (long) ends[i], content);
+    }
+
+    private int firstEndingAfter(long timeMs) {
+        int low = 0;
+        int high = maxEnds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (maxEnds[mid] > timeMs) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private int firstStartingAtOrAfter(long timeMs) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] >= timeMs) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static LyricsIndex of(List<LyricLine> lines) {
+        List<LyricLine> sorted = new ArrayList<>(lines);
+        sorted.sort(Comparator.comparingLong(LyricLine::getStartMs));
+        int count = sorted.size();
+        int[] starts = new int[count];
+        int[] ends = new int[count];
+        int[] offsets = new int[count + 1];
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        for (int i = 0; i < count; i++) {
+            LyricLine line = sorted.get(i);
+            starts[i] = (int) line.getStartMs();
+            ends[i] = line.getEndMs() == null ? UNTIL_END : (int) Math.max(line.getStartMs(), line.getEndMs());
+            text.writeBytes(line.getText().getBytes(StandardCharsets.UTF_8));
+            offsets[i + 1] = text.size();
+        }
+        return new LyricsIndex(starts, ends, offsets, text.toByteArray());
+    }
+
+    // [mm:ss.xx] tags, several per line for repeated lines; empty lines only end the previous one
+    private static List<LyricLine> parseLrc(String content) {
+        long offset = 0;
+        Matcher offsetTag = LRC_OFFSET.matcher(content);
+        if (offsetTag.find()) {
+            offset = Long.parseLong(offsetTag.group(1));
+        }
+        List<long[]> times = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        for (String raw : content.split("\\R")) {
+            Matcher tag = LRC_TIME.matcher(raw);
+            int textStart = 0;
+            List<Long> lineTimes = new ArrayList<>();
+            while (tag.find(textStart) && tag.start() == textStart) {
+                lineTimes.add(lrcMillis(tag) - offset);
+                textStart = tag.end();
+            }
+            String lineText = raw.substring(textStart).trim();
+            for (Long time : lineTimes) {
+                times.add(new long[]{Math.max(0, time), texts.size()});
+                texts.add(lineText);
+            }
+        }
+        times.sort(Comparator.comparingLong(t -> t[0]));
+        List<LyricLine> lines = new ArrayList<>();
+        for (int i = 0; i < times.size(); i++) {
+            String lineText = texts.get((int) times.get(i)[1]);
+            if (lineText.isEmpty()) {
+                continue;
+            }
+            Long end = i + 1 < times.size() ? times.get(i + 1)[0] : null;
+            lines.add(new LyricLine(times.get(i)[0], end, lineText));
+        }
+        return lines;
+    }
+
+    // Cues as "start --> end" followed by their text; NOTE, STYLE and REGION blocks are skipped
+    private static List<LyricLine> parseVtt(String content) {
+        List<LyricLine> lines = new ArrayList<>();
+        String[] rows = content.split("\\R");
+        for (int i = 0; i < rows.length; i++) {
+            Matcher timing = VTT_TIMING.matcher(rows[i].trim());
+            if (!timing.find()) {
+                continue;
+            }
+            StringBuilder cue = new StringBuilder();
+            while (i + 1 < rows.length && !rows[i + 1].isBlank()) {
+                String row = VTT_TAG.matcher(rows[++i]).replaceAll("").trim();
+                if (!row.isEmpty()) {
+                    cue.append(cue.isEmpty() ? "" : "\n").append(row);
+                }
+            }
+            if (!cue.isEmpty()) {
+                lines.add(new LyricLine(vttMillis(timing.group(1)), vttMillis(timing.group(2)), cue.toString()));
+            }
+        }
+        return lines;
+    }
+
+    private static long lrcMillis(Matcher tag) {
+        long millis = (Long.parseLong(tag.group(1)) * 60 + Long.parseLong(tag.group(2))) * 1000;
+        String fraction = tag.group(3);
+        if (fraction != null) {
+            // .x tenths, .xx hundredths, .xxx milliseconds
+            millis += Long.parseLong(fraction) * (long) Math.pow(10, 3 - fraction.length());
+        }
+        return millis;
+    }
+
+    private static long vttMillis(String time) {
+        String[] parts = time.split(":");
+        long millis = 0;
+        for (int i = 0; i < parts.length - 1; i++) {
+            millis = (millis + Long.parseLong(parts[i])) * 60;
+        }
+        String[] seconds = parts[parts.length - 1].split("\\.");
+        return (millis + Long.parseLong(seconds[0])) * 1000 + Long.parseLong(seconds[1]);
+    }
+
+    private static int[] readInts(DataInputStream in, int count) throws IOException {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+}
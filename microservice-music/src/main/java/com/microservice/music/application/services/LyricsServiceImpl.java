@@ -0,0 +1,143 @@
+package com.microservice.music.application.services;
+
+import com.microservice.music.application.ports.in.LyricsServicePort;
+import com.microservice.music.application.ports.out.FileStoragePort;
+import com.microservice.music.application.ports.out.SongPersistencePort;
+import com.microservice.music.domain.model.LyricsWindow;
+import com.microservice.music.domain.model.SongLyricsKeys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Serves time windows of timed lyrics from their binary {@link LyricsIndex}, so players get the
+ * few lines around the playback position instead of the whole file.
+ * <p>
+ * Indexes are kept in memory, least recently used evicted first once they hold more than
+ * {@code lyrics.cache.max-size-mb}. They are keyed by the content-addressed lyrics key, so songs
+ * sharing a file share its index. A miss reads the index written at upload, or parses the
+ * lyrics file when it has none (files uploaded before indexing existed).
+ */
+@Service
+public class LyricsServiceImpl implements LyricsServicePort {
+
+    // Charged for lyrics without timing, which are cached as such
+    private static final int UNTIMED_ENTRY_BYTES = 64;
+
+    private final SongPersistencePort songPersistencePort;
+    private final FileStoragePort fileStoragePort;
+    private final long maxSizeBytes;
+
+    // Access-ordered: the first entry is the least recently used. Guarded by this
+    private final LinkedHashMap<String, Optional<LyricsIndex>> indexes = new LinkedHashMap<>(256, 0.75f, true);
+    private long sizeBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public LyricsServiceImpl(SongPersistencePort songPersistencePort,
+                             FileStoragePort fileStoragePort,
+                             MeterRegistry meterRegistry,
+                             @Value("${lyrics.cache.max-size-mb:64}") long maxSizeMb) {
+        this.songPersistencePort = songPersistencePort;
+        this.fileStoragePort = fileStoragePort;
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+
+        this.hits = Counter.builder("lyrics.index.cache.requests")
+                .tag("result", "hit")
+                .description("Lyrics windows served from an index held in memory")
+                .register(meterRegistry);
+        this.misses = Counter.builder("lyrics.index.cache.requests")
+                .tag("result", "miss")
+                .description("Lyrics windows that had to load their index")
+                .register(meterRegistry);
+        Gauge.builder("lyrics.index.cache.size", this, LyricsServiceImpl::currentSize)
+                .description("Bytes of lyrics indexes held in memory")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<LyricsWindow> getWindow(Long idSong, String language, long fromMs, long toMs) {
+        // Polled during playback: only the lyrics keys are read, not the song and its albums
+        Optional<SongLyricsKeys> found = songPersistencePort.findLyricsKeys(idSong);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        SongLyricsKeys keys = found.get();
+        String key = switch (language) {
+            case "es" -> keys.getLyricsEs();
+            case "en" -> keys.getLyricsEn();
+            default -> throw new IllegalArgumentException("Unsupported lyrics language: " + language);
+        };
+        if (key == null) {
+            return Optional.empty();
+        }
+        return index(key).map(index -> LyricsWindow.builder()
+                .idSong(idSong)
+                .language(language)
+                .fromMs(fromMs)
+                .toMs(toMs)
+                .totalLines(index.size())
+                .lines(index.window(fromMs, toMs))
+                .build());
+    }
+
+    private Optional<LyricsIndex> index(String lyricsKey) {
+        synchronized (this) {
+            Optional<LyricsIndex> cached = indexes.get(lyricsKey);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        // Concurrent misses of a key may both load it: indexes are small and the result is the same
+        Optional<LyricsIndex> loaded = load(lyricsKey);
+        add(lyricsKey, loaded);
+        return loaded;
+    }
+
+    private Optional<LyricsIndex> load(String lyricsKey) {
+        String indexKey = LyricsIndex.keyFor(lyricsKey);
+        try {
+            if (fileStoragePort.exists(indexKey)) {
+                return Optional.of(LyricsIndex.decode(fileStoragePort.readObjectAsBytes(indexKey)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading lyrics index " + indexKey, e);
+        }
+        return Optional.ofNullable(LyricsIndex.parse(fileStoragePort.readObjectAsString(lyricsKey)));
+    }
+
+    private synchronized void add(String lyricsKey, Optional<LyricsIndex> index) {
+        Optional<LyricsIndex> previous = indexes.put(lyricsKey, index);
+        sizeBytes += weight(index) - (previous == null ? 0 : weight(previous));
+        Iterator<Map.Entry<String, Optional<LyricsIndex>>> eldest = indexes.entrySet().iterator();
+        while (sizeBytes > maxSizeBytes && eldest.hasNext()) {
+            Map.Entry<String, Optional<LyricsIndex>> entry = eldest.next();
+            if (entry.getKey().equals(lyricsKey)) {
+                continue;
+            }
+            eldest.remove();
+            sizeBytes -= weight(entry.getValue());
+        }
+    }
+
+    private synchronized long currentSize() {
+        return sizeBytes;
+    }
+
+    private static long weight(Optional<LyricsIndex> index) {
+        return index.map(LyricsIndex::sizeInBytes).orElse(UNTIMED_ENTRY_BYTES);
+    }
+}
@@ -1,18 +1,40 @@
 package com.microservice.music.application.services;
 
 import com.microservice.music.application.ports.in.SongServicePort;
+import com.microservice.music.application.ports.out.FileStoragePort;
 import com.microservice.music.application.ports.out.SongPersistencePort;
+import com.microservice.music.application.ports.out.StoredObjectPersistencePort;
 import com.microservice.music.domain.exceptions.SongNotFoundException;
 import com.microservice.music.domain.model.Song;
+import com.microservice.music.domain.model.SongSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 public class SongServiceImpl implements SongServicePort {
+    private static final String LYRICS_PREFIX = "lyrics/";
+
     @Autowired
     private SongPersistencePort songPersistencePort;
+    @Autowired
+    private FileStoragePort fileStoragePort;
+    @Autowired
+    private StoredObjectPersistencePort storedObjectPersistencePort;
+    @Value("${storage.gc.batch-size:100}")
+    private int collectBatch;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
     @Override
     public Song saveSong(Song song) {
         return songPersistencePort.save(song);
@@ -24,17 +46,49 @@ public class SongServiceImpl implements SongServicePort {
                 .orElseThrow(SongNotFoundException:: new);
     }
 
+    // One query for the whole list, returned in the order of the ids; unknown ids are skipped
+    @Override
+    public List<Song> getSongsByIds(List<Long> ids) {
+        Map<Long, Song> found = new HashMap<>();
+        songPersistencePort.findAllById(ids).forEach(song -> found.put(song.getIdSong(), song));
+        return ids.stream().distinct().map(found::get).filter(Objects::nonNull).toList();
+    }
+
     @Override
-    public List<Song> getAllSongs() {
-        return songPersistencePort.findAll();
+    public List<SongSummary> getSongPage(Long afterId, int limit) {
+        return songPersistencePort.findSummaryPage(afterId, limit);
     }
 
     @Override
     public void deleteSong(Long id) {
-        if(songPersistencePort.findById(id).isEmpty()){
-            throw new SongNotFoundException();
-        }
+        Song song = songPersistencePort.findById(id)
+                .orElseThrow(SongNotFoundException::new);
         songPersistencePort.deleteById(id);
+
+        // Files are content addressed and may be shared: the sweep deletes those no other song points at
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(song.getAudioUrl());
+        keys.add(song.getLyricsEs());
+        keys.add(song.getLyricsEn());
+        keys.remove(null);
+        keys.forEach(storedObjectPersistencePort::release);
+    }
+
+    @Override
+    public void collectUnreferencedFiles() {
+        for (String key : storedObjectPersistencePort.claimUnreferenced(collectBatch)) {
+            try {
+                fileStoragePort.deleteFile(key);
+                if (key.startsWith(LYRICS_PREFIX)) {
+                    fileStoragePort.deleteFile(LyricsIndex.keyFor(key));
+                }
+                storedObjectPersistencePort.remove(key);
+                logger.info("Deleted unreferenced file {}", key);
+            } catch (RuntimeException e) {
+                // The row stays claimed, so the next sweep deletes the file again
+                logger.warn("Could not delete unreferenced file {} from storage", key, e);
+            }
+        }
     }
 
     @Override
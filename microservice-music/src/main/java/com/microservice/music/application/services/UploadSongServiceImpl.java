@@ -2,58 +2,226 @@ package com.microservice.music.application.services;
 
 import com.microservice.music.application.ports.in.UploadSongPort;
 import com.microservice.music.application.ports.out.FileStoragePort;
+import com.microservice.music.application.ports.out.StoredObjectPersistencePort;
 import com.microservice.music.domain.model.Song;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.UUID;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+/**
+ * Stores song files under the SHA-256 of their content, so a file uploaded again (or shared by
+ * several songs) is stored once. Objects are reference counted by the songs pointing at them.
+ * <p>
+ * Each part of the request is streamed to a temp file and hashed on the way, so no file is held
+ * on the heap. The audio and the lyrics are stored at the same time on a pool of
+ * {@code storage.upload.concurrency} threads shared by all uploads; every temp file is deleted
+ * by the task that wrote it, whether or not the upload succeeded.
+ * <p>
+ * Stored files are pinned for {@code storage.gc.pin-minutes}, so the sweep cannot delete a file
+ * this upload found already stored before the song pointing at it is saved.
+ */
 @Service
 public class UploadSongServiceImpl implements UploadSongPort {
+    private static final int PIN_ATTEMPTS = 10;
+    private static final long PIN_RETRY_MILLIS = 500;
+
     @Autowired
     private FileStoragePort fileStoragePort;
+    @Autowired
+    private StoredObjectPersistencePort storedObjectPersistencePort;
+    @Value("${storage.upload.concurrency:6}")
+    private int uploadConcurrency;
+    @Value("${storage.gc.pin-minutes:60}")
+    private long pinMinutes;
+
+    private ExecutorService uploadExecutor;
+
+    @PostConstruct
+    void startExecutor() {
+        uploadExecutor = Executors.newFixedThreadPool(Math.max(1, uploadConcurrency));
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        uploadExecutor.shutdownNow();
+    }
+
     @Override
     public Song processAndUploadSong(MultipartFile audioFile,
                                      MultipartFile lyricsEs,
                                      MultipartFile lyricsEn,
                                      Song song) throws IOException {
-        String basePath = song.getTitle().replace(" ", "_") + "_" + UUID.randomUUID();
-
+        List<Future<String>> uploads = new ArrayList<>();
         // Upload .mp3 audio
-        String audioKey = basePath + "/audio.mp3";
-        Path audioPath = saveTempFile(audioFile);
-        fileStoragePort.uploadFile( audioKey, audioPath);
-        song.setAudioUrl(audioKey);
+        Future<String> audio = uploadExecutor.submit(() -> store(audioFile, "audio/", ".mp3"));
+        uploads.add(audio);
 
         // Upload Spanish lyrics
+        Future<String> es = null;
         if (lyricsEs != null && !lyricsEs.isEmpty()) {
-            String lyricsEsKey = basePath + "/lyrics_es.txt";
-            Path lyricsEsPath = saveTempFile(lyricsEs);
-            fileStoragePort.uploadFile( lyricsEsKey, lyricsEsPath);
-            song.setLyricsEs(lyricsEsKey);
+            es = uploadExecutor.submit(() -> storeLyrics(lyricsEs));
+            uploads.add(es);
         }
 
         // Upload English lyrics
+        Future<String> en = null;
         if (lyricsEn != null && !lyricsEn.isEmpty()) {
-            String lyricsEnKey = basePath + "/lyrics_en.txt";
-            Path lyricsEnPath = saveTempFile(lyricsEn);
-            fileStoragePort.uploadFile( lyricsEnKey, lyricsEnPath);
-            song.setLyricsEn(lyricsEnKey);
+            en = uploadExecutor.submit(() -> storeLyrics(lyricsEn));
+            uploads.add(en);
         }
 
+        awaitAll(uploads);
+        song.setAudioUrl(audio.resultNow());
+        if (es != null) {
+            song.setLyricsEs(es.resultNow());
+        }
+        if (en != null) {
+            song.setLyricsEn(en.resultNow());
+        }
         return song;
     }
-    private Path saveTempFile(MultipartFile file) throws IOException {
-        File tempFile = File.createTempFile("upload-", "-" + file.getOriginalFilename());
-        try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-            fos.write(file.getBytes());
+
+    private String store(MultipartFile file, String prefix, String extension) throws IOException {
+        HashedFile hashed = saveTempFile(file);
+        try {
+            return upload(hashed, prefix, extension);
+        } finally {
+            Files.deleteIfExists(hashed.path());
+        }
+    }
+
+    // Timed lyrics also get their binary index, which serves the lyrics windows instead of the file
+    private String storeLyrics(MultipartFile file) throws IOException {
+        HashedFile hashed = saveTempFile(file);
+        try {
+            String key = upload(hashed, "lyrics/", ".txt");
+            storeIndex(key, hashed.path());
+            return key;
+        } finally {
+            Files.deleteIfExists(hashed.path());
+        }
+    }
+
+    // Content-addressed key: the upload is skipped when the same content is already stored
+    private String upload(HashedFile hashed, String prefix, String extension) throws IOException {
+        String key = prefix + hashed.sha256() + extension;
+        pin(key);
+        if (!fileStoragePort.exists(key)) {
+            fileStoragePort.uploadFile(key, hashed.path());
+        }
+        return key;
+    }
+
+    // Before the existence check: a file found stored then cannot be deleted until the song is saved.
+    // A sweep deleting the same content right now is waited out, then the file is stored again
+    private void pin(String key) throws IOException {
+        for (int attempt = 1; !storedObjectPersistencePort.pin(key, LocalDateTime.now().plusMinutes(pinMinutes)); attempt++) {
+            if (attempt == PIN_ATTEMPTS) {
+                throw new IOException("File " + key + " is being deleted; upload the song again later");
+            }
+            try {
+                Thread.sleep(PIN_RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting to store " + key, e);
+            }
         }
-        return tempFile.toPath();
+    }
+
+    // The index is deleted with its lyrics, so the pin of the lyrics key covers it
+    private void storeIndex(String lyricsKey, Path lyrics) throws IOException {
+        String indexKey = LyricsIndex.keyFor(lyricsKey);
+        if (fileStoragePort.exists(indexKey)) {
+            return;
+        }
+        LyricsIndex index = LyricsIndex.parse(new String(Files.readAllBytes(lyrics), StandardCharsets.UTF_8));
+        if (index == null) {
+            // Plain lyrics without timing
+            return;
+        }
+        Path indexFile = Files.createTempFile("lyrics-", ".idx");
+        try {
+            Files.write(indexFile, index.encode());
+            fileStoragePort.uploadFile(indexKey, indexFile);
+        } finally {
+            Files.deleteIfExists(indexFile);
+        }
+    }
+
+    // The part is copied to disk through a fixed-size buffer and hashed on the way, so it is read only once
+    private HashedFile saveTempFile(MultipartFile file) throws IOException {
+        Path tempFile = Files.createTempFile("upload-", ".part");
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        return new HashedFile(tempFile, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    // Every upload is awaited, even after one failed, so that none still reads the request or
+    // holds a temp file once the request completes; the first failure is then rethrown
+    private static void awaitAll(List<Future<String>> uploads) throws IOException {
+        Throwable failure = null;
+        boolean interrupted = false;
+        for (Future<String> upload : uploads) {
+            while (true) {
+                try {
+                    upload.get();
+                    break;
+                } catch (ExecutionException e) {
+                    failure = failure == null ? e.getCause() : failure;
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure instanceof IOException io) {
+            throw io;
+        }
+        if (failure instanceof RuntimeException re) {
+            throw re;
+        }
+        if (failure != null) {
+            throw new IOException("Error storing the song files", failure);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record HashedFile(Path path, String sha256) {
     }
 }
@@ -0,0 +1,11 @@
+package com.microservice.music.domain.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidSongIdsException extends RuntimeException {
+    public InvalidSongIdsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.microservice.music.domain.model;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LyricLine {
+    private long startMs;
+    // Null for a last line that lasts until the end of the song
+    private Long endMs;
+    private String text;
+}
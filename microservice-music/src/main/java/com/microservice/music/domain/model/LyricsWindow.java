@@ -0,0 +1,20 @@
+package com.microservice.music.domain.model;
+
+import lombok.*;
+
+import java.util.List;
+
+// The timed lines of a song sounding between two instants
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LyricsWindow {
+    private Long idSong;
+    private String language;
+    private long fromMs;
+    private long toMs;
+    private int totalLines;
+    private List<LyricLine> lines;
+}
@@ -0,0 +1,15 @@
+package com.microservice.music.domain.model;
+
+import lombok.*;
+
+// The storage keys of the lyrics of a song, null for a language without lyrics
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SongLyricsKeys {
+    private Long idSong;
+    private String lyricsEs;
+    private String lyricsEn;
+}
@@ -0,0 +1,17 @@
+package com.microservice.music.domain.model;
+
+import lombok.*;
+
+// The columns of a song that listings show: no lyrics and no albums
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SongSummary {
+    private Long idSong;
+    private String title;
+    private String audioUrl;
+    private Integer durationInSeconds;
+    private Boolean visible;
+}
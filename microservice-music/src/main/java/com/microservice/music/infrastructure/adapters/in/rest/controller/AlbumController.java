@@ -26,6 +26,8 @@ import java.util.List;
 @RestController
 public class AlbumController {
 
+    private static final int MAX_BULK_SONGS = 1000;
+
     @Autowired
     private AlbumServicePort albumServicePort;
     @Autowired
@@ -165,7 +167,7 @@ public class AlbumController {
     )
     @PostMapping("/albums/{albumId}/add-song/{songId}")
     public ResponseEntity<Void> addSongToAlbum(@PathVariable("albumId") Long albumId, @PathVariable("songId") Long songId) {
-        albumServicePort.addSongToAlbum(albumId, songId);
+        albumServicePort.addSongToAlbum(albumId, songId, getAuthenticatedUserId());
         return ResponseEntity.ok().build();
     }
     //Delete a song from an album
@@ -197,7 +199,90 @@ public class AlbumController {
     )
     @DeleteMapping("/albums/{albumId}/remove-song/{songId}")
     public ResponseEntity<Void> removeSongFromAlbum(@PathVariable("albumId") Long albumId, @PathVariable("songId") Long songId) {
-        albumServicePort.removeSongFromAlbum(albumId, songId);
+        albumServicePort.removeSongFromAlbum(albumId, songId, getAuthenticatedUserId());
+        return ResponseEntity.noContent().build();
+    }
+    //Add many songs to an album
+    @Operation(
+            summary = "Add many songs to an album",
+            description = "Adds every song of the list to an album of the authenticated user in a single request, with a fixed "
+                    + "number of database statements however long the list is (at most " + MAX_BULK_SONGS + " ids). Songs already "
+                    + "in the album are left as they are. If any id has no song, nothing is added.",
+            tags = {"Album-User"},
+            responses = {
+                    @ApiResponse(
+                            responseCode = "204",
+                            description = "Songs added to album successfully"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Empty or too long list, null ids, or ids without a song",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = String.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Unauthenticated user",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = String.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "You do not have permission to edit this album.",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = String.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Album not found",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = String.class))
+                    )
+            }
+    )
+    @PostMapping("/albums/{albumId}/add-songs")
+    public ResponseEntity<Void> addSongsToAlbum(@PathVariable("albumId") Long albumId, @RequestBody List<Long> songIds) {
+        if (!isValidBulk(songIds)) {
+            return ResponseEntity.badRequest().build();
+        }
+        albumServicePort.addSongsToAlbum(albumId, songIds, getAuthenticatedUserId());
+        return ResponseEntity.noContent().build();
+    }
+    //Remove many songs from an album
+    @Operation(
+            summary = "Remove many songs from an album",
+            description = "Removes every song of the list from an album of the authenticated user in a single request "
+                    + "(at most " + MAX_BULK_SONGS + " ids). Ids that are not in the album are ignored.",
+            tags = {"Album-User"},
+            responses = {
+                    @ApiResponse(
+                            responseCode = "204",
+                            description = "Songs successfully removed from album"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Empty or too long list, or null ids",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = String.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Unauthenticated user",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = String.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "You do not have permission to edit this album.",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = String.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Album not found",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = String.class))
+                    )
+            }
+    )
+    @PostMapping("/albums/{albumId}/remove-songs")
+    public ResponseEntity<Void> removeSongsFromAlbum(@PathVariable("albumId") Long albumId, @RequestBody List<Long> songIds) {
+        if (!isValidBulk(songIds)) {
+            return ResponseEntity.badRequest().build();
+        }
+        albumServicePort.removeSongsFromAlbum(albumId, songIds, getAuthenticatedUserId());
         return ResponseEntity.noContent().build();
     }
     //Get songs from an album
@@ -236,6 +321,10 @@ public class AlbumController {
         return ResponseEntity.ok(songs.stream().map(songRestMapper::toDto).toList());
     }
 
+    private static boolean isValidBulk(List<Long> songIds) {
+        return songIds != null && !songIds.isEmpty() && songIds.size() <= MAX_BULK_SONGS && !songIds.contains(null);
+    }
+
     public String getAuthenticatedUserId() {
         Jwt jwt = (Jwt) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         return jwt.getSubject();
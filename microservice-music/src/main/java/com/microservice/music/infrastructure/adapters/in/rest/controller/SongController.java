@@ -1,12 +1,19 @@
 package com.microservice.music.infrastructure.adapters.in.rest.controller;
 
+import com.microservice.music.application.ports.in.LyricsServicePort;
 import com.microservice.music.application.ports.in.SongServicePort;
 import com.microservice.music.application.ports.in.UploadSongPort;
 import com.microservice.music.application.ports.out.FileStoragePort;
+import com.microservice.music.domain.model.LyricsWindow;
 import com.microservice.music.domain.model.Song;
+import com.microservice.music.domain.model.SongSummary;
+import com.microservice.music.infrastructure.adapters.in.rest.dto.LyricsWindowDto;
 import com.microservice.music.infrastructure.adapters.in.rest.dto.SongDto;
+import com.microservice.music.infrastructure.adapters.in.rest.dto.SongSummaryDto;
 import com.microservice.music.infrastructure.adapters.in.rest.mapper.SongRestMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -24,10 +31,18 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 
 @RequestMapping("/song")
 @RestController
 public class SongController {
+
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final long DEFAULT_LYRICS_WINDOW_MS = 30_000;
+    private static final long MAX_LYRICS_WINDOW_MS = 300_000;
     @Autowired
     private SongServicePort songServicePort;
     @Autowired
@@ -36,6 +51,8 @@ public class SongController {
     private SongRestMapper songRestMapper;
     @Autowired
     private FileStoragePort fileStoragePort;
+    @Autowired
+    private LyricsServicePort lyricsServicePort;
 
     //Upload new song (.mp3 file + lyrics)
     @Operation(
@@ -89,17 +106,37 @@ public class SongController {
     //Get all songs
     @Operation(
             summary = "Get all songs",
-            description = "Returns a list of all songs available on the system.",
+            description = "Returns a page of the songs available on the system, in id order. Each entry holds the listing "
+                    + "fields only; the lyrics are returned by the song detail. "
+                    + "When more results exist, the X-Next-Cursor header holds the cursor of the next page.",
             tags = {"Song-User"},
+            parameters = {
+                    @Parameter(
+                            name = "cursor",
+                            description = "Cursor returned in X-Next-Cursor by the previous page; omit it for the first page",
+                            example = "120"
+                    ),
+                    @Parameter(
+                            name = "size",
+                            description = "Page size, between 1 and " + MAX_PAGE_SIZE,
+                            example = "50"
+                    )
+            },
             responses = {
                     @ApiResponse(
                             responseCode = "200",
                             description = "Song list successfully obtained",
+                            headers = @Header(name = NEXT_CURSOR_HEADER, description = "Cursor of the next page, absent on the last page"),
                             content = @Content(
                                     mediaType = "application/json",
-                                    array = @ArraySchema(schema = @Schema(implementation = SongDto.class))
+                                    array = @ArraySchema(schema = @Schema(implementation = SongSummaryDto.class))
                             )
                     ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid page size",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = String.class))
+                    ),
                     @ApiResponse(
                             responseCode = "401",
                             description = "Unauthenticated user",
@@ -113,8 +150,55 @@ public class SongController {
             }
     )
     @GetMapping
-    public ResponseEntity<List<SongDto>> getAllSongs() {
-        List<Song> songs = songServicePort.getAllSongs();
+    public ResponseEntity<List<SongSummaryDto>> getAllSongs(@RequestParam(value = "cursor", required = false) Long cursor,
+                                                            @RequestParam(value = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        // One extra row tells whether there is a next page
+        List<SongSummary> page = songServicePort.getSongPage(cursor, size + 1);
+        boolean hasNext = page.size() > size;
+        List<SongSummary> songs = hasNext ? page.subList(0, size) : page;
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (hasNext) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(songs.get(size - 1).getIdSong()));
+        }
+        return response.body(songs.stream().map(songRestMapper::toSummaryDto).toList());
+    }
+    //Get many songs by ID
+    @Operation(
+            summary = "Get many songs by ID",
+            description = "Returns the songs of a list of ids (at most " + MAX_BATCH_SIZE + ") with a single query, in the order of "
+                    + "the list. Ids without a song are skipped. Like the song list, it returns storage keys, not pre-signed links.",
+            tags = {"Song-User"},
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Songs found",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = SongDto.class))
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Empty or too long list",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = String.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Unauthenticated user",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = String.class))
+                    )
+            }
+    )
+    @PostMapping("/songs/batch")
+    public ResponseEntity<List<SongDto>> getSongsByIds(@RequestBody List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Song> songs = songServicePort.getSongsByIds(ids);
         return ResponseEntity.ok(songs.stream().map(songRestMapper::toDto).toList());
     }
     //Get song by ID
@@ -165,6 +249,68 @@ public class SongController {
 
         return ResponseEntity.ok(dto);
     }
+    //Get a time window of the lyrics of a song
+    @Operation(
+            summary = "Get a time window of the lyrics of a song",
+            description = "Returns the timed lines (from LRC or WebVTT lyrics) sounding between two playback positions, "
+                    + "so a karaoke-style player can follow the song without downloading the whole lyrics file. "
+                    + "Lines carry their start and end in milliseconds; the last line of an LRC file has no end. "
+                    + "The window lasts " + DEFAULT_LYRICS_WINDOW_MS + " ms when 'to' is omitted and at most " + MAX_LYRICS_WINDOW_MS + " ms.",
+            tags = {"Song-User"},
+            parameters = {
+                    @Parameter(
+                            name = "language",
+                            description = "Lyrics language: es or en",
+                            required = true,
+                            example = "es"
+                    ),
+                    @Parameter(
+                            name = "from",
+                            description = "Start of the window, in milliseconds from the start of the song",
+                            example = "60000"
+                    ),
+                    @Parameter(
+                            name = "to",
+                            description = "End of the window (excluded), in milliseconds from the start of the song",
+                            example = "90000"
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Lyrics window obtained",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = LyricsWindowDto.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Unknown language or invalid window",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = String.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "Unauthenticated user",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = String.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Song not found, or no timed lyrics in that language",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = String.class))
+                    )
+            }
+    )
+    @GetMapping("/songs/{id}/lyrics/{language}")
+    public ResponseEntity<LyricsWindowDto> getLyricsWindow(@PathVariable("id") Long id,
+                                                           @PathVariable("language") String language,
+                                                           @RequestParam(value = "from", defaultValue = "0") long from,
+                                                           @RequestParam(value = "to", required = false) Long to) {
+        long end = to == null ? from + DEFAULT_LYRICS_WINDOW_MS : to;
+        if ((!language.equals("es") && !language.equals("en")) || from < 0 || end <= from || end - from > MAX_LYRICS_WINDOW_MS) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<LyricsWindow> window = lyricsServicePort.getWindow(id, language, from, end);
+        return window.map(w -> ResponseEntity.ok(songRestMapper.toWindowDto(w)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
     //Delete a song
     @Operation(
             summary = "Delete a song",
@@ -0,0 +1,13 @@
+package com.microservice.music.infrastructure.adapters.in.rest.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LyricLineDto {
+    private long startMs;
+    private Long endMs;
+    private String text;
+}
@@ -0,0 +1,18 @@
+package com.microservice.music.infrastructure.adapters.in.rest.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LyricsWindowDto {
+    private Long idSong;
+    private String language;
+    private long fromMs;
+    private long toMs;
+    private int totalLines;
+    private List<LyricLineDto> lines;
+}
@@ -0,0 +1,15 @@
+package com.microservice.music.infrastructure.adapters.in.rest.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SongSummaryDto {
+    private Long idSong;
+    private String title;
+    private String audioUrl;
+    private Integer durationInSeconds;
+    private Boolean visible;
+}
@@ -1,11 +1,20 @@
 package com.microservice.music.infrastructure.adapters.in.rest.mapper;
 
+import com.microservice.music.domain.model.LyricLine;
+import com.microservice.music.domain.model.LyricsWindow;
 import com.microservice.music.domain.model.Song;
+import com.microservice.music.domain.model.SongSummary;
+import com.microservice.music.infrastructure.adapters.in.rest.dto.LyricLineDto;
+import com.microservice.music.infrastructure.adapters.in.rest.dto.LyricsWindowDto;
 import com.microservice.music.infrastructure.adapters.in.rest.dto.SongDto;
+import com.microservice.music.infrastructure.adapters.in.rest.dto.SongSummaryDto;
 import org.mapstruct.Mapper;
 
 @Mapper(componentModel = "spring")
 public interface SongRestMapper {
     Song toDomain(SongDto dto);
     SongDto toDto(Song song);
+    SongSummaryDto toSummaryDto(SongSummary song);
+    LyricsWindowDto toWindowDto(LyricsWindow window);
+    LyricLineDto toLineDto(LyricLine line);
 }
@@ -0,0 +1,25 @@
+package com.microservice.music.infrastructure.adapters.in.scheduler;
+
+import com.microservice.music.application.ports.in.SongServicePort;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class StorageScheduler {
+
+    private final SongServicePort songServicePort;
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    @Scheduled(fixedDelayString = "${storage.gc.interval-ms:600000}")
+    public void collectUnreferencedFiles() {
+        try {
+            songServicePort.collectUnreferencedFiles();
+        } catch (Exception e) {
+            logger.error("Error deleting unreferenced files", e);
+        }
+    }
+}
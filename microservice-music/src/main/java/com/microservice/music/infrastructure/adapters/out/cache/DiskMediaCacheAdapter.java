@@ -0,0 +1,277 @@
+package com.microservice.music.infrastructure.adapters.out.cache;
+
+import com.microservice.music.application.ports.out.MediaCachePort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded local copies of stored objects, laid out under {@code storage.disk-cache.dir} as
+ * {@code <bucket>/<key>}.
+ * <p>
+ * Objects are evicted least recently used first once the cache grows past
+ * {@code storage.disk-cache.max-size-mb}. A miss is loaded into a temporary file and moved into
+ * place when complete, so readers never see a partial copy; concurrent misses of the same key
+ * wait for that single load instead of starting their own. A load larger than
+ * {@code storage.disk-cache.max-object-mb} fails and is not kept. The index is rebuilt from the
+ * files on disk at startup, oldest first.
+ * <p>
+ * A pinned object is being read or sent to a client and is skipped by eviction until it is
+ * unpinned, so the cache may briefly hold more than its size while every older object is pinned.
+ */
+@Component
+public class DiskMediaCacheAdapter implements MediaCachePort {
+
+    private static final String TEMP_DIR = ".tmp";
+    // Loads of an object evicted again before read() could pin it
+    private static final int READ_ATTEMPTS = 3;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final Path root;
+    private final Path tempDir;
+    private final long maxSizeBytes;
+    private final long maxObjectBytes;
+
+    // Access-ordered: the first entry is the least recently used. Guarded by this
+    private final LinkedHashMap<Path, Long> entries = new LinkedHashMap<>(1024, 0.75f, true);
+    private long sizeBytes;
+    // Readers of each pinned entry. Guarded by this
+    private final Map<Path, Integer> pins = new HashMap<>();
+    private final Map<Path, CompletableFuture<Path>> loading = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public DiskMediaCacheAdapter(MeterRegistry meterRegistry,
+                                 @Value("${storage.disk-cache.dir:${java.io.tmpdir}/music-media-cache}") String dir,
+                                 @Value("${storage.disk-cache.max-size-mb:10240}") long maxSizeMb,
+                                 @Value("${storage.disk-cache.max-object-mb:64}") long maxObjectMb) throws IOException {
+        this.root = Path.of(dir).toAbsolutePath().normalize();
+        this.tempDir = root.resolve(TEMP_DIR);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+        this.maxObjectBytes = Math.min(maxObjectMb * 1024 * 1024, maxSizeBytes);
+        Files.createDirectories(tempDir);
+        load();
+
+        this.hits = Counter.builder("storage.disk.cache.requests")
+                .tag("result", "hit")
+                .description("Object reads served from the local disk cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("storage.disk.cache.requests")
+                .tag("result", "miss")
+                .description("Object reads that had to be loaded from storage")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("storage.disk.cache.evictions")
+                .description("Objects removed to keep the disk cache within its size")
+                .register(meterRegistry);
+        Gauge.builder("storage.disk.cache.size", this, DiskMediaCacheAdapter::currentSize)
+                .description("Bytes held in the local disk cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<Path> find(String bucket, String key) {
+        Path file = resolve(bucket, key);
+        if (file == null || !touch(file)) {
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(file);
+    }
+
+    @Override
+    public boolean accepts(long size) {
+        return size >= 0 && size <= maxObjectBytes;
+    }
+
+    @Override
+    public synchronized boolean pin(Path file) {
+        // containsKey does not count as a use of the entry
+        if (!entries.containsKey(file)) {
+            return false;
+        }
+        pins.merge(file, 1, Integer::sum);
+        return true;
+    }
+
+    @Override
+    public synchronized void unpin(Path file) {
+        pins.computeIfPresent(file, (pinned, readers) -> readers == 1 ? null : readers - 1);
+    }
+
+    @Override
+    public Path get(String bucket, String key, Loader loader) throws IOException {
+        Path file = resolve(bucket, key);
+        if (file == null) {
+            throw new IllegalArgumentException("Invalid object key: " + key);
+        }
+        if (touch(file)) {
+            hits.increment();
+            return file;
+        }
+
+        CompletableFuture<Path> load = new CompletableFuture<>();
+        CompletableFuture<Path> running = loading.putIfAbsent(file, load);
+        if (running != null) {
+            // Another request is loading this object: it is not fetched a second time
+            hits.increment();
+            return await(running);
+        }
+        misses.increment();
+        try {
+            Path filled = fill(file, loader);
+            load.complete(filled);
+            return filled;
+        } catch (IOException | RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(file, load);
+        }
+    }
+
+    @Override
+    public <T> T read(String bucket, String key, Loader loader, Reader<T> reader) throws IOException {
+        for (int attempt = 1; attempt <= READ_ATTEMPTS; attempt++) {
+            Path file = get(bucket, key, loader);
+            if (pin(file)) {
+                try {
+                    return reader.read(file);
+                } finally {
+                    unpin(file);
+                }
+            }
+        }
+        throw new IOException(key + " was evicted before it could be read " + READ_ATTEMPTS + " times");
+    }
+
+    private Path fill(Path file, Loader loader) throws IOException {
+        Path temp = tempDir.resolve(UUID.randomUUID().toString());
+        try {
+            loader.load(temp);
+            long size = Files.size(temp);
+            if (!accepts(size)) {
+                throw new IOException(file + " is " + size + " bytes, over the " + maxObjectBytes
+                        + " bytes an object may take in the disk cache");
+            }
+            Files.createDirectories(file.getParent());
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            add(file, size);
+            return file;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private synchronized boolean touch(Path file) {
+        if (entries.get(file) == null) {
+            return false;
+        }
+        if (Files.isRegularFile(file)) {
+            return true;
+        }
+        // Removed from disk behind our back
+        sizeBytes -= entries.remove(file);
+        return false;
+    }
+
+    private synchronized void add(Path file, long size) {
+        Long previous = entries.put(file, size);
+        sizeBytes += size - (previous == null ? 0 : previous);
+        Iterator<Map.Entry<Path, Long>> eldest = entries.entrySet().iterator();
+        while (sizeBytes > maxSizeBytes && eldest.hasNext()) {
+            Map.Entry<Path, Long> entry = eldest.next();
+            if (entry.getKey().equals(file) || pins.containsKey(entry.getKey())) {
+                continue;
+            }
+            eldest.remove();
+            sizeBytes -= entry.getValue();
+            evictions.increment();
+            try {
+                // Readers holding the file open keep reading it; new readers miss
+                Files.deleteIfExists(entry.getKey());
+            } catch (IOException e) {
+                logger.warn("Could not delete evicted cache file {}", entry.getKey(), e);
+            }
+        }
+    }
+
+    private synchronized long currentSize() {
+        return sizeBytes;
+    }
+
+    private void load() throws IOException {
+        // Loads interrupted by a restart
+        try (Stream<Path> partial = Files.list(tempDir)) {
+            for (Path file : partial.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        List<Map.Entry<Path, BasicFileAttributes>> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(path -> !path.startsWith(tempDir) && Files.isRegularFile(path))
+                    .map(path -> Map.entry(path, attributes(path)))
+                    .sorted(Comparator.comparing(entry -> entry.getValue().lastAccessTime()))
+                    .toList();
+        }
+        for (Map.Entry<Path, BasicFileAttributes> file : files) {
+            entries.put(file.getKey(), file.getValue().size());
+            sizeBytes += file.getValue().size();
+        }
+        logger.info("Disk cache at {} holds {} objects, {} MB", root, entries.size(), sizeBytes / (1024 * 1024));
+    }
+
+    private static BasicFileAttributes attributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path await(CompletableFuture<Path> load) throws IOException {
+        try {
+            return load.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a cache load", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Cache load failed", e.getCause());
+        }
+    }
+
+    // Keys are resolved under the root only, whatever they contain
+    private Path resolve(String bucket, String key) {
+        Path file = root.resolve(bucket).resolve(key).normalize();
+        return file.startsWith(root) && !file.startsWith(tempDir) && !file.equals(root) ? file : null;
+    }
+}
@@ -30,7 +30,8 @@ public class AlbumEntity {
     @JoinTable(
             name = "album_song",
             joinColumns = @JoinColumn(name = "album_id"),
-            inverseJoinColumns = @JoinColumn(name = "song_id")
+            inverseJoinColumns = @JoinColumn(name = "song_id"),
+            uniqueConstraints = @UniqueConstraint(name = "uk_album_song", columnNames = {"album_id", "song_id"})
     )
     private List<SongEntity> songs = new ArrayList<>();
 
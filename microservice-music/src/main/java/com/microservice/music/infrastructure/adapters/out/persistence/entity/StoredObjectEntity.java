@@ -0,0 +1,34 @@
+package com.microservice.music.infrastructure.adapters.out.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stored file that may have lost its last song: uploaded and not saved with a song yet, or
+ * pointed at by a deleted song. The sweep deletes the file once it is unpinned and unreferenced.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "stored_object")
+public class StoredObjectEntity {
+
+    @Id
+    @Column(name = "object_key", length = 500)
+    private String objectKey;
+
+    // An upload keeps its files from the sweep until then, long enough to save the song
+    @Column(name = "pinned_until", nullable = false)
+    private LocalDateTime pinnedUntil;
+
+    // Claimed by the sweep: the file is being deleted and cannot be pinned
+    @Column(nullable = false)
+    private boolean deleting;
+}
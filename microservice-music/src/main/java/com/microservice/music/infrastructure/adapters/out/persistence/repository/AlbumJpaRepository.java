@@ -2,11 +2,50 @@ package com.microservice.music.infrastructure.adapters.out.persistence.repositor
 
 import com.microservice.music.infrastructure.adapters.out.persistence.entity.AlbumEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface AlbumJpaRepository extends JpaRepository<AlbumEntity, Long> {
     List<AlbumEntity> findByTitleContainingIgnoreCase(String title);
     List<AlbumEntity> findByUserId(String userId);
 
+    @Query("SELECT a.userId FROM AlbumEntity a WHERE a.idAlbum = :id")
+    Optional<String> findUserIdById(@Param("id") Long id);
+
+    // Adding a song twice is a no-op: pairs already stored are skipped, and the unique key of
+    // album_song (see AlbumSongKeyInitializer) absorbs a concurrent add. Unlike INSERT IGNORE, a
+    // foreign key failure still fails the statement
+    @Modifying
+    @Query(value = """
+            INSERT INTO album_song (album_id, song_id)
+            SELECT :albumId, :songId FROM DUAL
+            WHERE NOT EXISTS (SELECT 1 FROM album_song WHERE album_id = :albumId AND song_id = :songId)
+            ON DUPLICATE KEY UPDATE album_id = album_id
+            """, nativeQuery = true)
+    int insertSong(@Param("albumId") Long albumId, @Param("songId") Long songId);
+
+    @Modifying
+    @Query(value = "DELETE FROM album_song WHERE album_id = :albumId AND song_id = :songId", nativeQuery = true)
+    int deleteSong(@Param("albumId") Long albumId, @Param("songId") Long songId);
+
+    // Ids without a song are skipped, as are songs already in the album
+    @Modifying
+    @Query(value = """
+            INSERT INTO album_song (album_id, song_id)
+            SELECT :albumId, s.id_song FROM song s
+            WHERE s.id_song IN (:songIds)
+              AND NOT EXISTS (SELECT 1 FROM album_song a WHERE a.album_id = :albumId AND a.song_id = s.id_song)
+            ON DUPLICATE KEY UPDATE album_id = album_id
+            """, nativeQuery = true)
+    int insertSongs(@Param("albumId") Long albumId, @Param("songIds") Collection<Long> songIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM album_song WHERE album_id = :albumId AND song_id IN (:songIds)", nativeQuery = true)
+    int deleteSongs(@Param("albumId") Long albumId, @Param("songIds") Collection<Long> songIds);
+
 }
@@ -3,12 +3,13 @@ package com.microservice.music.infrastructure.adapters.out.persistence.repositor
 import com.microservice.music.application.ports.out.AlbumPersistencePort;
 import com.microservice.music.domain.model.Album;
 import com.microservice.music.infrastructure.adapters.out.persistence.entity.AlbumEntity;
-import com.microservice.music.infrastructure.adapters.out.persistence.entity.SongEntity;
 import com.microservice.music.infrastructure.adapters.out.persistence.mapper.AlbumEntityMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,25 +17,16 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class AlbumPersistenceAdapter implements AlbumPersistencePort{
 
+    // Keeps IN lists well below the limits of the driver and the query planner
+    private static final int MAX_IDS_PER_STATEMENT = 1000;
+
     private final AlbumJpaRepository albumJpaRepository;
     private final AlbumEntityMapper albumEntityMapper;
+    // The album owns album_song, so the songs' side of the association needs no update.
+    // Changes to the membership of an existing album go through addSong/removeSong instead
     @Override
     public Album save(Album album) {
         AlbumEntity entity = albumEntityMapper.toEntity(album);
-
-        //IMPORTANT: Make sure the songs are also linked to this album
-        if (entity.getSongs() != null) {
-            for (SongEntity songEntity : entity.getSongs()) {
-                // add this album to the song's album list if it isn't already
-                if (songEntity.getAlbums() == null) {
-                    songEntity.setAlbums(new ArrayList<>());
-                }
-                if (songEntity.getAlbums().stream().noneMatch(a -> a.getIdAlbum().equals(entity.getIdAlbum()))) {
-                    songEntity.getAlbums().add(entity);
-                }
-            }
-        }
-
         AlbumEntity saved = albumJpaRepository.save(entity);
         return albumEntityMapper.toDomain(saved);
     }
@@ -73,4 +65,50 @@ public class AlbumPersistenceAdapter implements AlbumPersistencePort{
                 .map(albumEntityMapper::toDomain)
                 .toList();
     }
+
+    @Override
+    public Optional<String> findUserIdById(Long id) {
+        return albumJpaRepository.findUserIdById(id);
+    }
+
+    @Override
+    @Transactional
+    public boolean addSong(Long albumId, Long songId) {
+        return albumJpaRepository.insertSong(albumId, songId) > 0;
+    }
+
+    @Override
+    @Transactional
+    public boolean removeSong(Long albumId, Long songId) {
+        return albumJpaRepository.deleteSong(albumId, songId) > 0;
+    }
+
+    @Override
+    @Transactional
+    public int addSongs(Long albumId, Collection<Long> songIds) {
+        int added = 0;
+        for (List<Long> chunk : chunks(songIds)) {
+            added += albumJpaRepository.insertSongs(albumId, chunk);
+        }
+        return added;
+    }
+
+    @Override
+    @Transactional
+    public int removeSongs(Long albumId, Collection<Long> songIds) {
+        int removed = 0;
+        for (List<Long> chunk : chunks(songIds)) {
+            removed += albumJpaRepository.deleteSongs(albumId, chunk);
+        }
+        return removed;
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += MAX_IDS_PER_STATEMENT) {
+            chunks.add(distinct.subList(from, Math.min(from + MAX_IDS_PER_STATEMENT, distinct.size())));
+        }
+        return chunks;
+    }
 }
@@ -0,0 +1,122 @@
+package com.microservice.music.infrastructure.adapters.out.persistence.repository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Makes sure {@code album_song} has its unique key on (album_id, song_id), which is what keeps
+ * adding a song to an album idempotent.
+ * <p>
+ * The key is declared on the album entity, but {@code ddl-auto: update} skips it without a word
+ * when the table already holds duplicate rows, which the earlier list mapping allowed. Those
+ * duplicates are removed and the key is created here, after Hibernate has updated the schema; the
+ * service does not start without it. Instances starting together take turns through a named lock.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class AlbumSongKeyInitializer {
+
+    private static final String KEY_NAME = "uk_album_song";
+    private static final String LOCK_NAME = "music.album_song.unique_key";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void ensureUniqueKey() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (hasKey(connection)) {
+                return null;
+            }
+            lock(connection);
+            try {
+                if (!hasKey(connection)) {
+                    int removed = removeDuplicates(connection);
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("ALTER TABLE album_song ADD CONSTRAINT " + KEY_NAME
+                                + " UNIQUE (album_id, song_id)");
+                    }
+                    logger.info("Created {} on album_song after removing {} duplicate rows", KEY_NAME, removed);
+                }
+            } finally {
+                unlock(connection);
+            }
+            return null;
+        });
+    }
+
+    // Any unique index on exactly these columns will do, whatever its name
+    private static boolean hasKey(Connection connection) throws SQLException {
+        String sql = """
+                SELECT index_name FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'album_song' AND non_unique = 0
+                GROUP BY index_name
+                HAVING GROUP_CONCAT(column_name ORDER BY seq_in_index) = 'album_id,song_id'
+                """;
+        try (Statement statement = connection.createStatement(); ResultSet keys = statement.executeQuery(sql)) {
+            return keys.next();
+        }
+    }
+
+    // Rows of a pair are identical, so all but one of them go
+    private static int removeDuplicates(Connection connection) throws SQLException {
+        List<long[]> duplicates = new ArrayList<>();
+        String sql = """
+                SELECT album_id, song_id, COUNT(*) FROM album_song
+                GROUP BY album_id, song_id
+                HAVING COUNT(*) > 1
+                """;
+        try (Statement statement = connection.createStatement(); ResultSet rows = statement.executeQuery(sql)) {
+            while (rows.next()) {
+                duplicates.add(new long[]{rows.getLong(1), rows.getLong(2), rows.getLong(3)});
+            }
+        }
+        int removed = 0;
+        try (PreparedStatement delete = connection.prepareStatement(
+                "DELETE FROM album_song WHERE album_id = ? AND song_id = ? LIMIT ?")) {
+            for (long[] duplicate : duplicates) {
+                delete.setLong(1, duplicate[0]);
+                delete.setLong(2, duplicate[1]);
+                delete.setLong(3, duplicate[2] - 1);
+                removed += delete.executeUpdate();
+            }
+        }
+        return removed;
+    }
+
+    private static void lock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet result = statement.executeQuery()) {
+                if (!result.next() || result.getInt(1) != 1) {
+                    throw new IllegalStateException("Timed out waiting for another instance to create " + KEY_NAME);
+                }
+            }
+        }
+    }
+
+    private static void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.executeQuery().close();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.microservice.music.infrastructure.adapters.out.persistence.repository;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Fixed-size direct buffers reused by downloads, so copying an object costs one buffer whatever
+ * its size. Buffers in use are bounded by the storage connection pool; at most {@code maxIdle}
+ * are kept between downloads.
+ */
+final class DirectBufferPool {
+
+    private final int bufferSize;
+    private final BlockingQueue<ByteBuffer> idle;
+
+    DirectBufferPool(int bufferSize, int maxIdle) {
+        this.bufferSize = bufferSize;
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+    }
+
+    ByteBuffer acquire() {
+        ByteBuffer buffer = idle.poll();
+        return buffer != null ? buffer.clear() : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    void release(ByteBuffer buffer) {
+        // Dropped when the pool is full
+        idle.offer(buffer);
+    }
+}
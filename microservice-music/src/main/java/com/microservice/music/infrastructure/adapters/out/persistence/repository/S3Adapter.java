@@ -1,13 +1,17 @@
 package com.microservice.music.infrastructure.adapters.out.persistence.repository;
 
 import com.microservice.music.application.ports.out.FileStoragePort;
+import com.microservice.music.application.ports.out.MediaCachePort;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
-import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
@@ -16,24 +20,39 @@ import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequ
 import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 
 @Repository
 public class S3Adapter  implements FileStoragePort {
 
+    // Downloads copy through one of these whatever the object size
+    private static final int TRANSFER_BUFFER_SIZE = 128 * 1024;
+    private static final int MAX_IDLE_TRANSFER_BUFFERS = 16;
+
     @Autowired
     private S3Client s3Client;
     @Autowired
     private S3Presigner s3Presigner;
+    @Autowired
+    private MediaCachePort mediaCachePort;
     @Value("${aws.bucket}")
     private String bucket;
 
+    private final DirectBufferPool transferBuffers = new DirectBufferPool(TRANSFER_BUFFER_SIZE, MAX_IDLE_TRANSFER_BUFFERS);
+
     @Override
     public boolean uploadFile( String key, Path file) {
         PutObjectRequest putObjectRequest = PutObjectRequest.builder()
@@ -47,34 +66,95 @@ public class S3Adapter  implements FileStoragePort {
     }
 
     @Override
-    public void downloadFile(String bucket, String key) throws IOException {
-        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+    public boolean exists(String key) {
+        HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
                 .bucket(bucket)
                 .key(key)
                 .build();
+        try {
+            this.s3Client.headObject(headObjectRequest);
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        }
+    }
 
-        ResponseBytes<GetObjectResponse> objectBytes = this.s3Client.getObjectAsBytes(getObjectRequest);
+    @Override
+    public void deleteFile(String key) {
+        DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .build();
+
+        this.s3Client.deleteObject(deleteObjectRequest);
+    }
 
+    @Override
+    public void downloadFile(String bucket, String key) throws IOException {
         String fileName;
 
         if(key.contains("/")){
-            fileName = key.substring( key.lastIndexOf("/") );
+            fileName = key.substring( key.lastIndexOf("/") + 1 );
         } else {
             fileName = key;
         }
 
-        String filePath = Paths.get("src", "main", "resources", "static", fileName).toString();
+        download(bucket, key, Paths.get("src", "main", "resources", "static", fileName));
+    }
+
+    @Override
+    public void downloadTo(String key, Path target) throws IOException {
+        download(bucket, key, target);
+    }
 
-        File file = new File(filePath);
-        file.getParentFile().mkdirs();
+    private void download(String bucket, String key, Path target) throws IOException {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .build();
 
-        try (FileOutputStream fos = new FileOutputStream(file)) {
-            fos.write(objectBytes.asByteArray());
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (ResponseInputStream<GetObjectResponse> in = this.s3Client.getObject(getObjectRequest);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            copy(in, out);
+        }
+    }
+
+    // Writes to a slow target block the read, so at most one buffer of the object is in memory
+    private void copy(InputStream in, WritableByteChannel out) throws IOException {
+        ReadableByteChannel source = Channels.newChannel(in);
+        ByteBuffer buffer = transferBuffers.acquire();
+        try {
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+        } finally {
+            transferBuffers.release(buffer);
+        }
+    }
+
+    @Override
+    public String readObjectAsString(String key) {
+        try {
+            return mediaCachePort.read(bucket, key, target -> downloadTo(key, target), Files::readString);
         } catch (IOException e) {
-            throw new IOException("Error downloading file:" + e.getCause());
+            throw new UncheckedIOException("Error reading " + key, e);
         }
     }
 
+    @Override
+    public byte[] readObjectAsBytes(String key) throws IOException {
+        return mediaCachePort.read(bucket, key, target -> downloadTo(key, target), Files::readAllBytes);
+    }
+
     @Override
     public String generatePresignedUploadUrl( String key, Duration duration) {
         PutObjectRequest putObjectRequest = PutObjectRequest.builder()
@@ -1,15 +1,38 @@
 package com.microservice.music.infrastructure.adapters.out.persistence.repository;
 
+import com.microservice.music.domain.model.SongLyricsKeys;
+import com.microservice.music.domain.model.SongSummary;
 import com.microservice.music.infrastructure.adapters.out.persistence.entity.SongEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface SongJpaRepository extends JpaRepository<SongEntity, Long> {
     @Query("SELECT s FROM SongEntity s JOIN s.albums a WHERE a.idAlbum = :albumId")
     List<SongEntity> findByAlbumId(@Param("albumId") Long albumId);
 
     List<SongEntity> findByTitleContainingIgnoreCase(String title);
+
+    // Selects only the listed columns: the lyrics TEXT columns and the albums are never read
+    @Query("SELECT new com.microservice.music.domain.model.SongSummary(" +
+            "s.idSong, s.title, s.audioUrl, s.durationInSeconds, s.visible) " +
+            "FROM SongEntity s WHERE s.idSong > :afterId ORDER BY s.idSong")
+    List<SongSummary> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Albums are fetched in the same query, the mapper reads their ids for every song
+    @Query("SELECT DISTINCT s FROM SongEntity s LEFT JOIN FETCH s.albums WHERE s.idSong IN :ids")
+    List<SongEntity> findAllWithAlbumsById(@Param("ids") Collection<Long> ids);
+
+    // Two short columns of one row: nothing else of the song and none of its albums
+    @Query("SELECT new com.microservice.music.domain.model.SongLyricsKeys(s.idSong, s.lyricsEs, s.lyricsEn) " +
+            "FROM SongEntity s WHERE s.idSong = :id")
+    Optional<SongLyricsKeys> findLyricsKeysById(@Param("id") Long id);
+
+    @Query("SELECT s.idSong FROM SongEntity s WHERE s.idSong IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
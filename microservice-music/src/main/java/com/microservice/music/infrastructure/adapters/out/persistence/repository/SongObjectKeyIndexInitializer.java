@@ -0,0 +1,74 @@
+package com.microservice.music.infrastructure.adapters.out.persistence.repository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Indexes the columns of {@code song} that hold stored object keys, so that the storage sweep
+ * checks whether a song still points at a file with one lookup per column instead of a scan of
+ * every song.
+ * <p>
+ * The lyrics columns are TEXT, which MySQL only indexes by prefix, and {@code ddl-auto: update}
+ * cannot declare such an index; they are created here after Hibernate has updated the schema.
+ * Keys are far shorter than the prefix, so the index holds them whole.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class SongObjectKeyIndexInitializer {
+
+    private static final List<String> KEY_COLUMNS = List.of("audio_url", "lyrics_es", "lyrics_en");
+    private static final int PREFIX_LENGTH = 255;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void ensureIndexes() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            for (String column : KEY_COLUMNS) {
+                if (isIndexed(connection, column)) {
+                    continue;
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("CREATE INDEX idx_song_" + column + " ON song (" + column + "(" + PREFIX_LENGTH + "))");
+                    logger.info("Created index idx_song_{} on song", column);
+                } catch (SQLException e) {
+                    // Another instance starting at the same time may have created it first
+                    if (!isIndexed(connection, column)) {
+                        throw e;
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    // Any index leading with the column will do, whatever its name
+    private static boolean isIndexed(Connection connection, String column) throws SQLException {
+        String sql = """
+                SELECT 1 FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'song' AND column_name = ? AND seq_in_index = 1
+                """;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, column);
+            try (ResultSet indexes = statement.executeQuery()) {
+                return indexes.next();
+            }
+        }
+    }
+}
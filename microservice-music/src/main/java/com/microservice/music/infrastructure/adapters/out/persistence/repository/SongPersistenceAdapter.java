@@ -2,17 +2,27 @@ package com.microservice.music.infrastructure.adapters.out.persistence.repositor
 
 import com.microservice.music.application.ports.out.SongPersistencePort;
 import com.microservice.music.domain.model.Song;
+import com.microservice.music.domain.model.SongLyricsKeys;
+import com.microservice.music.domain.model.SongSummary;
 import com.microservice.music.infrastructure.adapters.out.persistence.entity.SongEntity;
 import com.microservice.music.infrastructure.adapters.out.persistence.mapper.SongEntityMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 @Repository
 @RequiredArgsConstructor
 public class SongPersistenceAdapter implements SongPersistencePort {
 
+    // Keeps IN lists well below the limits of the driver and the query planner
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
     private final SongJpaRepository songJpaRepository;
     private final SongEntityMapper songEntityMapper;
     @Override
@@ -29,12 +39,14 @@ public class SongPersistenceAdapter implements SongPersistencePort {
     }
 
     @Override
-    public List<Song> findAll() {
-        return songJpaRepository.findAll()
-                .stream()
-                .map(songEntityMapper::toDomain)
-                .toList();
+    public List<SongSummary> findSummaryPage(Long afterId, int limit) {
+        long after = afterId == null ? 0L : afterId;
+        return songJpaRepository.findSummariesAfter(after, PageRequest.of(0, limit));
+    }
 
+    @Override
+    public Optional<SongLyricsKeys> findLyricsKeys(Long id) {
+        return songJpaRepository.findLyricsKeysById(id);
     }
 
     @Override
@@ -63,4 +75,32 @@ public class SongPersistenceAdapter implements SongPersistencePort {
         return songJpaRepository.findById(id)
                 .map(songEntityMapper::toDomain);
     }
+
+    @Override
+    public boolean existsById(Long id) {
+        return songJpaRepository.existsById(id);
+    }
+
+    @Override
+    public List<Song> findAllById(Collection<Long> ids) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        List<Song> songs = new ArrayList<>(distinct.size());
+        for (int from = 0; from < distinct.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + MAX_IDS_PER_QUERY, distinct.size()));
+            songJpaRepository.findAllWithAlbumsById(chunk).forEach(entity -> songs.add(songEntityMapper.toDomain(entity)));
+        }
+        return songs;
+    }
+
+    @Override
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        Set<Long> existing = new HashSet<>();
+        for (int from = 0; from < distinct.size(); from += MAX_IDS_PER_QUERY) {
+            existing.addAll(songJpaRepository.findExistingIds(
+                    distinct.subList(from, Math.min(from + MAX_IDS_PER_QUERY, distinct.size()))));
+        }
+        return existing;
+    }
+
 }
@@ -0,0 +1,57 @@
+package com.microservice.music.infrastructure.adapters.out.persistence.repository;
+
+import com.microservice.music.infrastructure.adapters.out.persistence.entity.StoredObjectEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StoredObjectJpaRepository extends JpaRepository<StoredObjectEntity, String> {
+
+    // A row being deleted keeps its pin, the caller finds it deleting and waits
+    @Modifying
+    @Query(value = """
+            INSERT INTO stored_object (object_key, pinned_until, deleting)
+            VALUES (:key, :until, false)
+            ON DUPLICATE KEY UPDATE pinned_until = IF(deleting, pinned_until, GREATEST(pinned_until, :until))
+            """, nativeQuery = true)
+    void pin(@Param("key") String key, @Param("until") LocalDateTime until);
+
+    // Leaves an existing row, and its pin, as it is
+    @Modifying
+    @Query(value = """
+            INSERT INTO stored_object (object_key, pinned_until, deleting)
+            VALUES (:key, :now, false)
+            ON DUPLICATE KEY UPDATE object_key = object_key
+            """, nativeQuery = true)
+    void track(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    // Tombstones left by an interrupted sweep come back too, so their files are deleted again
+    @Query("SELECT o FROM StoredObjectEntity o WHERE o.pinnedUntil < :now ORDER BY o.pinnedUntil")
+    List<StoredObjectEntity> findUnpinned(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Serialized with pin by the row lock: a file pinned meanwhile, or saved with a song, is not claimed.
+    // One check per key column, so that each is an index lookup (see SongObjectKeyIndexInitializer)
+    @Modifying
+    @Query(value = """
+            UPDATE stored_object o SET o.deleting = true
+            WHERE o.object_key = :key AND o.pinned_until < :now
+              AND NOT EXISTS (SELECT 1 FROM song s WHERE s.audio_url = :key)
+              AND NOT EXISTS (SELECT 1 FROM song s WHERE s.lyrics_es = :key)
+              AND NOT EXISTS (SELECT 1 FROM song s WHERE s.lyrics_en = :key)
+            """, nativeQuery = true)
+    int markDeleting(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    // A referenced file is forgotten until a song pointing at it is deleted; a fresh pin is kept
+    @Modifying
+    @Query("DELETE FROM StoredObjectEntity o WHERE o.objectKey = :key AND o.pinnedUntil < :now AND o.deleting = false")
+    int forget(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM StoredObjectEntity o WHERE o.objectKey = :key AND o.deleting = true")
+    int deleteTombstone(@Param("key") String key);
+}
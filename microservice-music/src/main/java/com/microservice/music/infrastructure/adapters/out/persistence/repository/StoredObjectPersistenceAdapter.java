@@ -0,0 +1,61 @@
+package com.microservice.music.infrastructure.adapters.out.persistence.repository;
+
+import com.microservice.music.application.ports.out.StoredObjectPersistencePort;
+import com.microservice.music.infrastructure.adapters.out.persistence.entity.StoredObjectEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Guards content-addressed files against deletion while a song may still point at them. An upload
+ * pins its files before checking whether they are stored, and the sweep only claims a file that is
+ * unpinned and unreferenced, in one statement that the pin cannot interleave with. A claimed file
+ * is deleted before its row goes, so a pin waits until the file is really gone and stores it again.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StoredObjectPersistenceAdapter implements StoredObjectPersistencePort {
+
+    private final StoredObjectJpaRepository storedObjectJpaRepository;
+
+    @Override
+    @Transactional
+    public boolean pin(String key, LocalDateTime until) {
+        storedObjectJpaRepository.pin(key, until);
+        return storedObjectJpaRepository.findById(key)
+                .map(stored -> !stored.isDeleting())
+                .orElse(false);
+    }
+
+    @Override
+    @Transactional
+    public void release(String key) {
+        storedObjectJpaRepository.track(key, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional
+    public List<String> claimUnreferenced(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> claimed = new ArrayList<>();
+        for (StoredObjectEntity stored : storedObjectJpaRepository.findUnpinned(now, PageRequest.of(0, limit))) {
+            if (stored.isDeleting() || storedObjectJpaRepository.markDeleting(stored.getObjectKey(), now) == 1) {
+                claimed.add(stored.getObjectKey());
+            } else {
+                storedObjectJpaRepository.forget(stored.getObjectKey(), now);
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    @Transactional
+    public void remove(String key) {
+        storedObjectJpaRepository.deleteTombstone(key);
+    }
+}
@@ -36,7 +36,8 @@ public class SecurityConfig  implements WebMvcConfigurer {
                                 "/music/song/album/**",
                                 "/v3/api-docs/**",
                                 "/swagger-ui.html",
-                                "/swagger-ui/**"
+                                "/swagger-ui/**",
+                                "/actuator/health"
                         ).permitAll()
                         .anyRequest().authenticated()
                 )
@@ -53,6 +54,8 @@ public class SecurityConfig  implements WebMvcConfigurer {
         config.setAllowedOriginPatterns(List.of("*")); // frontend
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        // Paging header of the song catalog, readable by browser clients
+        config.setExposedHeaders(List.of("X-Next-Cursor"));
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,91 @@
+package com.microservice.music.application.services;
+
+import com.microservice.music.domain.model.LyricLine;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LyricsIndexTest {
+
+    private static final String LRC = """
+            [ar:Someone]
+            [ti:Song]
+            [00:01.50]First line
+            [00:05.00][00:20.00]Chorus
+            [00:10.25]Third line
+            [00:15.00]
+            [00:25.000]Última línea
+            """;
+
+    @Test
+    void parsesLrcLinesUntilTheNextOne() {
+        LyricsIndex index = LyricsIndex.parse(LRC);
+
+        assertEquals(5, index.size());
+        List<LyricLine> all = index.window(0, Long.MAX_VALUE);
+        assertLine(all.get(0), 1500, 5000L, "First line");
+        assertLine(all.get(1), 5000, 10250L, "Chorus");
+        // The empty line ends the third one
+        assertLine(all.get(2), 10250, 15000L, "Third line");
+        assertLine(all.get(3), 20000, 25000L, "Chorus");
+        assertLine(all.get(4), 25000, null, "Última línea");
+    }
+
+    @Test
+    void returnsTheLinesSoundingInTheWindow() {
+        LyricsIndex index = LyricsIndex.parse(LRC);
+
+        List<LyricLine> window = index.window(6000, 12000);
+        assertEquals(List.of("Chorus", "Third line"), window.stream().map(LyricLine::getText).toList());
+        assertEquals(List.of(), index.window(15000, 20000).stream().map(LyricLine::getText).toList());
+        assertEquals(List.of("Última línea"), index.window(600_000, 630_000).stream().map(LyricLine::getText).toList());
+    }
+
+    @Test
+    void parsesVttCuesIncludingOverlappingOnes() {
+        LyricsIndex index = LyricsIndex.parse("""
+                WEBVTT
+
+                NOTE a comment
+
+                1
+                00:00:01.000 --> 00:00:08.000
+                Long <c.lead>line</c>
+
+                00:02.000 --> 00:00:03.500 align:start
+                Short
+                line
+                """);
+
+        assertEquals(2, index.size());
+        List<LyricLine> window = index.window(4000, 5000);
+        assertEquals(1, window.size());
+        assertLine(window.get(0), 1000, 8000L, "Long line");
+        assertLine(index.window(2500, 2600).get(1), 2000, 3500L, "Short\nline");
+    }
+
+    @Test
+    void roundTripsThroughItsBinaryForm() throws Exception {
+        LyricsIndex index = LyricsIndex.decode(LyricsIndex.parse(LRC).encode());
+
+        assertEquals(5, index.size());
+        assertLine(index.window(25000, 26000).get(0), 25000, null, "Última línea");
+        assertThrows(java.io.IOException.class, () -> LyricsIndex.decode(new byte[]{1, 2, 3, 4, 0, 0, 0, 0}));
+    }
+
+    @Test
+    void plainLyricsHaveNoIndex() {
+        assertNull(LyricsIndex.parse("Just words\nwithout timing\n"));
+        assertEquals("lyrics/abc.idx", LyricsIndex.keyFor("lyrics/abc.txt"));
+    }
+
+    private static void assertLine(LyricLine line, long startMs, Long endMs, String text) {
+        assertEquals(startMs, line.getStartMs());
+        assertEquals(endMs, line.getEndMs());
+        assertEquals(text, line.getText());
+    }
+}